@@ -0,0 +1,449 @@
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.GlobalHistogramBinarizer;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.common.ParallelHybridBinarizer;
+import com.google.zxing.common.reedsolomon.ByteReedSolomonEncoder;
+import com.google.zxing.common.reedsolomon.GenericGF;
+import com.google.zxing.common.reedsolomon.ReedSolomonDecoder;
+import com.google.zxing.common.reedsolomon.ReedSolomonEncoder;
+import com.google.zxing.multi.GenericMultipleBarcodeReader;
+import com.google.zxing.multi.PyramidReader;
+import com.google.zxing.qrcode.QRCodeBatchWriter;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.Encoder;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+
+/**
+ * The Benchmarks class is a small throughput harness for the barcode encoders and decoders and the ZXING hot paths
+ * they rely on. Each benchmark is warmed up and then run for a number of timed iterations, and the mean operations
+ * per second are reported together with the spread between iterations.
+ * Results can be saved as a baseline file and later runs compared against it, failing when a benchmark gets slower
+ * than the allowed tolerance so regressions are caught before release.
+ *
+ * <p>Usage: {@code java Benchmarks [--filter regex] [--iterations n] [--time ms] [--save file]
+ * [--baseline file] [--tolerance percent]}</p>
+ */
+public final class Benchmarks {
+
+    /**
+     * A single operation to be timed. Whatever it returns is consumed so the JIT can not remove the work.
+     */
+    @FunctionalInterface
+    public interface Operation {
+        /**
+         * Run the operation once.
+         *
+         * @return The result of the operation.
+         * @throws Exception If the operation fails.
+         */
+        Object run() throws Exception;
+    }
+
+    /** The benchmarks to run, by name, in the order they were registered. */
+    private static final Map<String, Operation> BENCHMARKS = new LinkedHashMap<>();
+
+    /** Accumulates the hash codes of every result so that no operation is dead code. */
+    private static int sink;
+
+    private Benchmarks() {
+    }
+
+    /**
+     * Register a benchmark.
+     *
+     * @param name      The name the benchmark is reported and filtered by.
+     * @param operation The operation to time.
+     */
+    static void register(String name, Operation operation) {
+        BENCHMARKS.put(name, operation);
+    }
+
+    /**
+     * Runs the benchmarks selected on the command line and prints one result line per benchmark.
+     *
+     * @param args Command line options, see the class documentation.
+     * @throws Exception If a benchmark fails or a file can not be read or written.
+     */
+    public static void main(String[] args) throws Exception {
+        Pattern filter = null;
+        int iterations = 5;
+        long iterationMillis = 1000;
+        Path save = null;
+        Path baseline = null;
+        double tolerance = 20;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--filter":
+                    filter = Pattern.compile(args[++i]);
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(args[++i]);
+                    break;
+                case "--time":
+                    iterationMillis = Long.parseLong(args[++i]);
+                    break;
+                case "--save":
+                    save = Path.of(args[++i]);
+                    break;
+                case "--baseline":
+                    baseline = Path.of(args[++i]);
+                    break;
+                case "--tolerance":
+                    tolerance = Double.parseDouble(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        registerAll();
+        Map<String, Double> expected = baseline == null ? Collections.emptyMap() : readResults(baseline);
+        List<String> lines = new ArrayList<>();
+        List<String> regressions = new ArrayList<>();
+
+        for (Map.Entry<String, Operation> entry : BENCHMARKS.entrySet()) {
+            String name = entry.getKey();
+            if (filter != null && !filter.matcher(name).find()) {
+                continue;
+            }
+            double[] opsPerSecond = measure(entry.getValue(), iterations, iterationMillis);
+            double mean = mean(opsPerSecond);
+            String line = String.format(Locale.ROOT, "%-48s %14.1f ops/s  +- %5.1f%%",
+                    name, mean, 100 * standardDeviation(opsPerSecond, mean) / mean);
+
+            Double previous = expected.get(name);
+            if (previous != null) {
+                double change = 100 * (mean - previous) / previous;
+                line += String.format(Locale.ROOT, "  %+6.1f%% vs baseline", change);
+                if (change < -tolerance) {
+                    regressions.add(name);
+                }
+            }
+            System.out.println(line);
+            lines.add(line);
+        }
+
+        if (save != null) {
+            Files.write(save, lines, StandardCharsets.UTF_8);
+        }
+        if (!regressions.isEmpty()) {
+            System.out.println("Slower than baseline by more than " + tolerance + "%: " + regressions);
+            System.exit(1);
+        }
+        if (sink == 42) {
+            System.out.println();   // Read the sink so it is never optimized away
+        }
+    }
+
+    /**
+     * Warm up an operation for one iteration and then time it for the given number of iterations.
+     *
+     * @param operation       The operation to time.
+     * @param iterations      The number of timed iterations.
+     * @param iterationMillis The length of each iteration in milliseconds.
+     * @return The operations per second measured in each iteration.
+     * @throws Exception If the operation fails.
+     */
+    private static double[] measure(Operation operation, int iterations, long iterationMillis) throws Exception {
+        runFor(operation, iterationMillis);
+        double[] opsPerSecond = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            opsPerSecond[i] = runFor(operation, iterationMillis);
+        }
+        return opsPerSecond;
+    }
+
+    /**
+     * Run an operation repeatedly for about the given time.
+     *
+     * @param operation      The operation to run.
+     * @param durationMillis How long to run for in milliseconds.
+     * @return The number of operations completed per second.
+     * @throws Exception If the operation fails.
+     */
+    private static double runFor(Operation operation, long durationMillis) throws Exception {
+        long duration = durationMillis * 1_000_000;
+        long start = System.nanoTime();
+        long elapsed;
+        long count = 0;
+        do {
+            // Check the clock every few operations so that timing does not dominate fast operations
+            for (int i = 0; i < 16; i++) {
+                Object result = operation.run();
+                sink += result == null ? 0 : result.hashCode();
+            }
+            count += 16;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < duration);
+        return count * 1_000_000_000.0 / elapsed;
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    private static double standardDeviation(double[] values, double mean) {
+        double sum = 0;
+        for (double value : values) {
+            sum += (value - mean) * (value - mean);
+        }
+        return Math.sqrt(sum / values.length);
+    }
+
+    /**
+     * Read the mean operations per second of each benchmark from a file written with --save.
+     *
+     * @param path The file to read.
+     * @return The mean operations per second, by benchmark name.
+     * @throws IOException If the file can not be read.
+     */
+    private static Map<String, Double> readResults(Path path) throws IOException {
+        Map<String, Double> results = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            String[] fields = line.trim().split("\\s+");
+            if (fields.length >= 3 && "ops/s".equals(fields[2])) {
+                results.put(fields[0], Double.parseDouble(fields[1]));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Register every benchmark. Inputs are built once here so that only the operation itself is timed.
+     *
+     * @throws Exception If an input can not be built.
+     */
+    private static void registerAll() throws Exception {
+        String zipCode = "12345678901";
+        String postnetBinary = EncodePostNet.encodeZipCode(zipCode);
+        String productCode = "01254667375";
+        String upcaBinary = EncodeUpca.getBinaryRep(productCode);
+
+        register("EncodePostNet.getBarCode", () -> EncodePostNet.getBarCode(zipCode));
+        register("DecodePostNet.decodeZipPlusFourPlusDelivery",
+                () -> DecodePostNet.decodeZipPlusFourPlusDelivery(postnetBinary));
+        register("EncodeUpca.getBinaryRep", () -> EncodeUpca.getBinaryRep(productCode));
+        register("DecodeUpca.getDecoded", () -> DecodeUpca.getDecoded(upcaBinary));
+        register("PostnetCodec.encode", () -> PostnetCodec.encode(zipCode));
+        register("PostnetCodec.decode", () -> PostnetCodec.decode(postnetBinary));
+        register("UpcaCodec.encode", () -> UpcaCodec.encode(productCode));
+        int[] digits = new int[UpcaCodec.PRODUCT_CODE_LENGTH + 1];
+        register("UpcaCodec.decodeDigits", () -> {
+            UpcaCodec.decodeDigits(upcaBinary, digits);
+            return digits[0];
+        });
+
+        Path qrFile = Files.createTempFile("benchmark", ".png");
+        qrFile.toFile().deleteOnExit();
+        register("GenerateQRCode.generate", () -> {
+            GenerateQRCode.generate("https://github.com/jarkin0513/Java-Barcodes", 350, 350, qrFile.toString());
+            return null;
+        });
+        register("Encoder.encode", () -> Encoder.encode(
+                "https://github.com/jarkin0513/Java-Barcodes", ErrorCorrectionLevel.M));
+        // Long enough for a version 29 symbol, where laying out and scoring each mask takes longer
+        String longContents = String.join(" ", Collections.nCopies(90, "Java-Barcodes"));
+        register("Encoder.encodeLarge", () -> Encoder.encode(longContents, ErrorCorrectionLevel.M));
+        Map<EncodeHintType, Object> parallelMaskHints = new EnumMap<>(EncodeHintType.class);
+        parallelMaskHints.put(EncodeHintType.PARALLEL_MASK_SEARCH, ForkJoinPool.commonPool());
+        register("Encoder.encodeLargeParallelMasks",
+                () -> Encoder.encode(longContents, ErrorCorrectionLevel.M, parallelMaskHints));
+        // A run of 64 ticket codes rendered at 300x300, one at a time and as a batch
+        List<String> tickets = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            tickets.add("https://tickets.example.com/t/" + (100000 + i * 7919));
+        }
+        Map<EncodeHintType, Object> ticketHints = new EnumMap<>(EncodeHintType.class);
+        ticketHints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M);
+        QRCodeWriter ticketWriter = new QRCodeWriter();
+        register("QRCodeWriter.encodeTickets", () -> {
+            int dark = 0;
+            for (String ticket : tickets) {
+                dark += ticketWriter.encode(ticket, BarcodeFormat.QR_CODE, 300, 300, ticketHints).get(150, 150) ? 1 : 0;
+            }
+            return dark;
+        });
+        QRCodeBatchWriter batchWriter = new QRCodeBatchWriter(300, 300, ticketHints);
+        register("QRCodeBatchWriter.encodeTickets", () -> {
+            int[] dark = new int[tickets.size()];
+            batchWriter.encode(tickets, (index, matrix) -> dark[index] = matrix.get(150, 150) ? 1 : 0);
+            return dark;
+        });
+        // One block of a version 40-L QR code: 118 data bytes and 30 error correction bytes
+        byte[] block = new byte[118];
+        new Random(7).nextBytes(block);
+        int[] toEncode = new int[block.length + 30];
+        ReedSolomonEncoder genericEncoder = new ReedSolomonEncoder(GenericGF.QR_CODE_FIELD_256);
+        register("ReedSolomonEncoder.encode", () -> {
+            for (int i = 0; i < block.length; i++) {
+                toEncode[i] = block[i] & 0xFF;
+            }
+            genericEncoder.encode(toEncode, 30);
+            return toEncode;
+        });
+        byte[] ecBytes = new byte[30];
+        ByteReedSolomonEncoder byteEncoder = new ByteReedSolomonEncoder(GenericGF.QR_CODE_FIELD_256);
+        register("ByteReedSolomonEncoder.encode", () -> {
+            byteEncoder.encode(block, 0, block.length, ecBytes, 0, ecBytes.length);
+            return ecBytes;
+        });
+        // The same block as received, first intact and then with 10 of its bytes wrong
+        byteEncoder.encode(block, 0, block.length, ecBytes, 0, ecBytes.length);
+        int[] codeword = new int[block.length + ecBytes.length];
+        for (int i = 0; i < block.length; i++) {
+            codeword[i] = block[i] & 0xFF;
+        }
+        for (int i = 0; i < ecBytes.length; i++) {
+            codeword[block.length + i] = ecBytes[i] & 0xFF;
+        }
+        int[] received = new int[codeword.length];
+        ReedSolomonDecoder decoder = new ReedSolomonDecoder(GenericGF.QR_CODE_FIELD_256);
+        register("ReedSolomonDecoder.decode", () -> {
+            System.arraycopy(codeword, 0, received, 0, codeword.length);
+            return decoder.decodeWithECCount(received, ecBytes.length);
+        });
+        register("ReedSolomonDecoder.decodeErrors", () -> {
+            System.arraycopy(codeword, 0, received, 0, codeword.length);
+            for (int i = 0; i < 10; i++) {
+                received[i * 13] ^= 0x5A;
+            }
+            return decoder.decodeWithECCount(received, ecBytes.length);
+        });
+
+        List<BufferedImage> corpus = buildCorpus();
+        BufferedImage first = corpus.get(0);
+        register("BufferedImageLuminanceSource.getMatrix",
+                () -> new BufferedImageLuminanceSource(first).getMatrix());
+        register("BufferedImageLuminanceSource.cropRow",
+                () -> new BufferedImageLuminanceSource(first, 100, 80, 300, 300).getRow(150, null));
+        register("HybridBinarizer.getBlackMatrix",
+                () -> new HybridBinarizer(new BufferedImageLuminanceSource(first)).getBlackMatrix());
+        register("ParallelHybridBinarizer.getBlackMatrix",
+                () -> new ParallelHybridBinarizer(new BufferedImageLuminanceSource(first)).getBlackMatrix());
+        // A frame of random dark and light pixels, where testing each pixel with a branch can not be predicted
+        LuminanceSource noise = buildNoise(1280, 960);
+        register("HybridBinarizer.getBlackMatrixNoisy", () -> new HybridBinarizer(noise).getBlackMatrix());
+        register("GlobalHistogramBinarizer.getBlackMatrixNoisy",
+                () -> new GlobalHistogramBinarizer(noise).getBlackMatrix());
+
+        MultiFormatReader reader = new MultiFormatReader();
+        Map<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
+        hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+        reader.setHints(hints);
+        int[] next = {0};
+        register("MultiFormatReader.decode", () -> {
+            BufferedImage image = corpus.get(next[0]++ % corpus.size());
+            LuminanceSource source = new BufferedImageLuminanceSource(image);
+            return reader.decodeWithState(new BinaryBitmap(new HybridBinarizer(source)));
+        });
+
+        MultiFormatReader concurrentReader = new MultiFormatReader();
+        Map<DecodeHintType, Object> concurrentHints = new EnumMap<>(hints);
+        concurrentHints.put(DecodeHintType.CONCURRENT_READERS, ForkJoinPool.commonPool());
+        concurrentReader.setHints(concurrentHints);
+        register("MultiFormatReader.decodeConcurrent", () -> {
+            BufferedImage image = corpus.get(next[0]++ % corpus.size());
+            LuminanceSource source = new BufferedImageLuminanceSource(image);
+            return concurrentReader.decodeWithState(new BinaryBitmap(new HybridBinarizer(source)));
+        });
+
+        PyramidReader pyramidReader = new PyramidReader(new MultiFormatReader());
+        register("PyramidReader.decode", () -> {
+            BufferedImage image = corpus.get(next[0]++ % corpus.size());
+            LuminanceSource source = new BufferedImageLuminanceSource(image);
+            return pyramidReader.decode(new BinaryBitmap(new HybridBinarizer(source)), hints);
+        });
+
+        GenericMultipleBarcodeReader multipleReader = new GenericMultipleBarcodeReader(new MultiFormatReader());
+        register("GenericMultipleBarcodeReader.decodeMultiple", () -> {
+            BufferedImage image = corpus.get(next[0]++ % corpus.size());
+            LuminanceSource source = new BufferedImageLuminanceSource(image);
+            return multipleReader.decodeMultiple(new BinaryBitmap(new HybridBinarizer(source)), hints);
+        });
+    }
+
+    /**
+     * Build a frame where every pixel is randomly either dark or light, seeded so it is the same on every run.
+     *
+     * @param width  The width of the frame in pixels.
+     * @param height The height of the frame in pixels.
+     * @return The luminance of the frame.
+     */
+    static LuminanceSource buildNoise(int width, int height) {
+        Random random = new Random(42);
+        byte[] pixels = new byte[width * height];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = (byte) (random.nextBoolean() ? 20 + random.nextInt(40) : 180 + random.nextInt(60));
+        }
+        return new PlanarYUVLuminanceSource(pixels, width, height, 0, 0, width, height, false);
+    }
+
+    /**
+     * Build the sample images used by the decoding benchmarks. Each image is a camera sized frame with a gray
+     * background and a single barcode drawn somewhere inside it, so the images are the same on every run without
+     * needing image files checked in.
+     *
+     * @return The sample images.
+     * @throws Exception If a barcode can not be encoded.
+     */
+    static List<BufferedImage> buildCorpus() throws Exception {
+        Object[][] samples = {
+                {BarcodeFormat.QR_CODE, "https://github.com/jarkin0513/Java-Barcodes", 300, 300},
+                {BarcodeFormat.UPC_A, "012546673754", 380, 120},
+                {BarcodeFormat.CODE_128, "PALLET-0042-A17", 420, 120},
+                {BarcodeFormat.EAN_13, "4006381333931", 380, 120},
+                {BarcodeFormat.PDF_417, "Ticket 8812 Row F Seat 12", 420, 160},
+        };
+        MultiFormatWriter writer = new MultiFormatWriter();
+        List<BufferedImage> corpus = new ArrayList<>();
+        for (int i = 0; i < samples.length; i++) {
+            Object[] sample = samples[i];
+            BitMatrix matrix = writer.encode((String) sample[1], (BarcodeFormat) sample[0],
+                    (Integer) sample[2], (Integer) sample[3]);
+            BufferedImage barcode = MatrixToImageWriter.toBufferedImage(matrix);
+
+            BufferedImage frame = new BufferedImage(1280, 960, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = frame.createGraphics();
+            int gray = 150 + 20 * i;
+            graphics.setColor(new Color(gray, gray, gray));
+            graphics.fillRect(0, 0, frame.getWidth(), frame.getHeight());
+            graphics.drawImage(barcode, 100 + 150 * i, 80 + 120 * i, null);
+            graphics.dispose();
+            corpus.add(frame);
+        }
+        return corpus;
+    }
+}
@@ -0,0 +1,312 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+
+/**
+ * The BatchProcessor class encodes or decodes a whole file of POSTNET or UPCA codes without any user interaction.
+ * The input file is read one line at a time with a buffered reader, so files far larger than memory can be processed.
+ * Lines are grouped into chunks which are encoded or decoded in parallel on a ForkJoinPool, and the chunks are
+ * written back out in the same order they were read, so line N of the output always belongs to line N of the input.
+ * Only a limited number of chunks are held in memory at once.
+ */
+public class BatchProcessor {
+
+    /**
+     * The operations that can be run over each line of an input file.
+     */
+    public enum Operation {
+        /** Encode a ZIP code into its POSTNET binary and barcode representations, separated by a space. */
+        ENCODE_POSTNET("encode-postnet") {
+            @Override
+            void process(String line, StringBuilder out, Scratch scratch) {
+                int length = PostnetCodec.encode(line, scratch.binary, 0, scratch.barCode, 0);
+                out.append(scratch.binary, 0, length).append(' ').append(scratch.barCode, 0, length);
+            }
+        },
+        /** Decode a POSTNET binary representation into its ZIP code. */
+        DECODE_POSTNET("decode-postnet") {
+            @Override
+            void process(String line, StringBuilder out, Scratch scratch) {
+                out.append(PostnetCodec.decode(line));
+            }
+        },
+        /** Encode an 11 digit product code into its 95 digit UPCA binary representation. */
+        ENCODE_UPCA("encode-upca") {
+            @Override
+            void process(String line, StringBuilder out, Scratch scratch) {
+                out.append(UpcaCodec.encode(line));
+            }
+        },
+        /** Decode a 95 digit UPCA binary representation into its product code and check digit, separated by a space. */
+        DECODE_UPCA("decode-upca") {
+            @Override
+            void process(String line, StringBuilder out, Scratch scratch) {
+                UpcaCodec.decodeDigits(line, scratch.digits);
+                for (int i = 0; i < UpcaCodec.PRODUCT_CODE_LENGTH; i++) {
+                    out.append((char) ('0' + scratch.digits[i]));
+                }
+                out.append(' ').append((char) ('0' + scratch.digits[UpcaCodec.PRODUCT_CODE_LENGTH]));
+            }
+        };
+
+        /** The name used to select this operation on the command line. */
+        private final String commandName;
+
+        Operation(String commandName) {
+            this.commandName = commandName;
+        }
+
+        /**
+         * Getter for the name used to select this operation on the command line.
+         *
+         * @return The command line name, such as "encode-postnet".
+         */
+        public String getCommandName() {
+            return commandName;
+        }
+
+        /**
+         * Find the operation with the given command line name.
+         *
+         * @param commandName The command line name, such as "encode-postnet".
+         * @return The matching operation, or null if there is none.
+         */
+        public static Operation forCommandName(String commandName) {
+            for (Operation operation : values()) {
+                if (operation.commandName.equals(commandName)) {
+                    return operation;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Encode or decode a single line and append the result to out.
+         *
+         * @param line    The line to process, without its line terminator.
+         * @param out     Where the result is appended.
+         * @param scratch Buffers that can be reused between lines of the same chunk.
+         * @throws IllegalArgumentException If the line is not a valid input for this operation.
+         */
+        abstract void process(String line, StringBuilder out, Scratch scratch);
+    }
+
+    /**
+     * The totals for one run of the batch processor.
+     */
+    public static final class Summary {
+        private final long lines;
+        private final long errors;
+        private final long elapsedNanos;
+
+        Summary(long lines, long errors, long elapsedNanos) {
+            this.lines = lines;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Getter for the number of lines that were encoded or decoded, including the ones that failed.
+         *
+         * @return The number of lines processed.
+         */
+        public long getLines() {
+            return lines;
+        }
+
+        /**
+         * Getter for the number of lines that could not be encoded or decoded.
+         *
+         * @return The number of errors.
+         */
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * Getter for the time taken to process the whole file.
+         *
+         * @return The elapsed time in nanoseconds.
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Get the throughput of the run.
+         *
+         * @return The number of lines processed per second.
+         */
+        public double getLinesPerSecond() {
+            return elapsedNanos == 0 ? 0 : lines * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Processed %d lines (%d errors) in %.3f s, %.0f lines/s",
+                    lines, errors, elapsedNanos / 1_000_000_000.0, getLinesPerSecond());
+        }
+    }
+
+    /**
+     * Prefix written in place of the result for a line that could not be encoded or decoded.
+     */
+    public static final String ERROR_PREFIX = "ERROR: ";
+
+    /**
+     * The default number of lines in each chunk handed to the pool.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    /** The operation run over each line. */
+    private final Operation operation;
+    /** The pool chunks are processed on. */
+    private final ForkJoinPool pool;
+    /** The number of lines in each chunk. */
+    private final int chunkSize;
+
+    /**
+     * Constructor for BatchProcessor.
+     *
+     * @param operation The operation to run over each line.
+     * @param pool      The pool to process chunks on.
+     * @param chunkSize The number of lines in each chunk.
+     */
+    public BatchProcessor(Operation operation, ForkJoinPool pool, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.operation = operation;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Process every line of the input file and write the results to the output file.
+     * A line that cannot be encoded or decoded is written as ERROR_PREFIX followed by the reason, and counted in
+     * the returned summary instead of stopping the run. Empty lines are copied as they are and are not counted.
+     *
+     * @param input  The file to read, one code per line.
+     * @param output The file to write, one result per line. Created or overwritten.
+     * @return The number of lines, the number of errors, and the time taken.
+     * @throws IOException If an error occurs while reading the input or writing the output.
+     */
+    public Summary process(Path input, Path output) throws IOException {
+        long start = System.nanoTime();
+        long lines = 0;
+        long errors = 0;
+
+        // Allow a couple of chunks per worker to be in flight so workers are never waiting on the reader
+        int maxInFlight = pool.getParallelism() * 2;
+        ArrayDeque<ForkJoinTask<Chunk>> inFlight = new ArrayDeque<>(maxInFlight);
+
+        // Bytes that are not ASCII are decoded as replacement characters rather than failing the whole run, so the
+        // lines holding them are reported as errors like any other invalid line
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(input), StandardCharsets.US_ASCII));
+             BufferedWriter writer = new BufferedWriter(
+                     new OutputStreamWriter(Files.newOutputStream(output), StandardCharsets.US_ASCII))) {
+            List<String> chunkLines = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                chunkLines.add(line);
+                if (chunkLines.size() == chunkSize) {
+                    inFlight.add(submit(chunkLines));
+                    chunkLines = new ArrayList<>(chunkSize);
+                    if (inFlight.size() >= maxInFlight) {
+                        Chunk chunk = inFlight.remove().join();  // Oldest chunk first to keep the output in order
+                        chunk.writeTo(writer);
+                        lines += chunk.lines;
+                        errors += chunk.errors;
+                    }
+                }
+            }
+            if (!chunkLines.isEmpty()) {
+                inFlight.add(submit(chunkLines));
+            }
+            while (!inFlight.isEmpty()) {
+                Chunk chunk = inFlight.remove().join();
+                chunk.writeTo(writer);
+                lines += chunk.lines;
+                errors += chunk.errors;
+            }
+        }
+
+        return new Summary(lines, errors, System.nanoTime() - start);
+    }
+
+    /**
+     * Submit a chunk of lines to the pool.
+     *
+     * @param chunkLines The lines to process.
+     * @return The task that produces the processed chunk.
+     */
+    private ForkJoinTask<Chunk> submit(List<String> chunkLines) {
+        return pool.submit(() -> processChunk(chunkLines));
+    }
+
+    /**
+     * Run the operation over every line of a chunk.
+     *
+     * @param chunkLines The lines to process.
+     * @return The processed chunk.
+     */
+    private Chunk processChunk(List<String> chunkLines) {
+        Chunk chunk = new Chunk(chunkLines.size());
+        Scratch scratch = new Scratch();
+        for (String line : chunkLines) {
+            if (line.isEmpty()) {
+                chunk.output.append('\n');
+                continue;
+            }
+            int mark = chunk.output.length();
+            try {
+                operation.process(line, chunk.output, scratch);
+            } catch (IllegalArgumentException e) {
+                chunk.output.setLength(mark);   // Drop anything written before the failure
+                chunk.output.append(ERROR_PREFIX).append(e.getMessage());
+                chunk.errors++;
+            }
+            chunk.output.append('\n');
+            chunk.lines++;
+        }
+        return chunk;
+    }
+
+    /**
+     * The result of processing one chunk of lines.
+     */
+    private static final class Chunk {
+        private final StringBuilder output;
+        private int lines;
+        private int errors;
+
+        Chunk(int lineCount) {
+            output = new StringBuilder(lineCount * (UpcaCodec.BINARY_LENGTH + 1));
+        }
+
+        void writeTo(BufferedWriter writer) throws IOException {
+            writer.append(output);
+        }
+    }
+
+    /**
+     * Buffers reused for every line of a chunk, so encoding a line does not need to allocate its own.
+     */
+    static final class Scratch {
+        final char[] binary = new char[PostnetCodec.MAX_ENCODED_LENGTH];
+        final char[] barCode = new char[PostnetCodec.MAX_ENCODED_LENGTH];
+        final int[] digits = new int[UpcaCodec.PRODUCT_CODE_LENGTH + 1];
+    }
+}
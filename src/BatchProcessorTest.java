@@ -0,0 +1,87 @@
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+class BatchProcessorTest {
+
+    /**
+     * Run lines through a BatchProcessor with a small chunk size so the output order across chunks is checked.
+     */
+    private static List<String> run(BatchProcessor.Operation operation, BatchProcessor.Summary[] summary,
+                                    String... lines) throws IOException {
+        Path input = Files.createTempFile("batch", ".in");
+        Path output = Files.createTempFile("batch", ".out");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Files.write(input, Arrays.asList(lines));
+            summary[0] = new BatchProcessor(operation, pool, 2).process(input, output);
+            return Files.readAllLines(output);
+        } finally {
+            pool.shutdown();
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    public void testEncodePostnet() throws IOException {
+        BatchProcessor.Summary[] summary = new BatchProcessor.Summary[1];
+        List<String> output = run(BatchProcessor.Operation.ENCODE_POSTNET, summary,
+                "12345", "54321", "123", "90210", "121212121");
+        Assertions.assertEquals(PostnetCodec.encode("12345") + " |...||..|.|..||..|..|.|.|..|.|.|", output.get(0));
+        Assertions.assertEquals(EncodePostNet.encodeZipCode("54321") + " " + EncodePostNet.getBarCode("54321"),
+                output.get(1));
+        Assertions.assertTrue(output.get(2).startsWith(BatchProcessor.ERROR_PREFIX));
+        Assertions.assertEquals(EncodePostNet.encodeZipCode("90210") + " " + EncodePostNet.getBarCode("90210"),
+                output.get(3));
+        Assertions.assertEquals(5, output.size());
+        Assertions.assertEquals(5, summary[0].getLines());
+        Assertions.assertEquals(1, summary[0].getErrors());
+    }
+
+    @Test
+    public void testDecodeUpca() throws IOException {
+        BatchProcessor.Summary[] summary = new BatchProcessor.Summary[1];
+        List<String> output = run(BatchProcessor.Operation.DECODE_UPCA, summary,
+                "10100011010011001001001101100010100011010111101010101000010001001000010100010010011101011100101");
+        Assertions.assertEquals(Arrays.asList("01254667375 4"), output);
+        Assertions.assertEquals(0, summary[0].getErrors());
+    }
+
+    @Test
+    public void testNonAsciiLine() throws IOException {
+        Path input = Files.createTempFile("batch", ".in");
+        Path output = Files.createTempFile("batch", ".out");
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            Files.write(input, new byte[] {'1', '2', '3', '4', '5', '\n', '9', '0', (byte) 0xE9, '1', '0', '\n',
+                    '5', '4', '3', '2', '1', '\n'});
+            BatchProcessor.Summary summary =
+                    new BatchProcessor(BatchProcessor.Operation.ENCODE_POSTNET, pool, 2).process(input, output);
+            List<String> lines = Files.readAllLines(output);
+            Assertions.assertEquals(3, lines.size());
+            Assertions.assertTrue(lines.get(1).startsWith(BatchProcessor.ERROR_PREFIX));
+            Assertions.assertEquals(EncodePostNet.encodeZipCode("54321") + " " + EncodePostNet.getBarCode("54321"),
+                    lines.get(2));
+            Assertions.assertEquals(3, summary.getLines());
+            Assertions.assertEquals(1, summary.getErrors());
+        } finally {
+            pool.shutdown();
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    public void testForCommandName() {
+        Assertions.assertEquals(BatchProcessor.Operation.ENCODE_UPCA,
+                BatchProcessor.Operation.forCommandName("encode-upca"));
+        Assertions.assertNull(BatchProcessor.Operation.forCommandName("encode"));
+    }
+
+}
@@ -0,0 +1,71 @@
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.Writer;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+
+import java.util.Map;
+
+
+/**
+ * The CachingWriter class is a ZXING Writer that sits in front of another Writer, such as MultiFormatWriter, and
+ * keeps the BitMatrix of each symbol it generates in a SymbolCache. Generating the same content with the same
+ * parameters again returns the cached symbol instead of encoding it from scratch.
+ * BitMatrix is mutable, so callers are always given their own copy and can never change what is cached.
+ */
+public class CachingWriter implements Writer {
+
+    /** The writer used when a symbol is not in the cache. */
+    private final Writer delegate;
+    /** The cached symbols. */
+    private final SymbolCache<BitMatrix> cache;
+
+    /**
+     * Constructor for CachingWriter.
+     *
+     * @param delegate The writer used when a symbol is not in the cache.
+     * @param cache    The cache to store symbols in. Create it with CachingWriter::sizeOf as its weigher.
+     */
+    public CachingWriter(Writer delegate, SymbolCache<BitMatrix> cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    /**
+     * Get the approximate memory used by a BitMatrix, for use as the weigher of a SymbolCache.
+     *
+     * @param matrix The BitMatrix to measure.
+     * @return The size of its bits in bytes.
+     */
+    public static long sizeOf(BitMatrix matrix) {
+        return (long) matrix.getRowSize() * matrix.getHeight() * Integer.BYTES;
+    }
+
+    /**
+     * Getter for the cache this writer stores symbols in, for example to read its statistics.
+     *
+     * @return The cache.
+     */
+    public SymbolCache<BitMatrix> getCache() {
+        return cache;
+    }
+
+    @Override
+    public BitMatrix encode(String contents, BarcodeFormat format, int width, int height)
+            throws WriterException {
+        return encode(contents, format, width, height, null);
+    }
+
+    @Override
+    public BitMatrix encode(String contents, BarcodeFormat format, int width, int height,
+                            Map<EncodeHintType, ?> hints) throws WriterException {
+        SymbolCache.Key key = new SymbolCache.Key(contents, format, width, height, hints);
+        BitMatrix cached = cache.get(key);
+        if (cached != null) {
+            return cached.clone();
+        }
+        BitMatrix matrix = delegate.encode(contents, format, width, height, hints);
+        cache.put(key, matrix.clone());
+        return matrix;
+    }
+}
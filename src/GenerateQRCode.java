@@ -1,26 +1,60 @@
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.EncodeHintType;
 import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.Writer;
 import com.google.zxing.WriterException;
 import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
 
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Path;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Map;
 
 
 /**
  * The GenerateQRCode class provides utility for generating QR code images based on the provided URL and parameters.
- * It uses the ZXING library to create QR codes and saves them as PNG images to be displayed in QRCodeGeneratorFrame.
+ * It uses the ZXING library to create QR codes. They can be saved as PNG images, written to a stream, or returned
+ * directly as an image or PNG bytes so that no file needs to be written at all.
  */
 public class GenerateQRCode {
+
+    /**
+     * The image format used when writing QR codes to a file, stream, or byte array.
+     */
+    private static final String FORMAT = "PNG";
+
+    /**
+     * The hints used for every QR code (error correction level L). Never modified after it is created.
+     */
+    private static final Map<EncodeHintType, ErrorCorrectionLevel> HINTS =
+            Collections.unmodifiableMap(new EnumMap<>(Map.of(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.L)));
+
+    /**
+     * The writer used to encode QR codes. A CachingWriter can be installed with setWriter so that repeated URLs are
+     * not encoded again.
+     */
+    private static volatile Writer writer = new MultiFormatWriter();
+
+    /**
+     * Setter for the writer used by every generate method.
+     * For example, {@code setWriter(new CachingWriter(new MultiFormatWriter(), cache))} puts a cache in front of
+     * QR code encoding.
+     *
+     * @param writer The writer to use for QR code encoding.
+     */
+    public static void setWriter(Writer writer) {
+        GenerateQRCode.writer = writer;
+    }
+
     /**
      * This method generates a QR code image from the given URL with the specified dimensions and saves it to the
      * given output path.
-     * The generate method is used within the QRCodeGeneratorFrame class.
      *
      * @param enteredURL The URL for which the QR code is generated.
      * @param height     The height (in pixels) of the QR code image.
@@ -32,22 +66,100 @@ public class GenerateQRCode {
     public static void generate(String enteredURL, int height, int width, String outputPath)
             throws WriterException, IOException {
 
-        // Define image format for QR code image
-        String format = "PNG";
-
-        // Create a map to specify tge QR code generation hints (error correction level)
-        Map<EncodeHintType, ErrorCorrectionLevel> hintMap = new HashMap<>();
-        hintMap.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.L);
-
         // Create a BitMatrix representation of the QR code using the given parameters
-        BitMatrix bitMatrix = new MultiFormatWriter().encode(enteredURL, BarcodeFormat.QR_CODE, width, height, hintMap);
+        BitMatrix bitMatrix = encode(enteredURL, height, width);
 
         // Create a Path object for the output file location
         Path outputRelative = Path.of(outputPath);
 
         // Write the BitMatrix as an image to the specified output file location
-        MatrixToImageWriter.writeToPath(bitMatrix, format, outputRelative);
+        MatrixToImageWriter.writeToPath(bitMatrix, FORMAT, outputRelative);
 
     }
-}
 
+    /**
+     * This method generates a QR code image from the given URL with the specified dimensions and writes it to the
+     * given stream as a PNG. The stream is not closed, so it can be a servlet response or socket stream.
+     *
+     * @param enteredURL The URL for which the QR code is generated.
+     * @param height     The height (in pixels) of the QR code image.
+     * @param width      The width (in pixels) of the QR code image.
+     * @param stream     The stream the PNG is written to.
+     * @throws WriterException If an error occurs during the QR code generation.
+     * @throws IOException     If an error occurs while writing to the stream.
+     */
+    public static void generate(String enteredURL, int height, int width, OutputStream stream)
+            throws WriterException, IOException {
+        MatrixToImageWriter.writeToStream(encode(enteredURL, height, width), FORMAT, stream);
+    }
+
+    /**
+     * This method generates a QR code image from the given URL with the specified dimensions and returns it without
+     * writing anything to disk. Used within the QRCodeGeneratorFrame class to display the QR code directly.
+     *
+     * @param enteredURL The URL for which the QR code is generated.
+     * @param height     The height (in pixels) of the QR code image.
+     * @param width      The width (in pixels) of the QR code image.
+     * @return The QR code image.
+     * @throws WriterException If an error occurs during the QR code generation.
+     */
+    public static BufferedImage generateImage(String enteredURL, int height, int width) throws WriterException {
+        return MatrixToImageWriter.toBufferedImage(encode(enteredURL, height, width));
+    }
+
+    /**
+     * This method generates a QR code image from the given URL with the specified dimensions and returns the bytes of
+     * the encoded PNG, ready to be served over the network without writing anything to disk.
+     *
+     * @param enteredURL The URL for which the QR code is generated.
+     * @param height     The height (in pixels) of the QR code image.
+     * @param width      The width (in pixels) of the QR code image.
+     * @return The bytes of the PNG image.
+     * @throws WriterException If an error occurs during the QR code generation.
+     * @throws IOException     If an error occurs while encoding the PNG.
+     */
+    public static byte[] generatePng(String enteredURL, int height, int width) throws WriterException, IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        generate(enteredURL, height, width, stream);
+        return stream.toByteArray();
+    }
+
+    /**
+     * This method works like generatePng, but first looks the PNG up in the given cache and only generates it when it
+     * is missing, storing the result for next time. Caching the PNG bytes also skips the image encoding, which costs
+     * more than generating the QR code itself. Create the cache with {@code png -> png.length} as its weigher.
+     *
+     * @param enteredURL The URL for which the QR code is generated.
+     * @param height     The height (in pixels) of the QR code image.
+     * @param width      The width (in pixels) of the QR code image.
+     * @param cache      The cache of PNG bytes.
+     * @return The bytes of the PNG image. The array is a copy, so changing it does not affect the cache.
+     * @throws WriterException If an error occurs during the QR code generation.
+     * @throws IOException     If an error occurs while encoding the PNG.
+     */
+    public static byte[] generatePng(String enteredURL, int height, int width, SymbolCache<byte[]> cache)
+            throws WriterException, IOException {
+        SymbolCache.Key key = new SymbolCache.Key(enteredURL, BarcodeFormat.QR_CODE, width, height, HINTS);
+        byte[] png = cache.get(key);
+        if (png == null) {
+            png = generatePng(enteredURL, height, width);
+            cache.put(key, png.clone());
+            return png;
+        }
+        return png.clone();
+    }
+
+    /**
+     * Create a BitMatrix representation of the QR code for the given URL, using error correction level L.
+     * Shared by every generate method so they all produce the same QR code.
+     *
+     * @param enteredURL The URL for which the QR code is generated.
+     * @param height     The height (in pixels) of the QR code image.
+     * @param width      The width (in pixels) of the QR code image.
+     * @return The BitMatrix representation of the QR code.
+     * @throws WriterException If an error occurs during the QR code generation.
+     */
+    private static BitMatrix encode(String enteredURL, int height, int width) throws WriterException {
+        return writer.encode(enteredURL, BarcodeFormat.QR_CODE, width, height, HINTS);
+    }
+}
@@ -0,0 +1,34 @@
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import org.junit.jupiter.api.*;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+
+class GenerateQRCodeTest {
+
+    private static String decode(BufferedImage image) throws NotFoundException {
+        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(image)));
+        return new MultiFormatReader().decode(bitmap).getText();
+    }
+
+    @Test
+    public void testGenerateImage() throws Exception {
+        BufferedImage image = GenerateQRCode.generateImage("https://github.com", 350, 350);
+        Assertions.assertEquals(350, image.getWidth());
+        Assertions.assertEquals(350, image.getHeight());
+        Assertions.assertEquals("https://github.com", decode(image));
+    }
+
+    @Test
+    public void testGeneratePng() throws Exception {
+        byte[] png = GenerateQRCode.generatePng("github.com", 200, 200);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        Assertions.assertEquals("github.com", decode(image));
+    }
+
+}
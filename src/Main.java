@@ -1,20 +1,32 @@
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
 
 
 /**
  * The Main class provides a command-line interface for selecting and performing various barcode encoding and decoding
  * methods. It supports encoding ZIP Codes into POSTNET barcodes, decoding POSTNET barcodes into ZIP Codes, encoding
  * UPCAs, and decoding UPCA barcodes.
+ * When given command-line arguments, it instead runs a whole file of codes through BatchProcessor without showing
+ * the menu.
  */
 public class Main {
 
     /**
      * The main method that serves as the entry point for the barcode encoding and decoding application.
      *
-     * @param args Command-line arguments (not used)
+     * @param args Command-line arguments. Empty for the interactive menu, or
+     *             "operation inputFile outputFile [threads]" for batch mode.
+     * @throws IOException If an error occurs while reading or writing the files in batch mode.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
 
+        // Skip the menu and process a whole file if arguments were given
+        if (args.length > 0) {
+            runBatch(args);
+            return;
+        }
 
         Scanner scanner = new Scanner(System.in);
 
@@ -137,10 +149,47 @@ public class Main {
 
     }
 
+    /**
+     * Runs batch mode and displays the number of lines processed, the number of errors, and the throughput.
+     * The operation is one of "encode-postnet", "decode-postnet", "encode-upca", or "decode-upca". The number of
+     * threads defaults to the number of available processors.
+     *
+     * @param args The operation, input file, output file, and optionally the number of threads.
+     * @throws IOException If an error occurs while reading or writing the files.
+     */
+    private static void runBatch(String[] args) throws IOException {
+        BatchProcessor.Operation operation = args.length >= 3 && args.length <= 4
+                ? BatchProcessor.Operation.forCommandName(args[0]) : null;
+        int threads = args.length == 4 ? parseThreads(args[3]) : Runtime.getRuntime().availableProcessors();
+        if (operation == null || threads <= 0) {
+            System.out.println("Usage: Main <encode-postnet|decode-postnet|encode-upca|decode-upca> "
+                    + "<inputFile> <outputFile> [threads]");
+            return;
+        }
 
-}
-
-
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            BatchProcessor processor = new BatchProcessor(operation, pool, BatchProcessor.DEFAULT_CHUNK_SIZE);
+            BatchProcessor.Summary summary = processor.process(Path.of(args[1]), Path.of(args[2]));
+            System.out.println(summary);
+        } finally {
+            pool.shutdown();
+        }
+    }
 
+    /**
+     * Parse the number of threads given on the command line.
+     *
+     * @param threads The command line argument.
+     * @return The number of threads, or 0 if the argument is not a number.
+     */
+    private static int parseThreads(String threads) {
+        try {
+            return Integer.parseInt(threads);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
 
 
+}
@@ -0,0 +1,332 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * The PostnetCodec class provides stateless methods for encoding ZIP, ZIP+4, and ZIP+4+Delivery codes into POSTNET
+ * binary and barcode representations, and for decoding binary representations back into ZIP codes.
+ * Unlike EncodePostNet and DecodePostNet, this class keeps no static fields that change between calls, so the same
+ * methods can be called from any number of threads at once without locking.
+ */
+public final class PostnetCodec {
+
+    /**
+     * Array of POSTNET binary encodings for digits 0 to 9.
+     * Kept private so that callers are not able to change the patterns that every thread shares.
+     */
+    private static final String[] ENCODE = {
+            "11000", "00011", "00101", "00110", "01001", "01010",
+            "01100", "10001", "10010", "10100"
+    };
+
+    /**
+     * The ENCODE patterns packed into 5 bit integers, with the first bar in the highest bit.
+     */
+    private static final int[] PATTERNS = {
+            0b11000, 0b00011, 0b00101, 0b00110, 0b01001, 0b01010,
+            0b01100, 0b10001, 0b10010, 0b10100
+    };
+
+    /** Characters used for a 0 and a 1 in the binary representation. */
+    private static final char[] BINARY_GLYPHS = {'0', '1'};
+
+    /** Characters used for a half bar and a full bar in the barcode representation. */
+    private static final char[] BAR_GLYPHS = {'.', '|'};
+
+    /** Length of the binary representation of an 11 digit ZIP+4+Delivery code, the longest that can be encoded. */
+    public static final int MAX_ENCODED_LENGTH = 62;
+
+    /**
+     * Private constructor since PostnetCodec only contains static methods and should not be instantiated.
+     */
+    private PostnetCodec() {
+    }
+
+    /**
+     * Check if the given ZIP code can be encoded.
+     * A ZIP code is valid if it is 5, 9, or 11 characters long and every character is a digit from 0 to 9.
+     *
+     * @param zipCode The ZIP code to check.
+     * @return true if the ZIP code is valid, false otherwise.
+     */
+    public static boolean isValidZipCode(CharSequence zipCode) {
+        int length = zipCode.length();
+        if (length != 5 && length != 9 && length != 11) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char digit = zipCode.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if the given binary representation has a length that can be decoded.
+     * A binary representation must be 32, 52, or 62 digits long.
+     *
+     * @param binaryRep The binary representation to check.
+     * @return true if the binary representation has a valid length, false otherwise.
+     */
+    public static boolean isValidBinaryRep(CharSequence binaryRep) {
+        int length = binaryRep.length();
+        return length == 32 || length == 52 || length == 62;
+    }
+
+    /**
+     * Get the length of the binary and barcode representations of a ZIP code.
+     * Each digit and the check sum take 5 characters, plus one frame bar on each side.
+     *
+     * @param zipCode The ZIP code to be encoded. Must be 5, 9, or 11 digits long.
+     * @return The number of characters the encoded ZIP code takes up.
+     * @throws IllegalArgumentException If the ZIP code is not a valid 5, 9, or 11 digit ZIP code.
+     */
+    public static int encodedLength(CharSequence zipCode) {
+        if (!isValidZipCode(zipCode)) {
+            throw new IllegalArgumentException("ZIP code must be 5, 9, or 11 digits: " + zipCode);
+        }
+        return zipCode.length() * 5 + 7;
+    }
+
+    /**
+     * Encode a ZIP code into its POSTNET binary representation.
+     * This method calculates the check sum and builds the binary representation with the frame bars on each side,
+     * giving the same result as EncodePostNet.encodeZipCode.
+     *
+     * @param zipCode The ZIP code to be encoded. Must be 5, 9, or 11 digits long.
+     * @return The binary representation of the ZIP code.
+     * @throws IllegalArgumentException If the ZIP code is not a valid 5, 9, or 11 digit ZIP code.
+     */
+    public static String encode(CharSequence zipCode) {
+        char[] binary = new char[encodedLength(zipCode)];
+        encode(zipCode, binary, 0, null, 0);
+        return new String(binary);
+    }
+
+    /**
+     * Encode a ZIP code into its POSTNET barcode representation.
+     * '|' is used for a full bar and '.' is used for a half bar.
+     *
+     * @param zipCode The ZIP code to be encoded. Must be 5, 9, or 11 digits long.
+     * @return The POSTNET barcode representation of the ZIP code.
+     * @throws IllegalArgumentException If the ZIP code is not a valid 5, 9, or 11 digit ZIP code.
+     */
+    public static String encodeToBarCode(CharSequence zipCode) {
+        char[] barCode = new char[encodedLength(zipCode)];
+        encode(zipCode, null, 0, barCode, 0);
+        return new String(barCode);
+    }
+
+    /**
+     * Encode a ZIP code directly into caller supplied char arrays, writing the binary representation and the barcode
+     * representation in a single pass without creating any objects.
+     * Either array may be null if that representation is not needed. Nothing is written if the ZIP code is invalid
+     * or an array is too small.
+     *
+     * @param zipCode       The ZIP code to be encoded. Must be 5, 9, or 11 digits long.
+     * @param binaryOut     The array to write the binary representation to, or null.
+     * @param binaryOffset  The index in binaryOut to start writing at.
+     * @param barCodeOut    The array to write the barcode representation to, or null.
+     * @param barCodeOffset The index in barCodeOut to start writing at.
+     * @return The number of characters written to each array.
+     * @throws IllegalArgumentException  If the ZIP code is not a valid 5, 9, or 11 digit ZIP code.
+     * @throws IndexOutOfBoundsException If an array does not have room for the encoded ZIP code.
+     */
+    public static int encode(CharSequence zipCode, char[] binaryOut, int binaryOffset,
+                             char[] barCodeOut, int barCodeOffset) {
+        int length = encodedLength(zipCode);
+        if (binaryOut != null) {
+            Objects.checkFromIndexSize(binaryOffset, length, binaryOut.length);
+        }
+        if (barCodeOut != null) {
+            Objects.checkFromIndexSize(barCodeOffset, length, barCodeOut.length);
+        }
+
+        long modules = packModules(zipCode);
+        for (int i = 0; i < length; i++) {
+            int bit = (int) (modules >>> (length - 1 - i)) & 1;
+            if (binaryOut != null) {
+                binaryOut[binaryOffset + i] = BINARY_GLYPHS[bit];
+            }
+            if (barCodeOut != null) {
+                barCodeOut[barCodeOffset + i] = BAR_GLYPHS[bit];
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Encode a ZIP code directly into caller supplied byte buffers as ASCII characters, writing the binary
+     * representation and the barcode representation in a single pass.
+     * Either buffer may be null if that representation is not needed. Nothing is written if the ZIP code is invalid
+     * or a buffer does not have enough room left.
+     *
+     * @param zipCode    The ZIP code to be encoded. Must be 5, 9, or 11 digits long.
+     * @param binaryOut  The buffer to write the binary representation to, or null.
+     * @param barCodeOut The buffer to write the barcode representation to, or null.
+     * @return The number of bytes written to each buffer.
+     * @throws IllegalArgumentException If the ZIP code is not a valid 5, 9, or 11 digit ZIP code.
+     * @throws BufferOverflowException  If a buffer does not have room for the encoded ZIP code.
+     */
+    public static int encode(CharSequence zipCode, ByteBuffer binaryOut, ByteBuffer barCodeOut) {
+        int length = encodedLength(zipCode);
+        if ((binaryOut != null && binaryOut.remaining() < length)
+                || (barCodeOut != null && barCodeOut.remaining() < length)) {
+            throw new BufferOverflowException();
+        }
+
+        long modules = packModules(zipCode);
+        for (int i = 0; i < length; i++) {
+            int bit = (int) (modules >>> (length - 1 - i)) & 1;
+            if (binaryOut != null) {
+                binaryOut.put((byte) BINARY_GLYPHS[bit]);
+            }
+            if (barCodeOut != null) {
+                barCodeOut.put((byte) BAR_GLYPHS[bit]);
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Encode every ZIP code in a batch and write one line per ZIP code to out, made up of the binary representation,
+     * a space, and the barcode representation.
+     * A single char buffer is reused for the whole batch, so the only work done per ZIP code is the encoding itself
+     * and the write to out. Any Iterable can be passed in, such as a List, or a Stream through stream::iterator.
+     *
+     * @param zipCodes The ZIP codes to be encoded. Each must be 5, 9, or 11 digits long.
+     * @param out      Where the encoded lines are written.
+     * @return The number of ZIP codes encoded.
+     * @throws IllegalArgumentException If a ZIP code is not a valid 5, 9, or 11 digit ZIP code. The lines for the
+     *                                  ZIP codes before it have already been written.
+     * @throws IOException              If an error occurs while writing to out.
+     */
+    public static int encodeAll(Iterable<? extends CharSequence> zipCodes, Appendable out) throws IOException {
+        char[] line = new char[MAX_ENCODED_LENGTH * 2 + 2];
+        int count = 0;
+        for (CharSequence zipCode : zipCodes) {
+            int length = encode(zipCode, line, 0, line, MAX_ENCODED_LENGTH + 1);
+            // Move the barcode next to the binary representation when the ZIP code is shorter than the maximum
+            System.arraycopy(line, MAX_ENCODED_LENGTH + 1, line, length + 1, length);
+            line[length] = ' ';
+            line[length * 2 + 1] = '\n';
+            write(line, length * 2 + 2, out);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Write the first length characters of buffer to out.
+     * Writers and StringBuilders are given the whole array at once instead of one character at a time.
+     *
+     * @param buffer The characters to write.
+     * @param length The number of characters to write.
+     * @param out    Where the characters are written.
+     * @throws IOException If an error occurs while writing to out.
+     */
+    private static void write(char[] buffer, int length, Appendable out) throws IOException {
+        if (out instanceof Writer) {
+            ((Writer) out).write(buffer, 0, length);
+        } else if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(buffer, 0, length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                out.append(buffer[i]);
+            }
+        }
+    }
+
+    /**
+     * Pack every module of an encoded ZIP code into a long using the precomputed 5 bit PATTERNS, with the first frame
+     * bar in bit encodedLength(zipCode) - 1 and the last frame bar in bit 0.
+     * At most 62 modules are needed, so the whole barcode always fits in a single long.
+     *
+     * @param zipCode The ZIP code, already validated.
+     * @return The packed modules, 1 for a full bar and 0 for a half bar.
+     */
+    private static long packModules(CharSequence zipCode) {
+        long modules = 1;   // Left frame bar
+        int sum = 0;
+        for (int i = 0; i < zipCode.length(); i++) {
+            int digit = zipCode.charAt(i) - '0';
+            sum += digit;
+            modules = (modules << 5) | PATTERNS[digit];
+        }
+        int checkSum = (10 - (sum % 10)) % 10;
+        modules = (modules << 5) | PATTERNS[checkSum];
+        return (modules << 1) | 1;  // Right frame bar
+    }
+
+    /**
+     * Convert a binary representation into a POSTNET barcode string.
+     * Replaces '0' with '.' for a half bar and '1' with '|' for a full bar. Any other character is skipped, just like
+     * EncodePostNet.binaryToBarCode.
+     *
+     * @param binaryRep The binary representation to be converted.
+     * @return The POSTNET barcode representation of the binary string.
+     */
+    public static String toBarCode(CharSequence binaryRep) {
+        StringBuilder barCode = new StringBuilder(binaryRep.length());
+        for (int i = 0; i < binaryRep.length(); i++) {
+            char digit = binaryRep.charAt(i);
+            if (digit == '0') {
+                barCode.append('.');
+            } else if (digit == '1') {
+                barCode.append('|');
+            }
+        }
+        return barCode.toString();
+    }
+
+    /**
+     * Decode a POSTNET binary representation into a ZIP, ZIP+4, or ZIP+4+Delivery code.
+     * The type of ZIP code is picked from the length of the binary representation (32, 52, or 62 digits), so callers
+     * do not need to choose between decodeZipcode, decodeZipPlusFour, and decodeZipPlusFourPlusDelivery.
+     * The frame bars and the check sum are not included in the returned ZIP code.
+     *
+     * @param binaryRep The binary representation to be decoded.
+     * @return The decoded ZIP code as a string.
+     * @throws IllegalArgumentException If the binary representation has an invalid length or contains a 5 digit
+     *                                  chunk that is not a POSTNET digit.
+     */
+    public static String decode(CharSequence binaryRep) {
+        if (!isValidBinaryRep(binaryRep)) {
+            throw new IllegalArgumentException("Binary representation must be 32, 52, or 62 digits long");
+        }
+
+        int digitCount = (binaryRep.length() - 7) / 5; // Leave out the frame bars and the check sum
+        StringBuilder zipCode = new StringBuilder(digitCount);
+        for (int i = 0; i < digitCount; i++) {
+            zipCode.append((char) ('0' + getDigit(binaryRep, 1 + i * 5)));
+        }
+        return zipCode.toString();
+    }
+
+    /**
+     * Get the decimal value of the 5 binary digits starting at the given offset.
+     * The chunk is read without creating a substring and compared against each entry of ENCODE.
+     *
+     * @param binaryRep The binary representation to read from.
+     * @param offset    The index of the first of the 5 binary digits.
+     * @return The decimal value of the binary digits.
+     * @throws IllegalArgumentException If the chunk does not match any POSTNET digit.
+     */
+    private static int getDigit(CharSequence binaryRep, int offset) {
+        for (int digit = 0; digit < ENCODE.length; digit++) {
+            String pattern = ENCODE[digit];
+            int i = 0;
+            while (i < 5 && pattern.charAt(i) == binaryRep.charAt(offset + i)) {
+                i++;
+            }
+            if (i == 5) {
+                return digit;
+            }
+        }
+        throw new IllegalArgumentException("Invalid POSTNET digit at index " + offset);
+    }
+}
@@ -0,0 +1,81 @@
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+class PostnetCodecTest {
+
+    @Test
+    public void testEncode() {
+        Assertions.assertEquals("11010011000001010001111000100101", PostnetCodec.encode("90210"));
+        Assertions.assertEquals("10010100110001011100000101000111", PostnetCodec.encode("23202"));
+        Assertions.assertEquals(EncodePostNet.encodeZipCode("12345678901"), PostnetCodec.encode("12345678901"));
+    }
+
+    @Test
+    public void testEncodeToBarCode() {
+        Assertions.assertEquals("|...||..|.|..||..|..|.|.|..|.|.|", PostnetCodec.encodeToBarCode("12345"));
+        Assertions.assertEquals("|.|.|..|..|..||...|.|...||.|.|.|", PostnetCodec.encodeToBarCode("54321"));
+    }
+
+    @Test
+    public void testEncodeInvalid() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PostnetCodec.encode("0"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PostnetCodec.encode("1234a"));
+    }
+
+    @Test
+    public void testDecode() {
+        Assertions.assertEquals("90210", PostnetCodec.decode("11010011000001010001111000100101"));
+        Assertions.assertEquals("121212121", PostnetCodec.decode("1000110010100011001010001100101000110010100011100011"));
+        Assertions.assertEquals("12345678901",
+                PostnetCodec.decode("10001100101001100100101010011001000110010101001100000011010011"));
+    }
+
+    @Test
+    public void testDecodeInvalid() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PostnetCodec.decode("1"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> PostnetCodec.decode("11111111111111111111111111111111"));
+    }
+
+    @Test
+    public void testEncodeIntoCharArrays() {
+        char[] binary = new char[PostnetCodec.MAX_ENCODED_LENGTH + 2];
+        char[] barCode = new char[PostnetCodec.MAX_ENCODED_LENGTH];
+        int length = PostnetCodec.encode("12345", binary, 2, barCode, 0);
+        Assertions.assertEquals(32, length);
+        Assertions.assertEquals(PostnetCodec.encode("12345"), new String(binary, 2, length));
+        Assertions.assertEquals("|...||..|.|..||..|..|.|.|..|.|.|", new String(barCode, 0, length));
+        Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> PostnetCodec.encode("12345678901", new char[32], 0, null, 0));
+    }
+
+    @Test
+    public void testEncodeIntoByteBuffers() {
+        ByteBuffer binary = ByteBuffer.allocate(64);
+        ByteBuffer barCode = ByteBuffer.allocate(64);
+        PostnetCodec.encode("90210", binary, barCode);
+        PostnetCodec.encode("54321", null, barCode);
+        Assertions.assertEquals("11010011000001010001111000100101",
+                new String(binary.array(), 0, binary.position(), StandardCharsets.US_ASCII));
+        Assertions.assertEquals(PostnetCodec.encodeToBarCode("90210") + PostnetCodec.encodeToBarCode("54321"),
+                new String(barCode.array(), 0, barCode.position(), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testEncodeAll() throws IOException {
+        StringBuilder out = new StringBuilder();
+        int count = PostnetCodec.encodeAll(Arrays.asList("90210", "121212121", "12345678901"), out);
+        Assertions.assertEquals(3, count);
+        StringBuilder expected = new StringBuilder();
+        for (String zipCode : new String[]{"90210", "121212121", "12345678901"}) {
+            expected.append(EncodePostNet.encodeZipCode(zipCode)).append(' ')
+                    .append(EncodePostNet.getBarCode(zipCode)).append('\n');
+        }
+        Assertions.assertEquals(expected.toString(), out.toString());
+    }
+
+}
@@ -1,18 +1,22 @@
 import javax.swing.*;
 import java.awt.*;
 import javax.swing.JTextField;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.FocusEvent;
 import java.awt.event.FocusListener;
-import java.io.File;
-import java.net.URL;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ExecutionException;
 
 
 /**
  * The QRCodeGeneratorFrame class represents a GUI for generating QR codes from user input URLs.
  * Users can enter a URL, click on the "Generate" button, and view the corresponding QR code that appears in the middle
- * of the screen.
+ * of the screen. A preview of the QR code is also shown shortly after the user stops typing.
+ * QR codes are generated on a background thread so the window stays responsive, and a generation that has been
+ * replaced by a newer one is cancelled and its result is never shown.
  */
 public class QRCodeGeneratorFrame extends JFrame {
     /**
@@ -35,14 +39,28 @@ public class QRCodeGeneratorFrame extends JFrame {
      * The entered URL given by the user.
      */
     private String enteredURL;
-    /**
-     * The counter for tracking the number of generated QR codes.
-     */
-    private int qrCodeCounter = 0;
     /**
      * The flag indicating whether the text field has recieved focus.
      */
     private boolean textFieldFocused = false;
+    /**
+     * The background task generating the most recently requested QR code, or null if none has been requested.
+     * Only accessed on the event dispatch thread.
+     */
+    private SwingWorker<BufferedImage, Void> currentWorker;
+    /**
+     * The timer that generates a preview once the user has stopped typing for PREVIEW_DELAY_MS.
+     */
+    private final Timer previewTimer;
+
+    /**
+     * The time in milliseconds to wait after the last keystroke before generating a preview.
+     */
+    private static final int PREVIEW_DELAY_MS = 300;
+    /**
+     * The width and height (in pixels) of the generated QR code images.
+     */
+    private static final int QR_CODE_SIZE = 350;
 
 
     /**
@@ -89,6 +107,33 @@ public class QRCodeGeneratorFrame extends JFrame {
 
         textFieldPanel.add(textField);  // Add text field to the textFieldPanel
 
+        // Timer for the live preview, restarted on every change so only the last keystroke triggers a generation
+        previewTimer = new Timer(PREVIEW_DELAY_MS, e -> {
+            if (textFieldFocused) {     // Focus may have been lost and the placeholder restored since it started
+                generateQRCode(textField.getText());
+            }
+        });
+        previewTimer.setRepeats(false);
+
+        // Document listener for the text field
+        // Schedules a preview whenever the user changes the text, ignoring the placeholder text being set or cleared
+        textField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                schedulePreview();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                schedulePreview();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                schedulePreview();
+            }
+        });
+
 
         // Initialize and configure the image panel for displaying QR codes
         imagePanel = new JPanel(new BorderLayout());        // Create new JPanel with BorderLayout
@@ -106,29 +151,8 @@ public class QRCodeGeneratorFrame extends JFrame {
         button.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-
-                enteredURL = textField.getText();       // Gets URL from text field given  by user input
-
-                // Set output path to retrieve QR code images
-                String outputPath = "oral_exam1/JUnit/resources/qrcode" + qrCodeCounter + ".png";
-
-                try {
-
-                    // Generate aa QR code based on entered URL
-                    GenerateQRCode.generate(enteredURL, 350, 350, outputPath);
-
-                    // Load the generated QR code image and set it to display
-                    File qrCodeFile = new File(outputPath);
-                    URL qrCodeImageUrl = qrCodeFile.toURI().toURL();
-                    ImageIcon qrIcon = new ImageIcon(qrCodeImageUrl);
-                    imageLabel.setIcon(qrIcon);
-
-                    qrCodeCounter++;    // Increment counter for the next image that will be generated
-                    repaint();          // Repaint the window
-
-                } catch (Exception ex) {
-                    throw new RuntimeException(ex);
-                }
+                previewTimer.stop();                    // A pending preview would only generate the same QR code
+                generateQRCode(textField.getText());    // Gets URL from text field given by user input
             }
         });
 
@@ -143,4 +167,57 @@ public class QRCodeGeneratorFrame extends JFrame {
         add(bottomPanel, BorderLayout.SOUTH);   // Add bottomPanel to the bottom of the frame
 
     }
+
+    /**
+     * Restarts the preview timer if the user has typed a URL, or cancels any pending preview if the text field is
+     * empty or only showing the placeholder text.
+     */
+    private void schedulePreview() {
+        if (textFieldFocused && !textField.getText().isEmpty()) {
+            previewTimer.restart();
+        } else {
+            previewTimer.stop();
+        }
+    }
+
+    /**
+     * Generates the QR code for the given URL on a background thread and displays it once it is ready.
+     * Any generation still running for an earlier URL is cancelled, and its result is ignored even if it finishes
+     * anyway, so the displayed QR code always matches the latest request. If generation fails, the reason is shown in
+     * place of the QR code.
+     *
+     * @param url The URL to generate the QR code for.
+     */
+    private void generateQRCode(String url) {
+        enteredURL = url;
+        if (currentWorker != null) {
+            currentWorker.cancel(true);
+        }
+
+        SwingWorker<BufferedImage, Void> worker = new SwingWorker<>() {
+            @Override
+            protected BufferedImage doInBackground() throws Exception {
+                return GenerateQRCode.generateImage(url, QR_CODE_SIZE, QR_CODE_SIZE);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled() || currentWorker != this) {
+                    return;     // A newer QR code has been requested since this one started
+                }
+                try {
+                    imageLabel.setIcon(new ImageIcon(get()));
+                    imageLabel.setText(null);
+                } catch (ExecutionException ex) {
+                    imageLabel.setIcon(null);
+                    imageLabel.setText("Could not generate QR code: " + ex.getCause().getMessage());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                repaint();          // Repaint the window
+            }
+        };
+        currentWorker = worker;
+        worker.execute();
+    }
 }
@@ -0,0 +1,292 @@
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+
+/**
+ * The SymbolCache class is a thread-safe, size bounded cache of generated barcode symbols, keyed by everything that
+ * affects what the writer produces: the content, the format, the width, the height, and the encoding hints.
+ * It can hold either the compact BitMatrix of a symbol (see CachingWriter) or its encoded image bytes (see
+ * GenerateQRCode.generatePng).
+ * The least recently used entries are evicted once either the maximum number of entries or the maximum number of
+ * bytes is exceeded, and entries older than the time to live are treated as missing. Hits, misses, and evictions are
+ * counted so the cache can be sized from real traffic.
+ *
+ * @param <V> The type of value stored for each symbol.
+ */
+public final class SymbolCache<V> {
+
+    /**
+     * The key of a cached symbol. Two keys are equal when a writer would produce the same symbol for both.
+     */
+    public static final class Key {
+        private final String content;
+        private final BarcodeFormat format;
+        private final int width;
+        private final int height;
+        private final Map<EncodeHintType, ?> hints;
+        private final int hashCode;
+
+        /**
+         * Constructor for Key. The hints are copied, so changing the map afterwards does not affect the key.
+         *
+         * @param content The content encoded in the symbol.
+         * @param format  The barcode format of the symbol.
+         * @param width   The requested width in pixels.
+         * @param height  The requested height in pixels.
+         * @param hints   The encoding hints, or null if there are none.
+         */
+        public Key(String content, BarcodeFormat format, int width, int height, Map<EncodeHintType, ?> hints) {
+            this.content = Objects.requireNonNull(content);
+            this.format = Objects.requireNonNull(format);
+            this.width = width;
+            this.height = height;
+            this.hints = hints == null || hints.isEmpty()
+                    ? Collections.emptyMap() : Collections.unmodifiableMap(new EnumMap<>(hints));
+            this.hashCode = Objects.hash(content, format, width, height, this.hints);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hashCode == other.hashCode && width == other.width && height == other.height
+                    && format == other.format && content.equals(other.content) && hints.equals(other.hints);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * A snapshot of the cache statistics.
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int entries;
+        private final long bytes;
+
+        Stats(long hits, long misses, long evictions, int entries, long bytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.entries = entries;
+            this.bytes = bytes;
+        }
+
+        /**
+         * Getter for the number of lookups that found a live entry.
+         *
+         * @return The number of hits.
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * Getter for the number of lookups that found no entry or an expired one.
+         *
+         * @return The number of misses.
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * Getter for the number of entries removed to stay within the limits or because they expired.
+         *
+         * @return The number of evictions.
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * Getter for the number of entries in the cache when the snapshot was taken.
+         *
+         * @return The number of entries.
+         */
+        public int getEntries() {
+            return entries;
+        }
+
+        /**
+         * Getter for the total size of the entries in the cache when the snapshot was taken.
+         *
+         * @return The size in bytes, as measured by the cache's weigher.
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Get the fraction of lookups that were hits.
+         *
+         * @return The hit rate from 0 to 1, or 0 if there have been no lookups.
+         */
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d misses=%d evictions=%d entries=%d bytes=%d",
+                    hits, misses, evictions, entries, bytes);
+        }
+    }
+
+    /**
+     * A cached value along with its size and when it was stored.
+     */
+    private static final class Entry<V> {
+        private final V value;
+        private final long bytes;
+        private final long createdNanos;
+
+        Entry(V value, long bytes, long createdNanos) {
+            this.value = value;
+            this.bytes = bytes;
+            this.createdNanos = createdNanos;
+        }
+    }
+
+    /** Entries in access order, so the first entry is always the least recently used. Guarded by this. */
+    private final LinkedHashMap<Key, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final ToLongFunction<? super V> weigher;
+    private final LongSupplier clock;
+
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructor for SymbolCache.
+     *
+     * @param maxEntries The maximum number of entries to keep.
+     * @param maxBytes   The maximum total size of the entries, as measured by weigher.
+     * @param ttl        How long an entry stays usable after it is stored, or Duration.ZERO to never expire.
+     * @param weigher    Measures the size of a value in bytes.
+     */
+    public SymbolCache(int maxEntries, long maxBytes, Duration ttl, ToLongFunction<? super V> weigher) {
+        this(maxEntries, maxBytes, ttl, weigher, System::nanoTime);
+    }
+
+    /**
+     * Constructor for SymbolCache with a custom clock, so expiry can be tested without waiting.
+     *
+     * @param maxEntries The maximum number of entries to keep.
+     * @param maxBytes   The maximum total size of the entries, as measured by weigher.
+     * @param ttl        How long an entry stays usable after it is stored, or Duration.ZERO to never expire.
+     * @param weigher    Measures the size of a value in bytes.
+     * @param clock      Returns the current time in nanoseconds.
+     */
+    SymbolCache(int maxEntries, long maxBytes, Duration ttl, ToLongFunction<? super V> weigher, LongSupplier clock) {
+        if (maxEntries <= 0 || maxBytes <= 0 || ttl.isNegative()) {
+            throw new IllegalArgumentException("Cache limits must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttlNanos = ttl.toNanos();
+        this.weigher = Objects.requireNonNull(weigher);
+        this.clock = clock;
+    }
+
+    /**
+     * Look up a symbol and mark it as the most recently used.
+     *
+     * @param key The key of the symbol.
+     * @return The cached value, or null if it is missing or has expired.
+     */
+    public synchronized V get(Key key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && isExpired(entry, clock.getAsLong())) {
+            remove(key, entry);
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Store a symbol, replacing any previous value for the same key, and evict the least recently used entries until
+     * the cache is back within its limits. A value larger than the maximum number of bytes is not stored at all.
+     *
+     * @param key   The key of the symbol.
+     * @param value The value to store.
+     */
+    public synchronized void put(Key key, V value) {
+        long size = weigher.applyAsLong(value);
+        Entry<V> previous = entries.remove(key);
+        if (previous != null) {
+            bytes -= previous.bytes;
+        }
+        if (size > maxBytes) {
+            return;
+        }
+        long now = clock.getAsLong();
+        entries.put(key, new Entry<>(value, size, now));
+        bytes += size;
+
+        Iterator<Map.Entry<Key, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && (entries.size() > maxEntries || bytes > maxBytes)) {
+            Entry<V> eldest = iterator.next().getValue();
+            iterator.remove();
+            bytes -= eldest.bytes;
+            evictions++;
+        }
+    }
+
+    /**
+     * Remove every entry. The statistics are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Get a snapshot of the cache statistics.
+     *
+     * @return The current statistics.
+     */
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, entries.size(), bytes);
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return ttlNanos > 0 && now - entry.createdNanos >= ttlNanos;
+    }
+
+    private void remove(Key key, Entry<V> entry) {
+        entries.remove(key);
+        bytes -= entry.bytes;
+        evictions++;
+    }
+}
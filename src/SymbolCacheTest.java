@@ -0,0 +1,100 @@
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+class SymbolCacheTest {
+
+    private static SymbolCache.Key key(String content) {
+        return new SymbolCache.Key(content, BarcodeFormat.QR_CODE, 100, 100, null);
+    }
+
+    @Test
+    public void testKeyEquality() {
+        Map<EncodeHintType, Object> hints = new HashMap<>();
+        hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.L);
+        SymbolCache.Key withHints = new SymbolCache.Key("a", BarcodeFormat.QR_CODE, 100, 100, hints);
+        hints.put(EncodeHintType.MARGIN, 0);    // Changing the map must not change the key
+        Assertions.assertEquals(withHints, new SymbolCache.Key("a", BarcodeFormat.QR_CODE, 100, 100,
+                Collections.singletonMap(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.L)));
+        Assertions.assertEquals(key("a"), new SymbolCache.Key("a", BarcodeFormat.QR_CODE, 100, 100,
+                Collections.emptyMap()));
+        Assertions.assertFalse(key("a").equals(withHints));
+        Assertions.assertFalse(key("a").equals(new SymbolCache.Key("a", BarcodeFormat.QR_CODE, 100, 200, null)));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        SymbolCache<byte[]> cache = new SymbolCache<>(2, 1000, Duration.ZERO, value -> value.length);
+        cache.put(key("a"), new byte[1]);
+        cache.put(key("b"), new byte[1]);
+        Assertions.assertNotNull(cache.get(key("a")));  // "b" is now the least recently used
+        cache.put(key("c"), new byte[1]);
+        Assertions.assertNull(cache.get(key("b")));
+        Assertions.assertNotNull(cache.get(key("a")));
+        Assertions.assertNotNull(cache.get(key("c")));
+
+        SymbolCache.Stats stats = cache.stats();
+        Assertions.assertEquals(3, stats.getHits());
+        Assertions.assertEquals(1, stats.getMisses());
+        Assertions.assertEquals(1, stats.getEvictions());
+        Assertions.assertEquals(2, stats.getEntries());
+    }
+
+    @Test
+    public void testByteLimit() {
+        SymbolCache<byte[]> cache = new SymbolCache<>(100, 10, Duration.ZERO, value -> value.length);
+        cache.put(key("a"), new byte[6]);
+        cache.put(key("b"), new byte[6]);
+        Assertions.assertNull(cache.get(key("a")));
+        Assertions.assertEquals(6, cache.stats().getBytes());
+        cache.put(key("c"), new byte[11]);     // Larger than the whole cache, so never stored
+        Assertions.assertNull(cache.get(key("c")));
+        Assertions.assertNotNull(cache.get(key("b")));
+    }
+
+    @Test
+    public void testExpiry() {
+        long[] now = {0};
+        SymbolCache<byte[]> cache = new SymbolCache<>(10, 1000, Duration.ofSeconds(1), value -> value.length,
+                () -> now[0]);
+        cache.put(key("a"), new byte[1]);
+        now[0] = 999_999_999;
+        Assertions.assertNotNull(cache.get(key("a")));
+        now[0] = 1_000_000_000;
+        Assertions.assertNull(cache.get(key("a")));
+        Assertions.assertEquals(0, cache.stats().getEntries());
+        Assertions.assertEquals(1, cache.stats().getEvictions());
+    }
+
+    @Test
+    public void testCachingWriter() throws Exception {
+        SymbolCache<BitMatrix> cache = new SymbolCache<>(10, 1 << 20, Duration.ZERO, CachingWriter::sizeOf);
+        CachingWriter writer = new CachingWriter(new MultiFormatWriter(), cache);
+        BitMatrix first = writer.encode("https://github.com", BarcodeFormat.QR_CODE, 200, 200);
+        first.flip(0, 0);   // Changing a returned matrix must not change the cached one
+        BitMatrix second = writer.encode("https://github.com", BarcodeFormat.QR_CODE, 200, 200);
+        Assertions.assertEquals(new MultiFormatWriter().encode("https://github.com", BarcodeFormat.QR_CODE, 200, 200),
+                second);
+        Assertions.assertEquals(1, cache.stats().getHits());
+        Assertions.assertEquals(1, cache.stats().getMisses());
+    }
+
+    @Test
+    public void testGeneratePngCache() throws Exception {
+        SymbolCache<byte[]> cache = new SymbolCache<>(10, 1 << 20, Duration.ZERO, png -> png.length);
+        byte[] first = GenerateQRCode.generatePng("github.com", 200, 200, cache);
+        byte[] second = GenerateQRCode.generatePng("github.com", 200, 200, cache);
+        Assertions.assertArrayEquals(first, second);
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals(1, cache.stats().getHits());
+    }
+
+}
@@ -0,0 +1,412 @@
+import java.util.Arrays;
+
+/**
+ * The UpcaCodec class provides stateless methods for encoding UPCA product codes into their 95 digit binary
+ * representation and for decoding binary representations back into product codes.
+ * Unlike EncodeUpca and DecodeUpca, this class keeps no static fields that change between calls, so the same methods
+ * can be called from any number of threads at once without locking.
+ */
+public final class UpcaCodec {
+
+    /**
+     * Array of binary encoding patterns for the left side of the UPCA barcode.
+     */
+    private static final String[] ENCODE_LEFT = {
+            "0001101", "0011001", "0010011", "0111101", "0100011", "0110001",
+            "0101111", "0111011", "0110111", "0001011"
+    };
+    /**
+     * Array of binary encoding patterns for the right side of the UPCA barcode.
+     */
+    private static final String[] ENCODE_RIGHT = {
+            "1110010", "1100110", "1101100", "1000010", "1011100", "1001110",
+            "1010000", "1000100", "1001000", "1110100"
+    };
+
+    /**
+     * Lookup table from a 7 bit left side symbol to its digit, or -1 if the symbol is not a UPCA digit.
+     */
+    private static final byte[] LEFT_DIGITS = buildLookupTable(ENCODE_LEFT);
+    /**
+     * Lookup table from a 7 bit right side symbol to its digit, or -1 if the symbol is not a UPCA digit.
+     */
+    private static final byte[] RIGHT_DIGITS = buildLookupTable(ENCODE_RIGHT);
+
+    /** Length of the binary representation of a complete UPCA code. */
+    public static final int BINARY_LENGTH = 95;
+
+    /** Length of a UPCA product code without its check digit. */
+    public static final int PRODUCT_CODE_LENGTH = 11;
+
+    /**
+     * Private constructor since UpcaCodec only contains static methods and should not be instantiated.
+     */
+    private UpcaCodec() {
+    }
+
+    /**
+     * Check if the given product code can be encoded.
+     * A product code is valid if it is 11 characters long and every character is a digit from 0 to 9.
+     *
+     * @param productCode The product code to check.
+     * @return true if the product code is valid, false otherwise.
+     */
+    public static boolean isValidProductCode(CharSequence productCode) {
+        if (productCode.length() != PRODUCT_CODE_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < PRODUCT_CODE_LENGTH; i++) {
+            char digit = productCode.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calculate the check digit for an 11 digit product code based off of UPCA encoding rules.
+     *
+     * @param productCode The product code to calculate the check digit for. Must be 11 digits long.
+     * @return The check digit as an integer.
+     * @throws IllegalArgumentException If the product code is not a valid 11 digit product code.
+     */
+    public static int checkDigit(CharSequence productCode) {
+        if (!isValidProductCode(productCode)) {
+            throw new IllegalArgumentException("Product code must be 11 digits: " + productCode);
+        }
+        int oddSum = 0;
+        for (int i = 0; i < PRODUCT_CODE_LENGTH; i += 2) {
+            oddSum += productCode.charAt(i) - '0';
+        }
+        int evenSum = 0;
+        for (int i = 1; i < PRODUCT_CODE_LENGTH; i += 2) {
+            evenSum += productCode.charAt(i) - '0';
+        }
+        return (10 - (oddSum * 3 + evenSum) % 10) % 10;
+    }
+
+    /**
+     * Encode an 11 digit product code and its check digit into a 95 digit binary representation.
+     * Gives the same result as EncodeUpca.getBinaryRep.
+     *
+     * @param productCode The product code to be encoded. Must be 11 digits long.
+     * @return The binary representation of the UPCA code.
+     * @throws IllegalArgumentException If the product code is not a valid 11 digit product code.
+     */
+    public static String encode(CharSequence productCode) {
+        int checkDigit = checkDigit(productCode);
+
+        StringBuilder encodedUPCA = new StringBuilder(BINARY_LENGTH);
+        encodedUPCA.append("101");  // Left guard bar
+        for (int i = 0; i < 6; i++) {
+            encodedUPCA.append(ENCODE_LEFT[productCode.charAt(i) - '0']);
+        }
+        encodedUPCA.append("01010");    // Center guard bar
+        for (int i = 6; i < PRODUCT_CODE_LENGTH; i++) {
+            encodedUPCA.append(ENCODE_RIGHT[productCode.charAt(i) - '0']);
+        }
+        encodedUPCA.append(ENCODE_RIGHT[checkDigit]);
+        encodedUPCA.append("101");  // Right guard bar
+
+        return encodedUPCA.toString();
+    }
+
+    /**
+     * Decode a 95 digit binary representation into its 11 digit product code.
+     * The check digit is not included in the returned product code, just like DecodeUpca.getDecoded.
+     *
+     * @param binaryRep The binary representation to be decoded.
+     * @return The decoded product code as a string.
+     * @throws IllegalArgumentException If the binary representation is not 95 digits long, its guard bars are missing,
+     *                                  or it contains a 7 digit chunk that is not a UPCA digit.
+     */
+    public static String decode(CharSequence binaryRep) {
+        checkLength(binaryRep);
+        long first = packFirst(binaryRep);
+        long second = packSecond(binaryRep);
+        checkGuardBars(first, second);
+
+        char[] productCode = new char[PRODUCT_CODE_LENGTH];
+        for (int i = 0; i < PRODUCT_CODE_LENGTH; i++) {
+            productCode[i] = (char) ('0' + decodeDigit(first, second, i));
+        }
+        return new String(productCode);
+    }
+
+    /**
+     * Decode the check digit from a 95 digit binary representation.
+     * Only the last digit of the right side is decoded.
+     *
+     * @param binaryRep The binary representation to extract the check digit from.
+     * @return The check digit as an integer.
+     * @throws IllegalArgumentException If the binary representation is not a valid UPCA binary representation.
+     */
+    public static int decodeCheckDigit(CharSequence binaryRep) {
+        checkLength(binaryRep);
+        long first = packFirst(binaryRep);
+        long second = packSecond(binaryRep);
+        checkGuardBars(first, second);
+        return decodeDigit(first, second, PRODUCT_CODE_LENGTH);
+    }
+
+    /**
+     * Decode a 95 digit binary representation into the caller supplied digits array without creating any objects.
+     * The 11 digits of the product code are written to digits[0] through digits[10] and the check digit is written
+     * to digits[11].
+     *
+     * @param binaryRep The binary representation to be decoded.
+     * @param digits    The array to write the 12 decoded digits to.
+     * @throws IllegalArgumentException If the binary representation is not a valid UPCA binary representation, or
+     *                                  digits has room for fewer than 12 digits.
+     */
+    public static void decodeDigits(CharSequence binaryRep, int[] digits) {
+        checkDigits(digits);
+        checkLength(binaryRep);
+        decodeDigits(packFirst(binaryRep), packSecond(binaryRep), digits);
+    }
+
+    /**
+     * Decode 95 modules stored one per byte, starting at the given offset, into the caller supplied digits array.
+     * Each byte may either be the module value itself (0 or 1) or its ASCII form ('0' or '1'), so the raw bytes
+     * emitted by a scanner can be decoded without converting them into a String first.
+     *
+     * @param modules The bytes holding the modules.
+     * @param offset  The index of the first module.
+     * @param digits  The array to write the 11 product code digits and the check digit to.
+     * @throws IllegalArgumentException If fewer than 95 modules are available, a byte is not a module value, the
+     *                                  modules are not a valid UPCA barcode, or digits has room for fewer than 12
+     *                                  digits.
+     */
+    public static void decodeDigits(byte[] modules, int offset, int[] digits) {
+        checkDigits(digits);
+        checkLength(modules.length, offset);
+        long first = 0;
+        long second = 0;
+        for (int i = 0; i < 64; i++) {
+            first = (first << 1) | moduleValue(modules[offset + i]);
+        }
+        for (int i = 64; i < BINARY_LENGTH; i++) {
+            second = (second << 1) | moduleValue(modules[offset + i]);
+        }
+        decodeDigits(first, second << (128 - BINARY_LENGTH), digits);
+    }
+
+    /**
+     * Decode 95 modules stored as a bit set, starting at the given bit offset, into the caller supplied digits array.
+     * The bits use the same layout as BitSet.toLongArray: module i is bit (i % 64) of bits[i / 64], and a set bit
+     * is a bar. The modules are read 64 at a time instead of one by one.
+     *
+     * @param bits   The words holding the modules.
+     * @param offset The index of the bit holding the first module.
+     * @param digits The array to write the 11 product code digits and the check digit to.
+     * @throws IllegalArgumentException If fewer than 95 modules are available, the modules are not a valid UPCA
+     *                                  barcode, or digits has room for fewer than 12 digits.
+     */
+    public static void decodeDigits(long[] bits, int offset, int[] digits) {
+        checkDigits(digits);
+        if (offset < 0 || (long) bits.length * 64 - offset < BINARY_LENGTH) {
+            throw new IllegalArgumentException("Binary representation must be 95 digits long");
+        }
+        // Reverse each 64 bit chunk so that the first module ends up in the highest bit
+        long first = Long.reverse(getWord(bits, offset));
+        long second = Long.reverse(getWord(bits, offset + 64) & ((1L << (BINARY_LENGTH - 64)) - 1));
+        decodeDigits(first, second, digits);
+    }
+
+    /**
+     * Build a 128 entry lookup table that maps each 7 bit symbol of the given patterns to its digit.
+     *
+     * @param patterns ENCODE_LEFT or ENCODE_RIGHT.
+     * @return The lookup table.
+     */
+    private static byte[] buildLookupTable(String[] patterns) {
+        byte[] table = new byte[128];
+        Arrays.fill(table, (byte) -1);
+        for (int digit = 0; digit < patterns.length; digit++) {
+            table[Integer.parseInt(patterns[digit], 2)] = (byte) digit;
+        }
+        return table;
+    }
+
+    /**
+     * Decode all 12 digits of a packed barcode and write them to the digits array.
+     *
+     * @param first  Modules 0 to 63, with module 0 in the highest bit.
+     * @param second Modules 64 to 94, with module 64 in the highest bit.
+     * @param digits The array to write the 12 decoded digits to.
+     */
+    private static void decodeDigits(long first, long second, int[] digits) {
+        checkGuardBars(first, second);
+        for (int i = 0; i <= PRODUCT_CODE_LENGTH; i++) {
+            digits[i] = decodeDigit(first, second, i);
+        }
+    }
+
+    /**
+     * Decode a single digit of a packed barcode through LEFT_DIGITS or RIGHT_DIGITS.
+     *
+     * @param first  Modules 0 to 63, with module 0 in the highest bit.
+     * @param second Modules 64 to 94, with module 64 in the highest bit.
+     * @param index  The position of the digit, from 0 to 11 (11 being the check digit).
+     * @return The decoded digit.
+     * @throws IllegalArgumentException If the symbol is not a UPCA digit.
+     */
+    private static int decodeDigit(long first, long second, int index) {
+        int offset;
+        byte[] table;
+        if (index < 6) {
+            offset = 3 + index * 7;     // Skip the left guard bar
+            table = LEFT_DIGITS;
+        } else {
+            offset = 50 + (index - 6) * 7;  // Skip the center guard bar
+            table = RIGHT_DIGITS;
+        }
+        int digit = table[extract(first, second, offset, 7)];
+        if (digit < 0) {
+            throw new IllegalArgumentException("Invalid UPCA digit at index " + offset);
+        }
+        return digit;
+    }
+
+    /**
+     * Check the left, center, and right guard bars of a packed barcode.
+     *
+     * @param first  Modules 0 to 63, with module 0 in the highest bit.
+     * @param second Modules 64 to 94, with module 64 in the highest bit.
+     * @throws IllegalArgumentException If a guard bar is missing.
+     */
+    private static void checkGuardBars(long first, long second) {
+        if (extract(first, second, 0, 3) != 0b101
+                || extract(first, second, 45, 5) != 0b01010
+                || extract(first, second, 92, 3) != 0b101) {
+            throw new IllegalArgumentException("Binary representation is missing a guard bar");
+        }
+    }
+
+    /**
+     * Extract count modules starting at offset from a packed barcode, with the first module in the highest bit of
+     * the result.
+     *
+     * @param first  Modules 0 to 63, with module 0 in the highest bit.
+     * @param second Modules 64 to 94, with module 64 in the highest bit.
+     * @param offset The index of the first module to extract.
+     * @param count  The number of modules to extract, at most 7.
+     * @return The extracted modules.
+     */
+    private static int extract(long first, long second, int offset, int count) {
+        long mask = (1L << count) - 1;
+        if (offset >= 64) {
+            return (int) ((second >>> (128 - offset - count)) & mask);
+        }
+        if (offset + count <= 64) {
+            return (int) ((first >>> (64 - offset - count)) & mask);
+        }
+        // The symbol crosses from first into second
+        int fromSecond = offset + count - 64;
+        return (int) (((first << fromSecond) | (second >>> (64 - fromSecond))) & mask);
+    }
+
+    /**
+     * Pack modules 0 to 63 of a binary representation into a long, with module 0 in the highest bit.
+     *
+     * @param binaryRep The binary representation, already checked to be 95 digits long.
+     * @return The packed modules.
+     */
+    private static long packFirst(CharSequence binaryRep) {
+        long packed = 0;
+        for (int i = 0; i < 64; i++) {
+            packed = (packed << 1) | moduleValue(binaryRep.charAt(i));
+        }
+        return packed;
+    }
+
+    /**
+     * Pack modules 64 to 94 of a binary representation into a long, with module 64 in the highest bit.
+     *
+     * @param binaryRep The binary representation, already checked to be 95 digits long.
+     * @return The packed modules.
+     */
+    private static long packSecond(CharSequence binaryRep) {
+        long packed = 0;
+        for (int i = 64; i < BINARY_LENGTH; i++) {
+            packed = (packed << 1) | moduleValue(binaryRep.charAt(i));
+        }
+        return packed << (128 - BINARY_LENGTH);
+    }
+
+    /**
+     * Read the 64 bits starting at the given bit offset of a bit set.
+     * Bits past the end of the array are read as 0.
+     *
+     * @param bits   The words holding the bits.
+     * @param offset The index of the first bit to read.
+     * @return The 64 bits, with the bit at offset in the lowest bit.
+     */
+    private static long getWord(long[] bits, int offset) {
+        int word = offset >>> 6;
+        int shift = offset & 63;
+        long value = bits[word] >>> shift;
+        if (shift != 0 && word + 1 < bits.length) {
+            value |= bits[word + 1] << (64 - shift);
+        }
+        return value;
+    }
+
+    /**
+     * Get the value of a single module.
+     *
+     * @param module 0, 1, '0', or '1'.
+     * @return 0 for a space or 1 for a bar.
+     * @throws IllegalArgumentException If the module is not one of the accepted values.
+     */
+    private static int moduleValue(int module) {
+        switch (module) {
+            case 0:
+            case '0':
+                return 0;
+            case 1:
+            case '1':
+                return 1;
+            default:
+                throw new IllegalArgumentException("Binary representation must only contain 0 and 1");
+        }
+    }
+
+    /**
+     * Check that a binary representation is exactly 95 digits long.
+     *
+     * @param binaryRep The binary representation to check.
+     * @throws IllegalArgumentException If the binary representation is not 95 digits long.
+     */
+    private static void checkLength(CharSequence binaryRep) {
+        if (binaryRep.length() != BINARY_LENGTH) {
+            throw new IllegalArgumentException("Binary representation must be 95 digits long");
+        }
+    }
+
+    /**
+     * Check that a digits array has room for the product code and the check digit.
+     *
+     * @param digits The array the decoded digits are to be written to.
+     * @throws IllegalArgumentException If digits has room for fewer than 12 digits.
+     */
+    private static void checkDigits(int[] digits) {
+        if (digits.length < PRODUCT_CODE_LENGTH + 1) {
+            throw new IllegalArgumentException("Digits array must hold at least 12 digits: " + digits.length);
+        }
+    }
+
+    /**
+     * Check that at least 95 modules are available starting at the given offset.
+     *
+     * @param length The number of modules available.
+     * @param offset The index of the first module.
+     * @throws IllegalArgumentException If fewer than 95 modules are available.
+     */
+    private static void checkLength(int length, int offset) {
+        if (offset < 0 || length - offset < BINARY_LENGTH) {
+            throw new IllegalArgumentException("Binary representation must be 95 digits long");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+import org.junit.jupiter.api.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+class UpcaCodecTest {
+
+    private static final String BINARY_REP =
+            "10100011010011001001001101100010100011010111101010101000010001001000010100010010011101011100101";
+
+    @Test
+    public void testCheckDigit() {
+        Assertions.assertEquals(4, UpcaCodec.checkDigit("01254667375"));
+    }
+
+    @Test
+    public void testEncode() {
+        Assertions.assertEquals(BINARY_REP, UpcaCodec.encode("01254667375"));
+        Assertions.assertEquals(EncodeUpca.getBinaryRep("12345678901"), UpcaCodec.encode("12345678901"));
+    }
+
+    @Test
+    public void testEncodeInvalid() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> UpcaCodec.encode("1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> UpcaCodec.encode("0125466737a"));
+    }
+
+    @Test
+    public void testDecode() {
+        Assertions.assertEquals("01254667375", UpcaCodec.decode(BINARY_REP));
+        Assertions.assertEquals(4, UpcaCodec.decodeCheckDigit(BINARY_REP));
+    }
+
+    @Test
+    public void testDecodeInvalid() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> UpcaCodec.decode("1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> UpcaCodec.decode(BINARY_REP.replace('0', '1')));
+    }
+
+    @Test
+    public void testDecodeDigits() {
+        int[] expected = {0, 1, 2, 5, 4, 6, 6, 7, 3, 7, 5, 4};
+        int[] digits = new int[12];
+        UpcaCodec.decodeDigits(BINARY_REP, digits);
+        Assertions.assertArrayEquals(expected, digits);
+
+        // Raw ASCII bytes with a leading byte that is not part of the barcode
+        byte[] ascii = ("x" + BINARY_REP).getBytes(StandardCharsets.US_ASCII);
+        digits = new int[12];
+        UpcaCodec.decodeDigits(ascii, 1, digits);
+        Assertions.assertArrayEquals(expected, digits);
+
+        // Bit set starting at an offset that is not a multiple of 64
+        BitSet bitSet = new BitSet();
+        for (int i = 0; i < BINARY_REP.length(); i++) {
+            bitSet.set(i + 5, BINARY_REP.charAt(i) == '1');
+        }
+        digits = new int[12];
+        UpcaCodec.decodeDigits(bitSet.toLongArray(), 5, digits);
+        Assertions.assertArrayEquals(expected, digits);
+    }
+
+    @Test
+    public void testDecodeDigitsInvalid() {
+        byte[] modules = new byte[95];
+        Assertions.assertThrows(IllegalArgumentException.class, () -> UpcaCodec.decodeDigits(modules, 0, new int[12]));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> UpcaCodec.decodeDigits(modules, 1, new int[12]));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> UpcaCodec.decodeDigits(BINARY_REP.replace('0', '2'), new int[12]));
+    }
+
+    @Test
+    public void testDecodeDigitsShortArray() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> UpcaCodec.decodeDigits(BINARY_REP, new int[11]));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> UpcaCodec.decodeDigits(new long[2], 0, new int[0]));
+    }
+
+}
@@ -23,18 +23,41 @@ import com.google.zxing.common.BitMatrix;
  * This class is the core bitmap class used by ZXing to represent 1 bit data. Reader objects
  * accept a BinaryBitmap and attempt to decode it.
  *
+ * Bitmaps made from this one by {@link #crop}, {@link #rotateCounterClockwise()}, {@link #invert()}
+ * and {@link #copy()} derive their black matrix from this one's when it has already been computed,
+ * copying or flipping bits instead of thresholding the same pixels again. Their rows for the 1D
+ * readers still come from the luminance data, since those are binarized differently.
+ *
  * @author dswitkin@google.com (Daniel Switkin)
  */
 public final class BinaryBitmap {
 
+  private enum Derivation { COPY, CROP, ROTATE, INVERT }
+
   private final Binarizer binarizer;
-  private BitMatrix matrix;
+  // The bitmap this one was made from, whose matrix this one's can be derived from
+  private final BinaryBitmap parent;
+  private final Derivation derivation;
+  private final int left;
+  private final int top;
+  // Volatile since bitmaps derived from this one may be decoded on other threads
+  private volatile BitMatrix matrix;
+  // Volatile for the same reason. Two threads may each make one; either is as good as the other.
+  private volatile BinaryBitmap inverted;
 
   public BinaryBitmap(Binarizer binarizer) {
+    this(binarizer, null, null, 0, 0);
+  }
+
+  private BinaryBitmap(Binarizer binarizer, BinaryBitmap parent, Derivation derivation, int left, int top) {
     if (binarizer == null) {
       throw new IllegalArgumentException("Binarizer must be non-null.");
     }
     this.binarizer = binarizer;
+    this.parent = parent;
+    this.derivation = derivation;
+    this.left = left;
+    this.top = top;
   }
 
   /**
@@ -72,6 +95,8 @@ public final class BinaryBitmap {
    * may not apply sharpening. Therefore, a row from this matrix may not be identical to one
    * fetched using getBlackRow(), so don't mix and match between them.
    *
+   * The matrix may be shared with bitmaps made from this one, so it must not be modified.
+   *
    * @return The 2D array of bits for the image (true means black).
    * @throws NotFoundException if image can't be binarized to make a matrix
    */
@@ -81,12 +106,55 @@ public final class BinaryBitmap {
     // 1. This work will never be done if the caller only installs 1D Reader objects, or if a
     //    1D Reader finds a barcode before the 2D Readers run.
     // 2. This work will only be done once even if the caller installs multiple 2D Readers.
+    BitMatrix matrix = getDerivedBlackMatrix();
     if (matrix == null) {
-      matrix = binarizer.getBlackMatrix();
+      if (derivation == Derivation.INVERT) {
+        // The parent's pixels would be thresholded either way, and it may want its own matrix later
+        matrix = invert(parent.getBlackMatrix());
+      } else {
+        matrix = binarizer.getBlackMatrix();
+      }
+      this.matrix = matrix;
+    }
+    return matrix;
+  }
+
+  /**
+   * @return the black matrix if it is already computed or can be derived from one that is, or
+   *  null if it would have to be binarized
+   */
+  private BitMatrix getDerivedBlackMatrix() {
+    BitMatrix matrix = this.matrix;
+    if (matrix == null && parent != null) {
+      BitMatrix parentMatrix = parent.getDerivedBlackMatrix();
+      if (parentMatrix != null) {
+        switch (derivation) {
+          case COPY:
+            matrix = parentMatrix;
+            break;
+          case CROP:
+            matrix = parentMatrix.getRegion(left, top, getWidth(), getHeight());
+            break;
+          case ROTATE:
+            matrix = parentMatrix.clone();
+            matrix.rotate90();
+            break;
+          case INVERT:
+            matrix = invert(parentMatrix);
+            break;
+        }
+        this.matrix = matrix;
+      }
     }
     return matrix;
   }
 
+  private static BitMatrix invert(BitMatrix matrix) {
+    BitMatrix inverted = matrix.clone();
+    inverted.flip();
+    return inverted;
+  }
+
   /**
    * @return Whether this bitmap can be cropped.
    */
@@ -106,6 +174,18 @@ public final class BinaryBitmap {
    */
   public BinaryBitmap crop(int left, int top, int width, int height) {
     LuminanceSource newSource = binarizer.getLuminanceSource().crop(left, top, width, height);
+    return new BinaryBitmap(binarizer.createBinarizer(newSource), this, Derivation.CROP, left, top);
+  }
+
+  /**
+   * Returns a new object with image data shrunk by the given factor in each direction, each pixel
+   * averaging a factor x factor block of the original. Always supported, since it only needs rows.
+   *
+   * @param factor How many times smaller to make each dimension; at least 2.
+   * @return A downsampled version of this object.
+   */
+  public BinaryBitmap downsample(int factor) {
+    LuminanceSource newSource = new DownsampledLuminanceSource(binarizer.getLuminanceSource(), factor);
     return new BinaryBitmap(binarizer.createBinarizer(newSource));
   }
 
@@ -124,7 +204,7 @@ public final class BinaryBitmap {
    */
   public BinaryBitmap rotateCounterClockwise() {
     LuminanceSource newSource = binarizer.getLuminanceSource().rotateCounterClockwise();
-    return new BinaryBitmap(binarizer.createBinarizer(newSource));
+    return new BinaryBitmap(binarizer.createBinarizer(newSource), this, Derivation.ROTATE, 0, 0);
   }
 
   /**
@@ -138,6 +218,38 @@ public final class BinaryBitmap {
     return new BinaryBitmap(binarizer.createBinarizer(newSource));
   }
 
+  /**
+   * Returns a new object over the same image data with a pristine Binarizer. Binarizers keep
+   * scratch state between calls to getBlackRow(), so a BinaryBitmap must not be used from several
+   * threads at once; each thread should use its own copy instead.
+   *
+   * @return A copy of this object that shares its image data and black matrix but no binarizer
+   *  state.
+   */
+  public BinaryBitmap copy() {
+    return new BinaryBitmap(binarizer.createBinarizer(binarizer.getLuminanceSource()), this, Derivation.COPY, 0, 0);
+  }
+
+  /**
+   * Returns a bitmap of the same image with black and white swapped, for finding barcodes printed
+   * light on dark. Its black matrix is this one's with every bit flipped, so this bitmap's own
+   * matrix is left as it is. Inverting the result again gives back this object.
+   *
+   * @return An inverted version of this object.
+   */
+  public BinaryBitmap invert() {
+    if (derivation == Derivation.INVERT) {
+      return parent;
+    }
+    BinaryBitmap inverted = this.inverted;
+    if (inverted == null) {
+      LuminanceSource newSource = binarizer.getLuminanceSource().invert();
+      inverted = new BinaryBitmap(binarizer.createBinarizer(newSource), this, Derivation.INVERT, 0, 0);
+      this.inverted = inverted;
+    }
+    return inverted;
+  }
+
   @Override
   public String toString() {
     try {
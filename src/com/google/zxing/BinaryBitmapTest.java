@@ -0,0 +1,195 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests the black matrices of bitmaps made from another by cropping, rotating, copying and
+ * inverting it, which are derived from that one's when it already has one.
+ */
+class BinaryBitmapTest {
+
+  private static final int WIDTH = 120;
+  private static final int HEIGHT = 90;
+
+  /**
+   * Pixels in a plain array, which can be rotated.
+   */
+  private static final class GridSource extends LuminanceSource {
+
+    private final byte[] pixels;
+
+    GridSource(byte[] pixels, int width, int height) {
+      super(width, height);
+      this.pixels = pixels;
+    }
+
+    @Override
+    public byte[] getRow(int y, byte[] row) {
+      if (row == null || row.length < getWidth()) {
+        row = new byte[getWidth()];
+      }
+      System.arraycopy(pixels, y * getWidth(), row, 0, getWidth());
+      return row;
+    }
+
+    @Override
+    public byte[] getMatrix() {
+      return pixels;
+    }
+
+    @Override
+    public boolean isCropSupported() {
+      return true;
+    }
+
+    @Override
+    public LuminanceSource crop(int left, int top, int width, int height) {
+      byte[] cropped = new byte[width * height];
+      for (int y = 0; y < height; y++) {
+        System.arraycopy(pixels, (top + y) * getWidth() + left, cropped, y * width, width);
+      }
+      return new GridSource(cropped, width, height);
+    }
+
+    @Override
+    public boolean isRotateSupported() {
+      return true;
+    }
+
+    @Override
+    public LuminanceSource rotateCounterClockwise() {
+      int width = getWidth();
+      int height = getHeight();
+      byte[] rotated = new byte[width * height];
+      for (int y = 0; y < height; y++) {
+        for (int x = 0; x < width; x++) {
+          rotated[(width - 1 - x) * height + y] = pixels[y * width + x];
+        }
+      }
+      return new GridSource(rotated, height, width);
+    }
+
+  }
+
+  /**
+   * Blotches of light and dark, so local thresholds differ across the image.
+   */
+  private static BinaryBitmap bitmap() {
+    Random random = new Random(3);
+    byte[] pixels = new byte[WIDTH * HEIGHT];
+    for (int y = 0; y < HEIGHT; y++) {
+      for (int x = 0; x < WIDTH; x++) {
+        int base = ((x / 13 + y / 11) % 3) * 70;
+        pixels[y * WIDTH + x] = (byte) (base + random.nextInt(60));
+      }
+    }
+    return new BinaryBitmap(new HybridBinarizer(new GridSource(pixels, WIDTH, HEIGHT)));
+  }
+
+  private static BitMatrix flipped(BitMatrix matrix) {
+    BitMatrix flipped = matrix.clone();
+    flipped.flip();
+    return flipped;
+  }
+
+  @Test
+  public void testInvert() throws NotFoundException {
+    BinaryBitmap image = bitmap();
+    BinaryBitmap inverted = image.invert();
+    Assertions.assertSame(inverted, image.invert());
+    // Inverting twice gives back the original, matrix and all
+    Assertions.assertSame(image, inverted.invert());
+
+    // The inverted matrix is made first and the original's after, then the other way round
+    BitMatrix expected = bitmap().getBlackMatrix();
+    Assertions.assertEquals(flipped(expected), inverted.getBlackMatrix());
+    Assertions.assertEquals(expected, image.getBlackMatrix());
+    BinaryBitmap other = bitmap();
+    BitMatrix matrix = other.getBlackMatrix();
+    Assertions.assertEquals(flipped(expected), other.invert().getBlackMatrix());
+    Assertions.assertSame(matrix, other.getBlackMatrix());
+    Assertions.assertEquals(expected, matrix);
+  }
+
+  @Test
+  public void testAlsoInvertedLeavesMatrix() throws NotFoundException, WriterException {
+    // A QR Code printed light on dark, so only found once inverted
+    BitMatrix code = new MultiFormatWriter().encode("INVERTED", BarcodeFormat.QR_CODE, 100, 100);
+    byte[] pixels = new byte[WIDTH * 120];
+    for (int y = 0; y < 100; y++) {
+      for (int x = 0; x < 100; x++) {
+        pixels[(y + 10) * WIDTH + x + 10] = code.get(x, y) ? (byte) 0xFF : 0;
+      }
+    }
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.ALSO_INVERTED, Boolean.TRUE);
+    hints.put(DecodeHintType.POSSIBLE_FORMATS, EnumSet.of(BarcodeFormat.QR_CODE));
+    BitMatrix expected = new BinaryBitmap(new HybridBinarizer(new GridSource(pixels, WIDTH, 120))).getBlackMatrix();
+    for (boolean binarizeFirst : new boolean[] {true, false}) {
+      BinaryBitmap image = new BinaryBitmap(new HybridBinarizer(new GridSource(pixels, WIDTH, 120)));
+      // Either the caller's matrix is made before and the inverted one from it, or the other way round
+      BitMatrix before = binarizeFirst ? image.getBlackMatrix() : null;
+      Result result = new MultiFormatReader().decode(image, hints);
+      Assertions.assertEquals("INVERTED", result.getText());
+      BitMatrix after = image.getBlackMatrix();
+      if (binarizeFirst) {
+        Assertions.assertSame(before, after);
+      }
+      Assertions.assertEquals(expected, after);
+      Assertions.assertEquals(flipped(after), image.invert().getBlackMatrix());
+    }
+  }
+
+  @Test
+  public void testCropAndRotate() throws NotFoundException {
+    BinaryBitmap image = bitmap();
+    BitMatrix matrix = image.getBlackMatrix();
+    BitMatrix copy = matrix.clone();
+
+    BinaryBitmap cropped = image.crop(17, 9, 64, 50);
+    Assertions.assertEquals(matrix.getRegion(17, 9, 64, 50), cropped.getBlackMatrix());
+
+    BinaryBitmap rotated = image.rotateCounterClockwise();
+    BitMatrix expected = matrix.clone();
+    expected.rotate90();
+    Assertions.assertEquals(expected, rotated.getBlackMatrix());
+    Assertions.assertEquals(HEIGHT, rotated.getWidth());
+    Assertions.assertEquals(WIDTH, rotated.getHeight());
+
+    // Derived through several steps, each from the one before
+    BitMatrix croppedRotated = cropped.rotateCounterClockwise().invert().getBlackMatrix();
+    BitMatrix expectedCroppedRotated = matrix.getRegion(17, 9, 64, 50);
+    expectedCroppedRotated.rotate90();
+    expectedCroppedRotated.flip();
+    Assertions.assertEquals(expectedCroppedRotated, croppedRotated);
+
+    Assertions.assertSame(matrix, image.copy().getBlackMatrix());
+    // None of that changed the original's matrix
+    Assertions.assertEquals(copy, image.getBlackMatrix());
+  }
+
+}
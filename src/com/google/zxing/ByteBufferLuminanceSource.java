@@ -0,0 +1,193 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * This object extends LuminanceSource around raw 8-bit grayscale data held outside the Java heap,
+ * such as a direct ByteBuffer or a file mapped with {@link #map(FileChannel, long, int, int)}.
+ * Rows are copied out one at a time as they are requested, so images far larger than the heap
+ * can be scanned by the 1D readers, which only ever ask for rows.
+ *
+ * {@link #getMatrix()} still has to copy the whole plane onto the heap, so for very large images
+ * crop to the region of interest first. The data may be split across several buffers, each holding
+ * a band of whole rows, since a single buffer can't hold more than 2 GB.
+ */
+public final class ByteBufferLuminanceSource extends LuminanceSource {
+
+  private final ByteBuffer[] bands;
+  private final int rowsPerBand;
+  private final int dataWidth;
+  private final int dataHeight;
+  private final int left;
+  private final int top;
+
+  /**
+   * @param data grayscale data, one byte per pixel, rows of dataWidth pixels from top to bottom
+   *  starting at index 0
+   * @param dataWidth width of the data in pixels
+   * @param dataHeight height of the data in pixels
+   * @throws IllegalArgumentException if either dimension isn't positive, or data holds fewer than
+   *  dataWidth * dataHeight bytes
+   */
+  public ByteBufferLuminanceSource(ByteBuffer data, int dataWidth, int dataHeight) {
+    this(new ByteBuffer[] {data}, dataHeight, dataWidth, dataHeight, 0, 0, dataWidth, dataHeight);
+  }
+
+  private ByteBufferLuminanceSource(ByteBuffer[] bands,
+                                    int rowsPerBand,
+                                    int dataWidth,
+                                    int dataHeight,
+                                    int left,
+                                    int top,
+                                    int width,
+                                    int height) {
+    super(width, height);
+
+    if (dataWidth < 1 || dataHeight < 1) {
+      throw new IllegalArgumentException("Both dimensions must be greater than 0");
+    }
+    if (left < 0 || top < 0 || width < 1 || height < 1 ||
+        (long) left + width > dataWidth || (long) top + height > dataHeight) {
+      throw new IllegalArgumentException("Crop rectangle does not fit within image data.");
+    }
+    for (int i = 0; i < bands.length; i++) {
+      int rows = Math.min(rowsPerBand, dataHeight - i * rowsPerBand);
+      // Reads are absolute from index 0, so it is the limit that matters, not the position
+      if (bands[i].limit() < (long) rows * dataWidth) {
+        throw new IllegalArgumentException("Image data is smaller than its dimensions.");
+      }
+    }
+
+    this.bands = bands;
+    this.rowsPerBand = rowsPerBand;
+    this.dataWidth = dataWidth;
+    this.dataHeight = dataHeight;
+    this.left = left;
+    this.top = top;
+  }
+
+  /**
+   * Maps raw 8-bit grayscale pixels from a file, such as a headerless PGM body or a scanner dump,
+   * read-only into memory. Files larger than 2 GB are mapped as several bands of whole rows. The
+   * mapping stays valid after the channel is closed.
+   *
+   * @param channel file to map
+   * @param position offset in the file of the first pixel
+   * @param dataWidth width of the image in pixels
+   * @param dataHeight height of the image in pixels
+   * @return source over the mapped pixels
+   * @throws IOException if the file can't be mapped
+   */
+  public static ByteBufferLuminanceSource map(FileChannel channel,
+                                              long position,
+                                              int dataWidth,
+                                              int dataHeight) throws IOException {
+    return map(channel, position, dataWidth, dataHeight, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Like {@link #map(FileChannel, long, int, int)}, but with bands of at most maxBandBytes, so
+   * that small files can be split into bands too.
+   */
+  static ByteBufferLuminanceSource map(FileChannel channel,
+                                       long position,
+                                       int dataWidth,
+                                       int dataHeight,
+                                       int maxBandBytes) throws IOException {
+    if (dataWidth < 1 || dataHeight < 1) {
+      throw new IllegalArgumentException("Both dimensions must be greater than 0");
+    }
+    if (position + (long) dataWidth * dataHeight > channel.size()) {
+      throw new IllegalArgumentException("File is smaller than the image dimensions.");
+    }
+    if (dataWidth > maxBandBytes) {
+      throw new IllegalArgumentException("Rows are too wide to map: " + dataWidth);
+    }
+    int rowsPerBand = Math.min(dataHeight, maxBandBytes / dataWidth);
+    ByteBuffer[] bands = new ByteBuffer[(dataHeight + rowsPerBand - 1) / rowsPerBand];
+    for (int i = 0; i < bands.length; i++) {
+      int rows = Math.min(rowsPerBand, dataHeight - i * rowsPerBand);
+      long bandPosition = position + (long) i * rowsPerBand * dataWidth;
+      bands[i] = channel.map(FileChannel.MapMode.READ_ONLY, bandPosition, (long) rows * dataWidth);
+    }
+    return new ByteBufferLuminanceSource(bands, rowsPerBand, dataWidth, dataHeight,
+                                         0, 0, dataWidth, dataHeight);
+  }
+
+  @Override
+  public byte[] getRow(int y, byte[] row) {
+    if (y < 0 || y >= getHeight()) {
+      throw new IllegalArgumentException("Requested row is outside the image: " + y);
+    }
+    int width = getWidth();
+    if (row == null || row.length < width) {
+      row = new byte[width];
+    }
+    copyRow(y, row, 0);
+    return row;
+  }
+
+  @Override
+  public byte[] getMatrix() {
+    int width = getWidth();
+    int height = getHeight();
+    if ((long) width * height > Integer.MAX_VALUE) {
+      throw new IllegalStateException("Image is too large to copy onto the heap; crop it first");
+    }
+    byte[] matrix = new byte[width * height];
+    for (int y = 0; y < height; y++) {
+      copyRow(y, matrix, y * width);
+    }
+    return matrix;
+  }
+
+  /**
+   * Copies a row of the cropped image using absolute reads, which leave the buffer's position
+   * alone, so one source can be read from several threads at once.
+   */
+  private void copyRow(int y, byte[] dest, int offset) {
+    int dataY = top + y;
+    ByteBuffer band = bands[dataY / rowsPerBand];
+    band.get((dataY % rowsPerBand) * dataWidth + left, dest, offset, getWidth());
+  }
+
+  @Override
+  public boolean isCropSupported() {
+    return true;
+  }
+
+  @Override
+  public LuminanceSource crop(int left, int top, int width, int height) {
+    // Checked against this crop, since the data may extend past it
+    if (left < 0 || top < 0 || (long) left + width > getWidth() || (long) top + height > getHeight()) {
+      throw new IllegalArgumentException("Crop rectangle does not fit within image data.");
+    }
+    return new ByteBufferLuminanceSource(bands,
+                                         rowsPerBand,
+                                         dataWidth,
+                                         dataHeight,
+                                         this.left + left,
+                                         this.top + top,
+                                         width,
+                                         height);
+  }
+
+}
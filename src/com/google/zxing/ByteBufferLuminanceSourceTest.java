@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tests {@link ByteBufferLuminanceSource}, including files mapped as several bands.
+ */
+class ByteBufferLuminanceSourceTest {
+
+  private static final int WIDTH = 7;
+  private static final int HEIGHT = 10;
+  private static final int HEADER = 5;
+
+  private static byte pixel(int x, int y) {
+    return (byte) (y * 20 + x);
+  }
+
+  private static byte[] expectedRow(int left, int y, int width) {
+    byte[] row = new byte[width];
+    for (int x = 0; x < width; x++) {
+      row[x] = pixel(left + x, y);
+    }
+    return row;
+  }
+
+  private static void assertCrop(LuminanceSource source, int left, int top, int width, int height) {
+    Assertions.assertEquals(width, source.getWidth());
+    Assertions.assertEquals(height, source.getHeight());
+    byte[] matrix = source.getMatrix();
+    Assertions.assertEquals(width * height, matrix.length);
+    for (int y = 0; y < height; y++) {
+      byte[] expected = expectedRow(left, top + y, width);
+      // A row array that is too long is filled from the start
+      byte[] row = source.getRow(y, new byte[width + 3]);
+      for (int x = 0; x < width; x++) {
+        Assertions.assertEquals(expected[x], row[x], "row " + y + " at " + x);
+        Assertions.assertEquals(expected[x], matrix[y * width + x], "matrix " + y + " at " + x);
+      }
+    }
+  }
+
+  /**
+   * Maps a file holding a header and then the pixels, with bands of 3 rows, the last one only 1.
+   */
+  private static ByteBufferLuminanceSource mapBands(Path file) throws IOException {
+    byte[] contents = new byte[HEADER + WIDTH * HEIGHT];
+    for (int y = 0; y < HEIGHT; y++) {
+      for (int x = 0; x < WIDTH; x++) {
+        contents[HEADER + y * WIDTH + x] = pixel(x, y);
+      }
+    }
+    Files.write(file, contents);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return ByteBufferLuminanceSource.map(channel, HEADER, WIDTH, HEIGHT, WIDTH * 3 + 2);
+    }
+  }
+
+  @Test
+  public void testBands() throws IOException {
+    Path file = Files.createTempFile("bands", ".raw");
+    try {
+      ByteBufferLuminanceSource source = mapBands(file);
+      assertCrop(source, 0, 0, WIDTH, HEIGHT);
+      // Rows either side of each band boundary
+      for (int y : new int[] {2, 3, 5, 6, 8, 9}) {
+        Assertions.assertArrayEquals(expectedRow(0, y, WIDTH), source.getRow(y, null));
+      }
+      Assertions.assertThrows(IllegalArgumentException.class, () -> source.getRow(HEIGHT, null));
+      Assertions.assertThrows(IllegalArgumentException.class, () -> source.getRow(-1, null));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testCrop() throws IOException {
+    Path file = Files.createTempFile("crop", ".raw");
+    try {
+      ByteBufferLuminanceSource source = mapBands(file);
+      Assertions.assertTrue(source.isCropSupported());
+      // Straddles every band boundary
+      LuminanceSource cropped = source.crop(2, 1, 4, 8);
+      assertCrop(cropped, 2, 1, 4, 8);
+      // Offsets add up
+      assertCrop(cropped.crop(1, 2, 3, 5), 3, 3, 3, 5);
+      Assertions.assertThrows(IllegalArgumentException.class, () -> source.crop(4, 0, 4, 1));
+      Assertions.assertThrows(IllegalArgumentException.class, () -> cropped.crop(0, 1, 1, 8));
+      Assertions.assertThrows(IllegalArgumentException.class, () -> source.crop(-1, 0, 2, 2));
+      Assertions.assertThrows(IllegalArgumentException.class, () -> source.crop(0, 0, 0, 2));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testBuffer() {
+    ByteBuffer data = ByteBuffer.allocateDirect(WIDTH * HEIGHT);
+    for (int y = 0; y < HEIGHT; y++) {
+      for (int x = 0; x < WIDTH; x++) {
+        data.put(pixel(x, y));
+      }
+    }
+    // The position is left at the end; reads don't depend on it
+    assertCrop(new ByteBufferLuminanceSource(data, WIDTH, HEIGHT), 0, 0, WIDTH, HEIGHT);
+  }
+
+  @Test
+  public void testValidation() {
+    ByteBuffer data = ByteBuffer.allocate(WIDTH * HEIGHT);
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new ByteBufferLuminanceSource(data, 0, HEIGHT));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new ByteBufferLuminanceSource(data, WIDTH, -1));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new ByteBufferLuminanceSource(data, WIDTH, HEIGHT + 1));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new ByteBufferLuminanceSource(ByteBuffer.allocate(WIDTH * HEIGHT).limit(WIDTH), WIDTH, HEIGHT));
+    // Would overflow an int
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new ByteBufferLuminanceSource(data, 65536, 65536));
+  }
+
+  @Test
+  public void testMatrixTooLarge() throws IOException {
+    // Sparse, so nothing is actually written; 2^31 pixels, just over the size of a byte array
+    Path file = Files.createTempFile("large", ".raw");
+    try {
+      try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+        raf.setLength(1L << 31);
+      }
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        ByteBufferLuminanceSource source = ByteBufferLuminanceSource.map(channel, 0, 65536, 32768);
+        Assertions.assertThrows(IllegalStateException.class, source::getMatrix);
+        // The last row is in the second band
+        Assertions.assertArrayEquals(new byte[65536], source.getRow(32767, null));
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+}
@@ -17,6 +17,8 @@
 package com.google.zxing;
 
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Encapsulates a type of hint that a caller may pass to a barcode reader to help it
@@ -104,6 +106,34 @@ public enum DecodeHintType {
    */
   ALSO_INVERTED(Void.class),
 
+  /**
+   * Scan the candidate rows of 1D barcodes in parallel instead of one after another, stopping all
+   * workers as soon as a row decodes. Most useful together with {@link #TRY_HARDER}, where every
+   * row of the image may be scanned. The same row is returned as by a sequential scan. RSS-14 and
+   * RSS Expanded combine rows, so once either is read rows are always scanned sequentially. That
+   * includes the default of reading every format, so this hint only has an effect together with
+   * {@link #POSSIBLE_FORMATS} leaving them out. Interrupting the decoding thread stops the scan.
+   * Maps to the {@link ForkJoinPool} to run the scan on, such as {@link ForkJoinPool#commonPool()}.
+   */
+  PARALLEL_ROW_SCAN(ForkJoinPool.class),
+
+  /**
+   * Run all of the readers selected by {@link #POSSIBLE_FORMATS} at the same time instead of one
+   * after another, and return the first barcode any of them finds. The image is binarized once
+   * and shared by the readers, and the remaining readers are interrupted once one succeeds. They
+   * check for that between rows, and the result is returned once they have stopped. Only
+   * used by {@link MultiFormatReader}. Maps to the {@link Executor} to run the readers on. The
+   * decoding thread waits for them, so unless the executor is a {@link ForkJoinPool}, which adds a
+   * thread while a worker waits, it must not be a bounded pool the decoding thread belongs to.
+   */
+  CONCURRENT_READERS(Executor.class),
+
+  /**
+   * The number of barcodes expected in the image. Multiple barcode readers stop looking once they
+   * have found this many distinct barcodes. Maps to an {@link Integer}.
+   */
+  EXPECTED_BARCODE_COUNT(Integer.class),
+
   // End of enumeration values.
   ;
 
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+/**
+ * A wrapper implementation of {@link LuminanceSource} which shrinks its delegate by a whole factor
+ * in each direction, each pixel being the average of a factor x factor block of the original.
+ * Rows and columns left over at the right and bottom edges are dropped. Averaging rather than
+ * skipping pixels keeps thin bars and modules visible as gray instead of losing them entirely.
+ *
+ * The smaller image is computed once, when this is created, since the 1D readers fetch each row
+ * many times and it is only a fraction of the size of the original.
+ *
+ * @see BinaryBitmap#downsample(int)
+ */
+public final class DownsampledLuminanceSource extends LuminanceSource {
+
+  private final LuminanceSource delegate;
+  private final int factor;
+  private final byte[] luminances;
+
+  public DownsampledLuminanceSource(LuminanceSource delegate, int factor) {
+    super(delegate.getWidth() / Math.max(factor, 1), delegate.getHeight() / Math.max(factor, 1));
+    if (factor < 2) {
+      throw new IllegalArgumentException("Factor must be at least 2: " + factor);
+    }
+    if (getWidth() < 1 || getHeight() < 1) {
+      throw new IllegalArgumentException("Image is smaller than the factor");
+    }
+    this.delegate = delegate;
+    this.factor = factor;
+    luminances = downsample(delegate, factor, getWidth(), getHeight());
+  }
+
+  private static byte[] downsample(LuminanceSource delegate, int factor, int width, int height) {
+    byte[] luminances = new byte[width * height];
+    int[] sums = new int[width];
+    byte[] sourceRow = null;
+    int area = factor * factor;
+    int half = area / 2;
+    for (int y = 0; y < height; y++) {
+      for (int i = 0; i < factor; i++) {
+        sourceRow = delegate.getRow(y * factor + i, sourceRow);
+        if (factor == 2) {
+          for (int x = 0; x < width; x++) {
+            sums[x] += (sourceRow[2 * x] & 0xff) + (sourceRow[2 * x + 1] & 0xff);
+          }
+        } else {
+          for (int x = 0, from = 0; x < width; x++) {
+            int sum = 0;
+            for (int end = from + factor; from < end; from++) {
+              sum += sourceRow[from] & 0xff;
+            }
+            sums[x] += sum;
+          }
+        }
+      }
+      int offset = y * width;
+      for (int x = 0; x < width; x++) {
+        luminances[offset + x] = (byte) ((sums[x] + half) / area);
+        sums[x] = 0;
+      }
+    }
+    return luminances;
+  }
+
+  @Override
+  public byte[] getRow(int y, byte[] row) {
+    if (y < 0 || y >= getHeight()) {
+      throw new IllegalArgumentException("Requested row is outside the image: " + y);
+    }
+    int width = getWidth();
+    if (row == null || row.length < width) {
+      row = new byte[width];
+    }
+    System.arraycopy(luminances, y * width, row, 0, width);
+    return row;
+  }
+
+  @Override
+  public byte[] getMatrix() {
+    return luminances;
+  }
+
+  @Override
+  public boolean isCropSupported() {
+    return delegate.isCropSupported();
+  }
+
+  @Override
+  public LuminanceSource crop(int left, int top, int width, int height) {
+    return new DownsampledLuminanceSource(
+        delegate.crop(left * factor, top * factor, width * factor, height * factor), factor);
+  }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Tests {@link DownsampledLuminanceSource}.
+ */
+class DownsampledLuminanceSourceTest {
+
+  private static final int WIDTH = 101;
+  private static final int HEIGHT = 62;
+
+  private static LuminanceSource source() {
+    Random random = new Random(1);
+    byte[] luminances = new byte[WIDTH * HEIGHT];
+    random.nextBytes(luminances);
+    return new PlanarYUVLuminanceSource(luminances, WIDTH, HEIGHT, 0, 0, WIDTH, HEIGHT, false);
+  }
+
+  /**
+   * The rounded average of each factor x factor block of source, starting at (left, top).
+   */
+  private static byte[] expected(LuminanceSource source, int factor, int left, int top, int width, int height) {
+    byte[] matrix = source.getMatrix();
+    byte[] expected = new byte[width * height];
+    int area = factor * factor;
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        int sum = 0;
+        for (int dy = 0; dy < factor; dy++) {
+          for (int dx = 0; dx < factor; dx++) {
+            sum += matrix[(top + y * factor + dy) * source.getWidth() + left + x * factor + dx] & 0xFF;
+          }
+        }
+        expected[y * width + x] = (byte) ((sum + area / 2) / area);
+      }
+    }
+    return expected;
+  }
+
+  @Test
+  public void testDownsample() {
+    LuminanceSource source = source();
+    // 2 has its own loop; the rest are the general one. Leftover rows and columns are dropped.
+    for (int factor = 2; factor <= 5; factor++) {
+      DownsampledLuminanceSource downsampled = new DownsampledLuminanceSource(source, factor);
+      int width = WIDTH / factor;
+      int height = HEIGHT / factor;
+      Assertions.assertEquals(width, downsampled.getWidth());
+      Assertions.assertEquals(height, downsampled.getHeight());
+      byte[] expected = expected(source, factor, 0, 0, width, height);
+      Assertions.assertArrayEquals(expected, downsampled.getMatrix());
+      byte[] row = new byte[width];
+      for (int y = 0; y < height; y++) {
+        row = downsampled.getRow(y, row);
+        for (int x = 0; x < width; x++) {
+          Assertions.assertEquals(expected[y * width + x], row[x]);
+        }
+      }
+      Assertions.assertThrows(IllegalArgumentException.class, () -> downsampled.getRow(height, null));
+    }
+  }
+
+  @Test
+  public void testCrop() {
+    LuminanceSource source = source();
+    DownsampledLuminanceSource downsampled = new DownsampledLuminanceSource(source, 3);
+    Assertions.assertTrue(downsampled.isCropSupported());
+    // Crops in downsampled pixels, so (4, 2) is (12, 6) in the source
+    LuminanceSource cropped = downsampled.crop(4, 2, 20, 15);
+    Assertions.assertEquals(20, cropped.getWidth());
+    Assertions.assertEquals(15, cropped.getHeight());
+    Assertions.assertArrayEquals(expected(source, 3, 12, 6, 20, 15), cropped.getMatrix());
+    // The same pixels as that part of the uncropped downsampled image
+    byte[] whole = downsampled.getMatrix();
+    byte[] row = cropped.getRow(5, null);
+    for (int x = 0; x < 20; x++) {
+      Assertions.assertEquals(whole[(2 + 5) * downsampled.getWidth() + 4 + x], row[x]);
+    }
+  }
+
+  @Test
+  public void testInvalid() {
+    LuminanceSource source = source();
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new DownsampledLuminanceSource(source, 1));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new DownsampledLuminanceSource(source, 0));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new DownsampledLuminanceSource(source, 63));
+  }
+
+}
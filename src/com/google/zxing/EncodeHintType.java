@@ -131,11 +131,20 @@ public enum EncodeHintType {
   /**
    * Specifies the QR code mask pattern to be used. Allowed values are
    * 0..QRCode.NUM_MASK_PATTERNS-1. By default the code will automatically select
-   * the optimal mask pattern.
+   * the optimal mask pattern. Evaluating every mask pattern takes much of the time to encode a
+   * QR code, so fixing one is the fastest choice where latency matters more than readability.
    * * (Type {@link Integer}, or {@link String} representation of the integer value).
    */
   QR_MASK_PATTERN,
 
+  /**
+   * Evaluates the QR code mask patterns in parallel when selecting the optimal one, instead of
+   * one after another. The same mask pattern is selected either way. Only worth it for large
+   * versions, and not when already encoding many codes at once.
+   * (Type {@link java.util.concurrent.ForkJoinPool}, to evaluate the mask patterns on).
+   */
+  PARALLEL_MASK_SEARCH,
+
 
   /**
    * Specifies whether to use compact mode for QR code (type {@link Boolean}, or "true" or "false"
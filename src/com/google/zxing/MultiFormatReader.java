@@ -26,6 +26,15 @@ import com.google.zxing.qrcode.QRCodeReader;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * MultiFormatReader is a convenience class and the main entry point into the library for most uses.
@@ -168,6 +177,11 @@ public final class MultiFormatReader implements Reader {
 
   private Result decodeInternal(BinaryBitmap image) throws NotFoundException {
     if (readers != null) {
+      Executor executor =
+          hints == null ? null : (Executor) hints.get(DecodeHintType.CONCURRENT_READERS);
+      if (executor != null && readers.length > 1) {
+        return decodeConcurrently(image, executor);
+      }
       for (Reader reader : readers) {
         if (Thread.currentThread().isInterrupted()) {
           throw NotFoundException.getNotFoundInstance();
@@ -180,13 +194,13 @@ public final class MultiFormatReader implements Reader {
       }
       if (hints != null && hints.containsKey(DecodeHintType.ALSO_INVERTED)) {
         // Calling all readers again with inverted image
-        image.getBlackMatrix().flip();
+        BinaryBitmap inverted = image.invert();
         for (Reader reader : readers) {
           if (Thread.currentThread().isInterrupted()) {
             throw NotFoundException.getNotFoundInstance();
           }
           try {
-            return reader.decode(image, hints);
+            return reader.decode(inverted, hints);
           } catch (ReaderException re) {
             // continue
           }
@@ -196,4 +210,209 @@ public final class MultiFormatReader implements Reader {
     throw NotFoundException.getNotFoundInstance();
   }
 
+  private Result decodeConcurrently(BinaryBitmap image, Executor executor)
+      throws NotFoundException {
+    // Binarize once up front, so the readers share one matrix instead of racing to build it
+    image.getBlackMatrix();
+    Result result = raceReaders(image, executor);
+    if (result == null && hints.containsKey(DecodeHintType.ALSO_INVERTED)) {
+      BinaryBitmap inverted = image.invert();
+      inverted.getBlackMatrix();
+      result = raceReaders(inverted, executor);
+    }
+    if (result == null) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return result;
+  }
+
+  /**
+   * Runs every reader on the executor at once and returns the first result found. The others are
+   * then stopped by interrupting them, which readers notice at the same
+   * {@code Thread.isInterrupted()} checks that cancel a sequential decode: between rows in the 1D
+   * row scan and the QR Code finder pattern search, and between rows and rotations in the PDF417
+   * detector. This waits for them to stop before returning, so the readers and the image can
+   * safely be used again afterwards. A reader only stops at its next check, so Data Matrix, Aztec
+   * and MaxiCode, which have no such checks but only look at a few lines of the image, finish
+   * their attempt first.
+   *
+   * @return the first result found, or null if none of the readers found a barcode
+   */
+  private Result raceReaders(BinaryBitmap image, Executor executor)
+      throws NotFoundException {
+    int count = readers.length;
+    CountDownLatch stopped = new CountDownLatch(count);
+    // Tasks are queued here as they finish
+    BlockingQueue<Future<Result>> finished = new LinkedBlockingQueue<>();
+    // All created before any is scheduled, so that each one is stopped, and counts down, below even
+    // if the executor rejects some of them
+    Racer[] racers = new Racer[count];
+    for (int i = 0; i < count; i++) {
+      racers[i] = new Racer(readers[i], image, hints, stopped);
+    }
+    Result result = null;
+    boolean interrupted = false;
+    try {
+      for (int i = 0; i < count; i++) {
+        executor.execute(new FutureTask<Result>(racers[i]) {
+          @Override
+          protected void done() {
+            finished.add(this);
+          }
+        });
+      }
+      for (int i = 0; i < count && result == null; i++) {
+        try {
+          Taker taker = new Taker(finished);
+          ForkJoinPool.managedBlock(taker);
+          result = taker.task.get();
+        } catch (ExecutionException ee) {
+          Throwable cause = ee.getCause();
+          if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          }
+          if (cause instanceof Error) {
+            throw (Error) cause;
+          }
+          // continue -- a ReaderException just means this reader found nothing
+        }
+      }
+    } catch (InterruptedException ie) {
+      interrupted = true;
+    } finally {
+      for (Racer racer : racers) {
+        racer.stop();
+      }
+      awaitUninterruptibly(stopped);
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return result;
+  }
+
+  /**
+   * One reader's part in {@link #raceReaders(BinaryBitmap, Executor)}. Unlike
+   * {@code FutureTask.cancel(true)}, which can interrupt a worker just after the task has
+   * finished, {@link #stop()} only interrupts the worker while the reader is running and the worker
+   * clears that interrupt before moving on. Otherwise it would cut short whatever the executor runs
+   * next on that thread, such as a reader in the next race.
+   */
+  private static final class Racer implements Callable<Result> {
+
+    private final Reader reader;
+    private final BinaryBitmap image;
+    private final Map<DecodeHintType,?> hints;
+    private final CountDownLatch stopped;
+    // All guarded by this
+    private boolean started;
+    private Thread runner;
+    private boolean interruptedRunner;
+
+    Racer(Reader reader, BinaryBitmap image, Map<DecodeHintType,?> hints, CountDownLatch stopped) {
+      this.reader = reader;
+      this.image = image;
+      this.hints = hints;
+      this.stopped = stopped;
+    }
+
+    @Override
+    public Result call() throws ReaderException {
+      synchronized (this) {
+        if (started) {
+          return null; // stopped before it got to run
+        }
+        started = true;
+        runner = Thread.currentThread();
+      }
+      try {
+        return reader.decode(image, hints);
+      } finally {
+        boolean clearInterrupt;
+        synchronized (this) {
+          runner = null;
+          clearInterrupt = interruptedRunner;
+        }
+        if (clearInterrupt) {
+          Thread.interrupted();
+        }
+        stopped.countDown();
+      }
+    }
+
+    /**
+     * Stops the reader if it is running, or keeps it from starting if it hasn't yet. Either way
+     * {@code stopped} is counted down exactly once per racer.
+     */
+    synchronized void stop() {
+      if (!started) {
+        started = true;
+        stopped.countDown();
+      } else if (runner != null) {
+        interruptedRunner = true;
+        runner.interrupt();
+      }
+    }
+
+  }
+
+  /**
+   * Waits for the next task to finish. The wait is managed, so that when the caller is itself a
+   * worker of the {@link ForkJoinPool} the readers run on, the pool can add a thread to run them.
+   */
+  private static final class Taker implements ForkJoinPool.ManagedBlocker {
+
+    private final BlockingQueue<Future<Result>> finished;
+    private Future<Result> task;
+
+    Taker(BlockingQueue<Future<Result>> finished) {
+      this.finished = finished;
+    }
+
+    @Override
+    public boolean block() throws InterruptedException {
+      if (task == null) {
+        task = finished.take();
+      }
+      return true;
+    }
+
+    @Override
+    public boolean isReleasable() {
+      if (task == null) {
+        task = finished.poll();
+      }
+      return task != null;
+    }
+
+  }
+
+  private static void awaitUninterruptibly(CountDownLatch latch) {
+    ForkJoinPool.ManagedBlocker blocker = new ForkJoinPool.ManagedBlocker() {
+      @Override
+      public boolean block() throws InterruptedException {
+        latch.await();
+        return true;
+      }
+
+      @Override
+      public boolean isReleasable() {
+        return latch.getCount() == 0;
+      }
+    };
+    boolean interrupted = false;
+    while (true) {
+      try {
+        ForkJoinPool.managedBlock(blocker);
+        break;
+      } catch (InterruptedException ie) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.pdf417.PDF417Reader;
+import com.google.zxing.qrcode.QRCodeReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests {@link DecodeHintType#CONCURRENT_READERS} in {@link MultiFormatReader}.
+ */
+class MultiFormatReaderTest {
+
+  private static BinaryBitmap blankImage() {
+    int[] pixels = new int[120 * 120];
+    Arrays.fill(pixels, 0xFFFFFFFF);
+    return new BinaryBitmap(new HybridBinarizer(new RGBLuminanceSource(120, 120, pixels)));
+  }
+
+  private static final BarcodeFormat[] FORMATS = {BarcodeFormat.QR_CODE, BarcodeFormat.DATA_MATRIX,
+      BarcodeFormat.AZTEC, BarcodeFormat.PDF_417, BarcodeFormat.CODE_128};
+
+  private static BinaryBitmap encodedImage(BarcodeFormat format) throws WriterException {
+    BitMatrix code = new MultiFormatWriter().encode("CONCURRENT-" + format, format, 300, 300);
+    int width = code.getWidth();
+    int height = code.getHeight();
+    int[] pixels = new int[width * height];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        pixels[y * width + x] = code.get(x, y) ? 0xFF000000 : 0xFFFFFFFF;
+      }
+    }
+    return new BinaryBitmap(new HybridBinarizer(new RGBLuminanceSource(width, height, pixels)));
+  }
+
+  private static Map<DecodeHintType,Object> concurrentHints(Executor executor) {
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.POSSIBLE_FORMATS, Arrays.asList(BarcodeFormat.QR_CODE, BarcodeFormat.DATA_MATRIX,
+        BarcodeFormat.AZTEC));
+    hints.put(DecodeHintType.CONCURRENT_READERS, executor);
+    return hints;
+  }
+
+  @Test
+  public void testSameResultAsSequential() throws ReaderException, WriterException {
+    Map<DecodeHintType,Object> sequentialHints = new EnumMap<>(DecodeHintType.class);
+    sequentialHints.put(DecodeHintType.POSSIBLE_FORMATS, Arrays.asList(FORMATS));
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      Map<DecodeHintType,Object> hints = new EnumMap<>(sequentialHints);
+      hints.put(DecodeHintType.CONCURRENT_READERS, pool);
+      MultiFormatReader reader = new MultiFormatReader();
+      reader.setHints(hints);
+      for (BarcodeFormat format : FORMATS) {
+        Result expected = new MultiFormatReader().decode(encodedImage(format), sequentialHints);
+        Assertions.assertEquals(format, expected.getBarcodeFormat());
+        // The same reader again for each format, as the readers are reused from race to race
+        Result actual = reader.decodeWithState(encodedImage(format));
+        Assertions.assertEquals(expected.getText(), actual.getText());
+        Assertions.assertEquals(expected.getBarcodeFormat(), actual.getBarcodeFormat());
+        Assertions.assertArrayEquals(expected.getRawBytes(), actual.getRawBytes());
+        ResultPoint[] expectedPoints = expected.getResultPoints();
+        ResultPoint[] actualPoints = actual.getResultPoints();
+        Assertions.assertEquals(expectedPoints.length, actualPoints.length);
+        for (int i = 0; i < expectedPoints.length; i++) {
+          Assertions.assertEquals(expectedPoints[i].getX(), actualPoints[i].getX());
+          Assertions.assertEquals(expectedPoints[i].getY(), actualPoints[i].getY());
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testInterruptedDetectors() throws WriterException {
+    // The checks that let the losers of a race stop early
+    Reader[] readers = {new QRCodeReader(), new PDF417Reader()};
+    BarcodeFormat[] formats = {BarcodeFormat.QR_CODE, BarcodeFormat.PDF_417};
+    for (int i = 0; i < readers.length; i++) {
+      BinaryBitmap image = encodedImage(formats[i]);
+      Thread.currentThread().interrupt();
+      try {
+        readers[i].decode(image);
+        Assertions.fail("Interrupted " + formats[i] + " decode should not find anything");
+      } catch (NotFoundException nfe) {
+        // expected
+      } catch (ReaderException re) {
+        Assertions.fail(re.toString());
+      } finally {
+        Thread.interrupted();
+      }
+    }
+  }
+
+  @Test
+  public void testRejectedReader() throws InterruptedException {
+    // Runs the first reader and rejects the second
+    AtomicInteger scheduled = new AtomicInteger();
+    Executor executor = task -> {
+      if (scheduled.getAndIncrement() > 0) {
+        throw new RejectedExecutionException();
+      }
+      Thread reader = new Thread(task);
+      reader.setDaemon(true);
+      reader.start();
+    };
+    AtomicReference<Throwable> thrown = new AtomicReference<>();
+    Thread decoder = new Thread(() -> {
+      try {
+        new MultiFormatReader().decode(blankImage(), concurrentHints(executor));
+      } catch (Throwable t) {
+        thrown.set(t);
+      }
+    });
+    decoder.setDaemon(true);
+    decoder.start();
+    decoder.join(5000);
+    Assertions.assertFalse(decoder.isAlive());
+    Assertions.assertTrue(thrown.get() instanceof RejectedExecutionException, String.valueOf(thrown.get()));
+  }
+
+  @Test
+  public void testCallerInSamePool() {
+    ForkJoinPool pool = new ForkJoinPool(1);
+    try {
+      ForkJoinTask<Throwable> task = pool.submit(() -> {
+        try {
+          new MultiFormatReader().decode(blankImage(), concurrentHints(pool));
+          return null;
+        } catch (NotFoundException nfe) {
+          return nfe;
+        }
+      });
+      Assertions.assertTrue(task.get(5, TimeUnit.SECONDS) instanceof NotFoundException);
+    } catch (Exception e) {
+      Assertions.fail("Decode on the readers' own pool did not finish: " + e);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+}
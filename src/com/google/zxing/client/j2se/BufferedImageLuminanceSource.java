@@ -21,11 +21,26 @@ import com.google.zxing.LuminanceSource;
 import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
 import java.awt.image.WritableRaster;
 
 /**
  * This LuminanceSource implementation is meant for J2SE clients and our blackbox unit tests.
  *
+ * Images of type TYPE_INT_RGB, TYPE_INT_ARGB, TYPE_3BYTE_BGR and TYPE_4BYTE_ABGR are read straight
+ * from their pixel arrays, and only the rows and columns that are asked for are converted to
+ * luminance, when they are asked for. Other images are converted to a gray-scale copy up front.
+ *
+ * So for those four types, and for TYPE_BYTE_GRAY images, the source keeps a live reference to
+ * the caller's image rather than a snapshot of it: changes made to the image while the source is
+ * in use show up in the rows read afterwards, and may even be seen halfway through a decode.
+ * Copy the image first if it is going to be drawn on again, such as a frame buffer being reused.
+ *
  * @author dswitkin@google.com (Daniel Switkin)
  * @author Sean Owen
  * @author code@elektrowolle.de (Wolfgang Jung)
@@ -34,7 +49,10 @@ public final class BufferedImageLuminanceSource extends LuminanceSource {
 
   private static final double MINUS_45_IN_RADIANS = -0.7853981633974483; // Math.toRadians(-45.0)
 
+  // A gray-scale image, or one of the image types with a fast path, in which case luminance is
+  // computed as rows are requested
   private final BufferedImage image;
+  private final boolean computeLuminance;
   private final int left;
   private final int top;
 
@@ -45,14 +63,17 @@ public final class BufferedImageLuminanceSource extends LuminanceSource {
   public BufferedImageLuminanceSource(BufferedImage image, int left, int top, int width, int height) {
     super(width, height);
 
-    if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+    if (image.getType() != BufferedImage.TYPE_BYTE_GRAY &&
+        (left + width > image.getWidth() || top + height > image.getHeight())) {
+      throw new IllegalArgumentException("Crop rectangle does not fit within image data.");
+    }
+
+    computeLuminance = hasFastPath(image);
+    if (image.getType() == BufferedImage.TYPE_BYTE_GRAY || computeLuminance) {
       this.image = image;
     } else {
       int sourceWidth = image.getWidth();
       int sourceHeight = image.getHeight();
-      if (left + width > sourceWidth || top + height > sourceHeight) {
-        throw new IllegalArgumentException("Crop rectangle does not fit within image data.");
-      }
 
       this.image = new BufferedImage(sourceWidth, sourceHeight, BufferedImage.TYPE_BYTE_GRAY);
 
@@ -70,14 +91,7 @@ public final class BufferedImageLuminanceSource extends LuminanceSource {
             // white, so we know its luminance is 255
             buffer[x] = 0xFF;
           } else {
-            // .299R + 0.587G + 0.114B (YUV/YIQ for PAL and NTSC),
-            // (306*R) >> 10 is approximately equal to R*0.299, and so on.
-            // 0x200 >> 10 is 0.5, it implements rounding.
-            buffer[x] =
-              (306 * ((pixel >> 16) & 0xFF) +
-                601 * ((pixel >> 8) & 0xFF) +
-                117 * (pixel & 0xFF) +
-                0x200) >> 10;
+            buffer[x] = luminance((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF);
           }
         }
         raster.setPixels(left, y, width, 1, buffer);
@@ -97,8 +111,12 @@ public final class BufferedImageLuminanceSource extends LuminanceSource {
     if (row == null || row.length < width) {
       row = new byte[width];
     }
-    // The underlying raster of image consists of bytes with the luminance values
-    image.getRaster().getDataElements(left, top + y, width, 1, row);
+    if (computeLuminance) {
+      computeLuminance(image, left, top + y, width, row, 0);
+    } else {
+      // The underlying raster of image consists of bytes with the luminance values
+      image.getRaster().getDataElements(left, top + y, width, 1, row);
+    }
     return row;
   }
 
@@ -108,11 +126,118 @@ public final class BufferedImageLuminanceSource extends LuminanceSource {
     int height = getHeight();
     int area = width * height;
     byte[] matrix = new byte[area];
-    // The underlying raster of image consists of area bytes with the luminance values
-    image.getRaster().getDataElements(left, top, width, height, matrix);
+    if (computeLuminance) {
+      for (int y = 0; y < height; y++) {
+        computeLuminance(image, left, top + y, width, matrix, y * width);
+      }
+    } else {
+      // The underlying raster of image consists of area bytes with the luminance values
+      image.getRaster().getDataElements(left, top, width, height, matrix);
+    }
     return matrix;
   }
 
+  /**
+   * @return true if luminance can be computed directly from the pixel array of the image
+   */
+  private static boolean hasFastPath(BufferedImage image) {
+    WritableRaster raster = image.getRaster();
+    DataBuffer buffer = raster.getDataBuffer();
+    SampleModel sampleModel = raster.getSampleModel();
+    switch (image.getType()) {
+      case BufferedImage.TYPE_INT_RGB:
+      case BufferedImage.TYPE_INT_ARGB:
+        return buffer instanceof DataBufferInt && buffer.getNumBanks() == 1 &&
+            sampleModel instanceof SinglePixelPackedSampleModel;
+      case BufferedImage.TYPE_3BYTE_BGR:
+      case BufferedImage.TYPE_4BYTE_ABGR:
+        return buffer instanceof DataBufferByte && buffer.getNumBanks() == 1 &&
+            sampleModel instanceof ComponentSampleModel;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Computes the luminance of part of a row of an image that {@link #hasFastPath(BufferedImage)}
+   * accepts, reading the pixels straight from its data buffer.
+   */
+  private static void computeLuminance(BufferedImage image,
+                                       int left,
+                                       int y,
+                                       int width,
+                                       byte[] luminances,
+                                       int offset) {
+    WritableRaster raster = image.getRaster();
+    // Rasters of sub-images share the data buffer of their parent, translated
+    int sampleX = left - raster.getSampleModelTranslateX();
+    int sampleY = y - raster.getSampleModelTranslateY();
+    DataBuffer buffer = raster.getDataBuffer();
+    if (buffer instanceof DataBufferInt) {
+      int[] data = ((DataBufferInt) buffer).getData();
+      SinglePixelPackedSampleModel sampleModel = (SinglePixelPackedSampleModel) raster.getSampleModel();
+      int index = buffer.getOffset() + sampleModel.getOffset(sampleX, sampleY);
+      boolean hasAlpha = image.getType() == BufferedImage.TYPE_INT_ARGB;
+      for (int x = 0; x < width; x++) {
+        int pixel = data[index + x];
+        if (hasAlpha && (pixel & 0xFF000000) == 0) {
+          // Fully-transparent, so white, as in the constructor
+          luminances[offset + x] = (byte) 0xFF;
+        } else {
+          luminances[offset + x] =
+              (byte) luminance((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF);
+        }
+      }
+    } else {
+      byte[] data = ((DataBufferByte) buffer).getData();
+      ComponentSampleModel sampleModel = (ComponentSampleModel) raster.getSampleModel();
+      int pixelStride = sampleModel.getPixelStride();
+      int base = buffer.getOffset();
+      // Bands are in RGB(A) order, whatever order the bytes are stored in
+      int red = base + sampleModel.getOffset(sampleX, sampleY, 0);
+      int green = base + sampleModel.getOffset(sampleX, sampleY, 1);
+      int blue = base + sampleModel.getOffset(sampleX, sampleY, 2);
+      int alpha = sampleModel.getNumBands() > 3 ? base + sampleModel.getOffset(sampleX, sampleY, 3) : -1;
+      for (int x = 0, delta = 0; x < width; x++, delta += pixelStride) {
+        if (alpha >= 0 && data[alpha + delta] == 0) {
+          // Fully-transparent, so white, as in the constructor
+          luminances[offset + x] = (byte) 0xFF;
+        } else {
+          luminances[offset + x] = (byte) luminance(
+              data[red + delta] & 0xFF, data[green + delta] & 0xFF, data[blue + delta] & 0xFF);
+        }
+      }
+    }
+  }
+
+  /**
+   * .299R + 0.587G + 0.114B (YUV/YIQ for PAL and NTSC),
+   * (306*R) >> 10 is approximately equal to R*0.299, and so on.
+   * 0x200 >> 10 is 0.5, it implements rounding.
+   */
+  private static int luminance(int red, int green, int blue) {
+    return (306 * red + 601 * green + 117 * blue + 0x200) >> 10;
+  }
+
+  /**
+   * @return the image as gray-scale, converting the cropped region if luminance is being computed
+   *  as rows are requested, as the constructor does for other types of image
+   */
+  private BufferedImage getGrayImage() {
+    if (!computeLuminance) {
+      return image;
+    }
+    BufferedImage grayImage =
+        new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+    WritableRaster raster = grayImage.getRaster();
+    int width = getWidth();
+    byte[] row = new byte[width];
+    for (int y = 0; y < getHeight(); y++) {
+      raster.setDataElements(left, top + y, width, 1, getRow(y, row));
+    }
+    return grayImage;
+  }
+
   @Override
   public boolean isCropSupported() {
     return true;
@@ -124,7 +249,7 @@ public final class BufferedImageLuminanceSource extends LuminanceSource {
   }
 
   /**
-   * This is always true, since the image is a gray-scale image.
+   * This is always true, since the image is a gray-scale image, or can be converted to one.
    *
    * @return true
    */
@@ -135,6 +260,10 @@ public final class BufferedImageLuminanceSource extends LuminanceSource {
 
   @Override
   public LuminanceSource rotateCounterClockwise() {
+    if (computeLuminance) {
+      return rotateComputedCounterClockwise();
+    }
+    BufferedImage image = this.image;
     int sourceWidth = image.getWidth();
     int sourceHeight = image.getHeight();
 
@@ -154,8 +283,35 @@ public final class BufferedImageLuminanceSource extends LuminanceSource {
     return new BufferedImageLuminanceSource(rotatedImage, top, sourceWidth - (left + width), getHeight(), width);
   }
 
+  /**
+   * Like rotateCounterClockwise(), but writes the luminance of each row straight into the column it
+   * becomes, rather than first making a gray-scale copy of the image and then drawing it rotated.
+   */
+  private LuminanceSource rotateComputedCounterClockwise() {
+    int sourceWidth = image.getWidth();
+    int sourceHeight = image.getHeight();
+    int width = getWidth();
+    int height = getHeight();
+
+    BufferedImage rotatedImage = new BufferedImage(sourceHeight, sourceWidth, BufferedImage.TYPE_BYTE_GRAY);
+    byte[] rotated = ((DataBufferByte) rotatedImage.getRaster().getDataBuffer()).getData();
+    byte[] row = new byte[width];
+    for (int y = 0; y < height; y++) {
+      getRow(y, row);
+      // Pixel (x, y) moves to (y, sourceWidth - 1 - x)
+      int offset = (sourceWidth - 1 - left) * sourceHeight + top + y;
+      for (int x = 0; x < width; x++) {
+        rotated[offset - x * sourceHeight] = row[x];
+      }
+    }
+
+    // Maintain the cropped region, but rotate it too.
+    return new BufferedImageLuminanceSource(rotatedImage, top, sourceWidth - (left + width), height, width);
+  }
+
   @Override
   public LuminanceSource rotateCounterClockwise45() {
+    BufferedImage image = getGrayImage();
     int width = getWidth();
     int height = getHeight();
 
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.client.j2se;
+
+import com.google.zxing.LuminanceSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Tests the image types {@link BufferedImageLuminanceSource} reads straight from their pixel
+ * arrays against the luminance of each pixel as read by {@link BufferedImage#getRGB(int, int)},
+ * which is how every image used to be converted.
+ */
+class BufferedImageLuminanceSourceTest {
+
+  private static final int[] FAST_TYPES = {
+      BufferedImage.TYPE_INT_RGB,
+      BufferedImage.TYPE_INT_ARGB,
+      BufferedImage.TYPE_3BYTE_BGR,
+      BufferedImage.TYPE_4BYTE_ABGR,
+  };
+  private static final int WIDTH = 45;
+  private static final int HEIGHT = 37;
+
+  /**
+   * Random colors, a quarter of them fully transparent and some partly transparent for the types
+   * that have alpha.
+   */
+  private static BufferedImage image(int type) {
+    Random random = new Random(type);
+    BufferedImage image = new BufferedImage(WIDTH, HEIGHT, type);
+    for (int y = 0; y < HEIGHT; y++) {
+      for (int x = 0; x < WIDTH; x++) {
+        int alpha = random.nextInt(4) == 0 ? 0 : random.nextBoolean() ? 0xFF : random.nextInt(256);
+        image.setRGB(x, y, (alpha << 24) | random.nextInt(0x1000000));
+      }
+    }
+    return image;
+  }
+
+  /**
+   * The luminance of the pixel as the constructor computes it for images without a fast path.
+   */
+  private static byte expectedLuminance(BufferedImage image, int x, int y) {
+    int pixel = image.getRGB(x, y);
+    if ((pixel & 0xFF000000) == 0) {
+      return (byte) 0xFF;
+    }
+    int red = (pixel >> 16) & 0xFF;
+    int green = (pixel >> 8) & 0xFF;
+    int blue = pixel & 0xFF;
+    return (byte) ((306 * red + 601 * green + 117 * blue + 0x200) >> 10);
+  }
+
+  private static void assertLuminances(BufferedImage image,
+                                       int left,
+                                       int top,
+                                       LuminanceSource source,
+                                       String message) {
+    int width = source.getWidth();
+    int height = source.getHeight();
+    byte[] matrix = source.getMatrix();
+    Assertions.assertEquals(width * height, matrix.length, message);
+    byte[] row = null;
+    for (int y = 0; y < height; y++) {
+      row = source.getRow(y, row);
+      for (int x = 0; x < width; x++) {
+        byte expected = expectedLuminance(image, left + x, top + y);
+        Assertions.assertEquals(expected, row[x], message + " row at " + x + ',' + y);
+        Assertions.assertEquals(expected, matrix[y * width + x], message + " matrix at " + x + ',' + y);
+      }
+    }
+  }
+
+  @Test
+  public void testFastPaths() {
+    for (int type : FAST_TYPES) {
+      BufferedImage image = image(type);
+      String message = "type " + type;
+      assertLuminances(image, 0, 0, new BufferedImageLuminanceSource(image), message);
+      assertLuminances(image, 3, 5, new BufferedImageLuminanceSource(image, 3, 5, 33, 31), message + " cropped");
+      assertLuminances(image, 7, 6, new BufferedImageLuminanceSource(image, 3, 5, 33, 31).crop(4, 1, 20, 29),
+          message + " cropped twice");
+    }
+  }
+
+  @Test
+  public void testSubImages() {
+    // A sub-image shares its parent's pixel array, offset and with the parent's row length
+    for (int type : FAST_TYPES) {
+      BufferedImage parent = image(type);
+      BufferedImage image = parent.getSubimage(9, 4, 30, 25);
+      String message = "type " + type + " sub-image";
+      assertLuminances(image, 0, 0, new BufferedImageLuminanceSource(image), message);
+      assertLuminances(image, 2, 3, new BufferedImageLuminanceSource(image, 2, 3, 25, 20), message + " cropped");
+    }
+  }
+
+  @Test
+  public void testRotate() {
+    for (int type : FAST_TYPES) {
+      BufferedImage image = image(type);
+      LuminanceSource cropped = new BufferedImageLuminanceSource(image, 3, 5, 33, 31);
+      byte[] original = cropped.getMatrix();
+      int width = cropped.getWidth();
+      int height = cropped.getHeight();
+      LuminanceSource rotated = cropped.rotateCounterClockwise();
+      Assertions.assertEquals(height, rotated.getWidth());
+      Assertions.assertEquals(width, rotated.getHeight());
+      byte[] matrix = rotated.getMatrix();
+      for (int y = 0; y < width; y++) {
+        for (int x = 0; x < height; x++) {
+          // Counterclockwise, so the right hand column becomes the top row
+          Assertions.assertEquals(original[x * width + width - 1 - y], matrix[y * height + x],
+              "type " + type + " at " + x + ',' + y);
+        }
+      }
+      // The same as rotating a gray-scale copy, which goes through Graphics2D
+      BufferedImage gray = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+      byte[] full = new BufferedImageLuminanceSource(image).getMatrix();
+      gray.getRaster().setDataElements(0, 0, WIDTH, HEIGHT, full);
+      LuminanceSource grayRotated = new BufferedImageLuminanceSource(gray, 3, 5, 33, 31).rotateCounterClockwise();
+      Assertions.assertArrayEquals(grayRotated.getMatrix(), matrix);
+    }
+  }
+
+  @Test
+  public void testReadsLiveImage() {
+    // Documented: fast path images are read when rows are asked for, not copied up front
+    BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+    LuminanceSource source = new BufferedImageLuminanceSource(image);
+    Assertions.assertEquals(0, source.getRow(0, null)[0]);
+    image.setRGB(0, 0, 0xFFFFFF);
+    Assertions.assertEquals((byte) 0xFF, source.getRow(0, null)[0]);
+  }
+
+}
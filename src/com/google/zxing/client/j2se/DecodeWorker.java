@@ -43,6 +43,7 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -122,30 +123,12 @@ final class DecodeWorker implements Callable<Integer> {
   }
 
   private Result[] decode(URI uri, Map<DecodeHintType,?> hints) throws IOException {
-    BufferedImage image = ImageReader.readImage(uri);
-
-    LuminanceSource source;
-    if (config.crop == null) {
-      source = new BufferedImageLuminanceSource(image);
-    } else {
-      List<Integer> crop = config.crop;
-      source = new BufferedImageLuminanceSource(
-          image, crop.get(0), crop.get(1), crop.get(2), crop.get(3));
-    }
-
-    BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
-    if (config.dumpBlackPoint) {
-      dumpBlackPoint(uri, image, bitmap);
-    }
-
-    MultiFormatReader multiFormatReader = new MultiFormatReader();
     Result[] results;
     try {
-      if (config.multi) {
-        MultipleBarcodeReader reader = new GenericMultipleBarcodeReader(multiFormatReader);
-        results = reader.decodeMultiple(bitmap, hints);
+      if (config.bandHeight > 0 && !config.dumpBlackPoint) {
+        results = decodeBands(uri, hints);
       } else {
-        results = new Result[]{multiFormatReader.decode(bitmap, hints)};
+        results = decodeImage(uri, hints);
       }
     } catch (NotFoundException ignored) {
       System.out.println(uri + ": No barcode found");
@@ -201,6 +184,115 @@ final class DecodeWorker implements Callable<Integer> {
     return results;
   }
 
+  private Result[] decodeImage(URI uri, Map<DecodeHintType,?> hints) throws IOException, NotFoundException {
+    BufferedImage image = ImageReader.readImage(uri);
+
+    LuminanceSource source;
+    if (config.crop == null) {
+      source = new BufferedImageLuminanceSource(image);
+    } else {
+      List<Integer> crop = config.crop;
+      source = new BufferedImageLuminanceSource(
+          image, crop.get(0), crop.get(1), crop.get(2), crop.get(3));
+    }
+
+    BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
+    if (config.dumpBlackPoint) {
+      dumpBlackPoint(uri, image, bitmap);
+    }
+
+    MultiFormatReader multiFormatReader = new MultiFormatReader();
+    if (config.multi) {
+      MultipleBarcodeReader reader = new GenericMultipleBarcodeReader(multiFormatReader);
+      return reader.decodeMultiple(bitmap, hints);
+    }
+    return new Result[]{multiFormatReader.decode(bitmap, hints)};
+  }
+
+  /**
+   * Decodes the image in horizontal bands of {@code --band_height} rows. TIFF images are read a
+   * band at a time too, so neither the whole image nor its luminance is ever held in memory; other
+   * formats are read whole, see {@link ImageBandReader}. Stops at the
+   * first barcode found unless scanning for several. Without TRY_HARDER the 1D readers only scan
+   * the middle 7/16 of each band, so bands advance by 3/8 of their height to leave no row unscanned;
+   * the resulting overlap also keeps 2D symbols up to 5/8 of a band tall wholly within some band.
+   */
+  Result[] decodeBands(URI uri, Map<DecodeHintType,?> hints) throws IOException, NotFoundException {
+    MultiFormatReader multiFormatReader = new MultiFormatReader();
+    multiFormatReader.setHints(hints);
+    MultipleBarcodeReader multiReader = new GenericMultipleBarcodeReader(multiFormatReader);
+    // Barcodes in the overlap are found twice, once from each band
+    Map<String,Result> found = new LinkedHashMap<>();
+
+    try (ImageBandReader image = ImageBandReader.open(uri)) {
+      int left = 0;
+      int top = 0;
+      int width = image.getWidth();
+      int height = image.getHeight();
+      if (config.crop != null) {
+        List<Integer> crop = config.crop;
+        left = crop.get(0);
+        top = crop.get(1);
+        width = crop.get(2);
+        height = crop.get(3);
+        if (left + width > image.getWidth() || top + height > image.getHeight()) {
+          throw new IllegalArgumentException("Crop rectangle does not fit within image data.");
+        }
+      }
+      int bandHeight = Math.min(config.bandHeight, height);
+      int step = Math.max(1, bandHeight * 3 / 8);
+      int bottom = top + height;
+
+      for (int bandTop = top; bandTop < bottom; bandTop += step) {
+        int rows = Math.min(bandHeight, bottom - bandTop);
+        BufferedImage band = image.read(left, bandTop, width, rows);
+        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(band)));
+        try {
+          if (config.multi) {
+            for (Result result : multiReader.decodeMultiple(bitmap, hints)) {
+              found.putIfAbsent(result.getBarcodeFormat() + ":" + result.getText(),
+                                translateResultPoints(result, left, bandTop));
+            }
+          } else {
+            return new Result[]{translateResultPoints(multiFormatReader.decodeWithState(bitmap), left, bandTop)};
+          }
+        } catch (NotFoundException ignored) {
+          // keep reading
+        }
+        if (bandTop + rows >= bottom) {
+          break;
+        }
+      }
+    }
+
+    if (found.isEmpty()) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return found.values().toArray(new Result[0]);
+  }
+
+  private static Result translateResultPoints(Result result, int xOffset, int yOffset) {
+    ResultPoint[] oldResultPoints = result.getResultPoints();
+    if (oldResultPoints == null || (xOffset == 0 && yOffset == 0)) {
+      return result;
+    }
+    ResultPoint[] newResultPoints = new ResultPoint[oldResultPoints.length];
+    for (int i = 0; i < oldResultPoints.length; i++) {
+      ResultPoint oldPoint = oldResultPoints[i];
+      if (oldPoint != null) {
+        newResultPoints[i] = new ResultPoint(oldPoint.getX() + xOffset, oldPoint.getY() + yOffset);
+      }
+    }
+    Result newResult = new Result(result.getText(),
+                                  result.getRawBytes(),
+                                  result.getNumBits(),
+                                  newResultPoints,
+                                  result.getBarcodeFormat(),
+                                  result.getTimestamp());
+    newResult.putAllMetadata(result.getResultMetadata());
+    return newResult;
+  }
+
   /**
    * Writes out a single PNG which is three times the width of the input image, containing from left
    * to right: the original image, the row sampling monochrome version, and the 2D sampling
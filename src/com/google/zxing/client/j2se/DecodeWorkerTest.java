@@ -0,0 +1,224 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.client.j2se;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tests decoding with {@code --band_height} in {@link DecodeWorker}, which reads images through
+ * {@link ImageBandReader}.
+ */
+class DecodeWorkerTest {
+
+  private static final int WIDTH = 400;
+  private static final int HEIGHT = 1800;
+  private static final int BAND_HEIGHT = 400;
+
+  /**
+   * Where each barcode in the test image is: left, top, right and bottom.
+   */
+  private static final Map<String,int[]> BOUNDS = new HashMap<>();
+  static {
+    BOUNDS.put("BAND-A", new int[] {50, 100, 350, 180});
+    // Lies across the boundary between several bands, so more than one finds it
+    BOUNDS.put("BAND-B", new int[] {50, 700, 350, 780});
+    BOUNDS.put("QR-IN-BAND", new int[] {100, 1000, 300, 1200});
+    BOUNDS.put("BAND-C", new int[] {50, 1500, 350, 1580});
+  }
+
+  private static Path writeImage(String format) throws IOException, WriterException {
+    BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+    for (int y = 0; y < HEIGHT; y++) {
+      for (int x = 0; x < WIDTH; x++) {
+        image.setRGB(x, y, 0xFFFFFFFF);
+      }
+    }
+    MultiFormatWriter writer = new MultiFormatWriter();
+    for (Map.Entry<String,int[]> entry : BOUNDS.entrySet()) {
+      int[] bounds = entry.getValue();
+      int width = bounds[2] - bounds[0];
+      int height = bounds[3] - bounds[1];
+      boolean qrCode = entry.getKey().startsWith("QR");
+      BitMatrix code = writer.encode(entry.getKey(), qrCode ? BarcodeFormat.QR_CODE : BarcodeFormat.CODE_128,
+          width, qrCode ? height : 1);
+      for (int y = 0; y < height; y++) {
+        for (int x = 0; x < width; x++) {
+          if (code.get(x, qrCode ? y : 0)) {
+            image.setRGB(bounds[0] + x, bounds[1] + y, 0xFF000000);
+          }
+        }
+      }
+    }
+    Path file = Files.createTempFile("bands", '.' + format);
+    Assertions.assertTrue(ImageIO.write(image, format, file.toFile()));
+    return file;
+  }
+
+  private static Result[] decodeBands(Path file, boolean multi, Integer... crop) throws IOException {
+    DecoderConfig config = new DecoderConfig();
+    config.bandHeight = BAND_HEIGHT;
+    config.multi = multi;
+    if (crop.length > 0) {
+      config.crop = Arrays.asList(crop);
+    }
+    try {
+      return new DecodeWorker(config, new ArrayDeque<>()).decodeBands(file.toUri(), config.buildHints());
+    } catch (NotFoundException nfe) {
+      return new Result[0];
+    }
+  }
+
+  /**
+   * Checks that the points are in whole image coordinates, within the barcode they belong to.
+   */
+  private static void assertPointsInBounds(Result result) {
+    int[] bounds = BOUNDS.get(result.getText());
+    Assertions.assertTrue(bounds != null, result.getText());
+    for (ResultPoint point : result.getResultPoints()) {
+      String message = result.getText() + " point " + point;
+      Assertions.assertTrue(point.getX() >= bounds[0] - 1 && point.getX() <= bounds[2] + 1, message);
+      Assertions.assertTrue(point.getY() >= bounds[1] - 1 && point.getY() <= bounds[3] + 1, message);
+    }
+  }
+
+  private static void assertFound(Result[] results, String... texts) {
+    String[] found = new String[results.length];
+    for (int i = 0; i < results.length; i++) {
+      found[i] = results[i].getText();
+      assertPointsInBounds(results[i]);
+    }
+    Arrays.sort(found);
+    String[] expected = texts.clone();
+    Arrays.sort(expected);
+    Assertions.assertArrayEquals(expected, found);
+  }
+
+  @Test
+  public void testMulti() throws IOException, WriterException {
+    for (String format : new String[] {"png", "tiff"}) {
+      Path file = writeImage(format);
+      try {
+        // Each barcode once, even those in the overlap between bands
+        assertFound(decodeBands(file, true), "BAND-A", "BAND-B", "QR-IN-BAND", "BAND-C");
+      } finally {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Test
+  public void testFirstBarcode() throws IOException, WriterException {
+    for (String format : new String[] {"png", "tiff"}) {
+      Path file = writeImage(format);
+      try {
+        assertFound(decodeBands(file, false), "BAND-A");
+        // The first band of the crop that has a barcode in it
+        assertFound(decodeBands(file, false, 0, 900, WIDTH, 900), "QR-IN-BAND");
+      } finally {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Test
+  public void testCrop() throws IOException, WriterException {
+    for (String format : new String[] {"png", "tiff"}) {
+      Path file = writeImage(format);
+      try {
+        // Nothing outside the crop is found, and points are still in whole image coordinates
+        assertFound(decodeBands(file, true, 20, 600, 380, 1200), "BAND-B", "QR-IN-BAND", "BAND-C");
+        assertFound(decodeBands(file, true, 0, 200, WIDTH, 400));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> decodeBands(file, true, 0, 1000, WIDTH, 900));
+      } finally {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Test
+  public void testImageBandReader() throws IOException, WriterException {
+    BufferedImage whole = null;
+    for (String format : new String[] {"png", "tiff"}) {
+      Path file = writeImage(format);
+      try (ImageBandReader reader = ImageBandReader.open(file.toUri())) {
+        Assertions.assertEquals(WIDTH, reader.getWidth());
+        Assertions.assertEquals(HEIGHT, reader.getHeight());
+        // PNG has to be read from the top every time, so it is read whole instead
+        Assertions.assertEquals("tiff".equals(format), reader.isRandomAccess());
+        if (whole == null) {
+          whole = ImageIO.read(file.toFile());
+        }
+        for (int top : new int[] {0, 150, 1400}) {
+          BufferedImage band = reader.read(30, top, 300, BAND_HEIGHT);
+          Assertions.assertEquals(300, band.getWidth());
+          Assertions.assertEquals(BAND_HEIGHT, band.getHeight());
+          for (int y = 0; y < BAND_HEIGHT; y++) {
+            for (int x = 0; x < 300; x++) {
+              Assertions.assertEquals(whole.getRGB(30 + x, top + y), band.getRGB(x, y));
+            }
+          }
+        }
+      } finally {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Test
+  public void testSameResultsForEachFormat() throws IOException, WriterException {
+    Path png = writeImage("png");
+    Path tiff = writeImage("tiff");
+    try {
+      Result[] fromPng = decodeBands(png, true);
+      Result[] fromTiff = decodeBands(tiff, true);
+      Assertions.assertEquals(fromPng.length, fromTiff.length);
+      for (int i = 0; i < fromPng.length; i++) {
+        Assertions.assertEquals(fromPng[i].getText(), fromTiff[i].getText());
+        ResultPoint[] pngPoints = fromPng[i].getResultPoints();
+        ResultPoint[] tiffPoints = fromTiff[i].getResultPoints();
+        Assertions.assertEquals(pngPoints.length, tiffPoints.length);
+        for (int j = 0; j < pngPoints.length; j++) {
+          Assertions.assertEquals(pngPoints[j].getX(), tiffPoints[j].getX());
+          Assertions.assertEquals(pngPoints[j].getY(), tiffPoints[j].getY());
+        }
+      }
+    } finally {
+      Files.delete(png);
+      Files.delete(tiff);
+    }
+  }
+
+}
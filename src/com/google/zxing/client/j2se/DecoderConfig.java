@@ -72,6 +72,13 @@ final class DecoderConfig {
       validateWith = PositiveInteger.class)
   List<Integer> crop;
 
+  @Parameter(names = "--band_height",
+      description = "Decode images this many rows at a time, stopping once a barcode is found; " +
+          "0 decodes the whole image at once. Only TIFF images are also read from the file a band " +
+          "at a time; other formats are read whole first",
+      validateWith = PositiveInteger.class)
+  int bandHeight;
+
   @Parameter(names = "--possible_formats",
       description = "Formats to decode, where format is any value in BarcodeFormat",
       variableArity = true)
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.client.j2se;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Iterator;
+
+/**
+ * Reads an image a region at a time. TIFF images, which are stored in strips or tiles, are read
+ * through the ImageIO reader's source region, so only the rows being looked at are ever decoded
+ * into memory. Other formats such as PNG and JPEG would have to decode every row above a region
+ * again to reach it, which makes reading a tall image band by band take time quadratic in its
+ * height, so they are decoded whole on the first read and regions are then taken from that.
+ *
+ * @see ImageReader
+ */
+final class ImageBandReader implements Closeable {
+
+  private final ImageInputStream stream;
+  private final javax.imageio.ImageReader reader;
+  private final int width;
+  private final int height;
+  private final boolean randomAccess;
+  // The whole image, once read, if it can't be read a region at a time
+  private BufferedImage image;
+
+  private ImageBandReader(ImageInputStream stream, javax.imageio.ImageReader reader) throws IOException {
+    this.stream = stream;
+    this.reader = reader;
+    width = reader.getWidth(0);
+    height = reader.getHeight(0);
+    String format = reader.getFormatName();
+    randomAccess = "tif".equalsIgnoreCase(format) || "tiff".equalsIgnoreCase(format);
+  }
+
+  static ImageBandReader open(URI uri) throws IOException {
+    ImageInputStream stream;
+    if ("data".equals(uri.getScheme())) {
+      stream = ImageIO.createImageInputStream(new ByteArrayInputStream(ImageReader.readDataURIBytes(uri)));
+    } else if ("file".equals(uri.getScheme())) {
+      stream = ImageIO.createImageInputStream(new File(uri));
+    } else {
+      InputStream in;
+      try {
+        in = uri.toURL().openStream();
+      } catch (IllegalArgumentException iae) {
+        throw new IOException("Resource not found: " + uri, iae);
+      }
+      stream = ImageIO.createImageInputStream(in);
+      if (stream == null) {
+        in.close();
+      }
+    }
+    if (stream == null) {
+      throw new IOException("Could not load " + uri);
+    }
+    Iterator<javax.imageio.ImageReader> readers = ImageIO.getImageReaders(stream);
+    if (!readers.hasNext()) {
+      stream.close();
+      throw new IOException("Could not load " + uri);
+    }
+    javax.imageio.ImageReader reader = readers.next();
+    reader.setInput(stream, false, true);
+    try {
+      return new ImageBandReader(stream, reader);
+    } catch (IOException | RuntimeException e) {
+      reader.dispose();
+      stream.close();
+      throw e;
+    }
+  }
+
+  int getWidth() {
+    return width;
+  }
+
+  int getHeight() {
+    return height;
+  }
+
+  /**
+   * @return true if regions are decoded on their own, false if the whole image is decoded
+   *  on the first read
+   */
+  boolean isRandomAccess() {
+    return randomAccess;
+  }
+
+  /**
+   * @return the given region of the image. If the image isn't read a region at a time, this shares
+   *  its pixels with the whole image, so it must not be modified.
+   */
+  BufferedImage read(int left, int top, int regionWidth, int regionHeight) throws IOException {
+    if (randomAccess) {
+      ImageReadParam param = reader.getDefaultReadParam();
+      param.setSourceRegion(new Rectangle(left, top, regionWidth, regionHeight));
+      return reader.read(0, param);
+    }
+    if (image == null) {
+      image = reader.read(0);
+    }
+    return image.getSubimage(left, top, regionWidth, regionHeight);
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.dispose();
+    stream.close();
+  }
+
+}
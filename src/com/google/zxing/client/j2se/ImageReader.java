@@ -52,6 +52,10 @@ public final class ImageReader {
   }
   
   public static BufferedImage readDataURIImage(URI uri) throws IOException {
+    return ImageIO.read(new ByteArrayInputStream(readDataURIBytes(uri)));
+  }
+
+  static byte[] readDataURIBytes(URI uri) throws IOException {
     String uriString = uri.getSchemeSpecificPart();
     if (!uriString.startsWith("image/")) {
       throw new IOException("Unsupported data URI MIME type");
@@ -61,8 +65,7 @@ public final class ImageReader {
       throw new IOException("Unsupported data URI encoding");
     }
     String base64Data = uriString.substring(base64Start + BASE64TOKEN.length());
-    byte[] imageBytes = Base64.getDecoder().decode(base64Data);
-    return ImageIO.read(new ByteArrayInputStream(imageBytes));
+    return Base64.getDecoder().decode(base64Data);
   }
 
 }
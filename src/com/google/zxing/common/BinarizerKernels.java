@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import java.util.Arrays;
+
+/**
+ * Inner loops shared by the binarizers. Instead of testing each pixel and setting its bit one at
+ * a time, pixels are compared without branches and packed 32 to an int, which is then written
+ * to the {@link BitMatrix} or {@link BitArray} with a single store. Branching on each pixel is
+ * particularly slow on noisy images, where the branch can't be predicted.
+ */
+final class BinarizerKernels {
+
+  private BinarizerKernels() {
+  }
+
+  /**
+   * Packs up to 32 pixels into an int, with bit i set if pixel i is darker than limit.
+   *
+   * @param luminances pixel data
+   * @param offset index of the first pixel
+   * @param count number of pixels, at most 32
+   * @param limit pixels with a luminance less than this are black
+   * @return the packed bits, lowest x first as in {@link BitArray}
+   */
+  static int packBelow(byte[] luminances, int offset, int count, int limit) {
+    int packed = 0;
+    for (int i = 0; i < count; i++) {
+      // The difference is negative, so its sign bit is set, exactly when the pixel is darker
+      packed |= (((luminances[offset + i] & 0xFF) - limit) >>> 31) << i;
+    }
+    return packed;
+  }
+
+  /**
+   * Sets the bits of a row of a matrix for each pixel that is darker than limit, a word at a time.
+   *
+   * @param luminances pixel data
+   * @param offset index of the first pixel of the row
+   * @param width number of pixels in the row
+   * @param limit pixels with a luminance less than this are black
+   * @param matrix matrix to set the bits in
+   * @param y row of the matrix to set
+   */
+  static void thresholdRow(byte[] luminances, int offset, int width, int limit, BitMatrix matrix, int y) {
+    int[] bits = matrix.getBits();
+    int word = y * matrix.getRowSize();
+    for (int x = 0; x < width; x += 32, word++) {
+      bits[word] |= packBelow(luminances, offset + x, Math.min(32, width - x), limit);
+    }
+  }
+
+  /**
+   * Sets the bits of up to 32 pixels starting at any column of a matrix row, for each pixel that
+   * is darker than limit.
+   */
+  static void thresholdSpan(byte[] luminances,
+                            int offset,
+                            int count,
+                            int limit,
+                            BitMatrix matrix,
+                            int x,
+                            int y) {
+    int packed = packBelow(luminances, offset, count, limit);
+    int[] bits = matrix.getBits();
+    int word = y * matrix.getRowSize() + (x >> 5);
+    int shift = x & 0x1F;
+    bits[word] |= packed << shift;
+    if (shift + count > 32) {
+      bits[word + 1] |= packed >>> (32 - shift);
+    }
+  }
+
+  /**
+   * Adds the pixels in [from, to) to a histogram. Alternate pixels are counted in separate copies
+   * of the buckets which are only added together at the end, so that runs of similar pixels don't
+   * each have to wait for the previous increment of the same bucket to finish.
+   *
+   * @param luminances pixel data
+   * @param from index of the first pixel
+   * @param to index after the last pixel
+   * @param shift how far to shift a luminance right to get its bucket
+   * @param scratch at least four times as many ints as there are buckets
+   * @param buckets histogram to add the counts to
+   */
+  static void histogram(byte[] luminances, int from, int to, int shift, int[] scratch, int[] buckets) {
+    int numBuckets = buckets.length;
+    int second = numBuckets;
+    int third = numBuckets * 2;
+    int fourth = numBuckets * 3;
+    Arrays.fill(scratch, 0, numBuckets * 4, 0);
+    int x = from;
+    for (; x + 4 <= to; x += 4) {
+      scratch[(luminances[x] & 0xFF) >> shift]++;
+      scratch[second + ((luminances[x + 1] & 0xFF) >> shift)]++;
+      scratch[third + ((luminances[x + 2] & 0xFF) >> shift)]++;
+      scratch[fourth + ((luminances[x + 3] & 0xFF) >> shift)]++;
+    }
+    for (; x < to; x++) {
+      scratch[(luminances[x] & 0xFF) >> shift]++;
+    }
+    for (int i = 0; i < numBuckets; i++) {
+      buckets[i] += scratch[i] + scratch[second + i] + scratch[third + i] + scratch[fourth + i];
+    }
+  }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tests {@link BinarizerKernels} against straightforward pixel at a time versions.
+ */
+class BinarizerKernelsTest {
+
+  private static final int[] WIDTHS = {31, 32, 33, 63, 64, 65};
+  // Includes 0, where nothing is black, and 255, where all but white is
+  private static final int[] LIMITS = {0, 1, 127, 128, 129, 255, 256};
+
+  /**
+   * Covers every luminance, including those of 128 and over, which are negative as bytes.
+   */
+  private static byte[] luminances(int length, long seed) {
+    Random random = new Random(seed);
+    byte[] luminances = new byte[length];
+    for (int i = 0; i < length; i++) {
+      luminances[i] = (byte) (i < 256 ? i : random.nextInt(256));
+    }
+    // Not in order, so each packed word gets a mix
+    for (int i = length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      byte swap = luminances[i];
+      luminances[i] = luminances[j];
+      luminances[j] = swap;
+    }
+    return luminances;
+  }
+
+  private static boolean isBelow(byte luminance, int limit) {
+    return (luminance & 0xFF) < limit;
+  }
+
+  @Test
+  public void testPackBelow() {
+    byte[] luminances = luminances(600, 1);
+    for (int limit : LIMITS) {
+      for (int offset : new int[] {0, 1, 31, 250}) {
+        for (int count = 0; count <= 32; count++) {
+          int expected = 0;
+          for (int i = 0; i < count; i++) {
+            if (isBelow(luminances[offset + i], limit)) {
+              expected |= 1 << i;
+            }
+          }
+          Assertions.assertEquals(expected, BinarizerKernels.packBelow(luminances, offset, count, limit));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testThresholdRow() {
+    for (int width : WIDTHS) {
+      byte[] luminances = luminances(width * 3, width);
+      for (int limit : LIMITS) {
+        BitMatrix matrix = new BitMatrix(width, 3);
+        // Bits already set stay set, and the rows either side are left alone
+        matrix.set(0, 1);
+        matrix.set(width - 1, 1);
+        matrix.setRegion(0, 0, width, 1);
+        BinarizerKernels.thresholdRow(luminances, width, width, limit, matrix, 1);
+        for (int x = 0; x < width; x++) {
+          Assertions.assertTrue(matrix.get(x, 0));
+          Assertions.assertEquals(x == 0 || x == width - 1 || isBelow(luminances[width + x], limit),
+              matrix.get(x, 1), "width " + width + " limit " + limit + " x " + x);
+          Assertions.assertFalse(matrix.get(x, 2));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testThresholdSpan() {
+    for (int width : WIDTHS) {
+      byte[] luminances = luminances(width, width + 1);
+      for (int limit : LIMITS) {
+        for (int x = 0; x < width; x++) {
+          for (int count = 1; count <= 32 && x + count <= width; count++) {
+            BitMatrix matrix = new BitMatrix(width, 2);
+            BinarizerKernels.thresholdSpan(luminances, x, count, limit, matrix, x, 1);
+            for (int i = 0; i < width; i++) {
+              boolean expected = i >= x && i < x + count && isBelow(luminances[i], limit);
+              Assertions.assertEquals(expected, matrix.get(i, 1),
+                  "width " + width + " limit " + limit + " span " + x + '+' + count + " at " + i);
+              Assertions.assertFalse(matrix.get(i, 0));
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testHistogram() {
+    byte[] luminances = luminances(700, 2);
+    for (int shift : new int[] {0, 3}) {
+      int numBuckets = 256 >> shift;
+      for (int from : new int[] {0, 1, 2, 3, 100}) {
+        for (int length = 0; length <= 70; length++) {
+          int to = from + length;
+          int[] expected = new int[numBuckets];
+          Arrays.fill(expected, 5);
+          for (int i = from; i < to; i++) {
+            expected[(luminances[i] & 0xFF) >> shift]++;
+          }
+          // Counts are added to what is already in the buckets, and the scratch space can start dirty
+          int[] buckets = new int[numBuckets];
+          Arrays.fill(buckets, 5);
+          int[] scratch = new int[numBuckets * 4 + 3];
+          Arrays.fill(scratch, 7);
+          BinarizerKernels.histogram(luminances, from, to, shift, scratch, buckets);
+          Assertions.assertArrayEquals(expected, buckets);
+        }
+      }
+    }
+    // All 700 pixels, with every luminance among them
+    int[] buckets = new int[256];
+    BinarizerKernels.histogram(luminances, 0, luminances.length, 0, new int[1024], buckets);
+    int total = 0;
+    for (int count : buckets) {
+      Assertions.assertTrue(count > 0);
+      total += count;
+    }
+    Assertions.assertEquals(luminances.length, total);
+  }
+
+}
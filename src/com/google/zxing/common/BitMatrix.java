@@ -278,6 +278,246 @@ public final class BitMatrix implements Cloneable {
     return row;
   }
 
+  /**
+   * Records the widths of the alternating runs of white and black pixels in a row, from left to
+   * right. Runs are found a word at a time, so long runs cost no more than short ones.
+   *
+   * @param y The row to scan
+   * @param runs Array to store the run widths in. The first run is white, and is 0 wide if the row
+   *  starts with a black pixel
+   * @return The number of runs stored, which is less than the number in the row if runs fills up
+   */
+  public int getRowRuns(int y, int[] runs) {
+    int offset = y * rowSize;
+    int count = 0;
+    boolean black = false;
+    for (int x = 0; x < width && count < runs.length; black = !black) {
+      int runEnd = nextChange(offset, x, black);
+      runs[count++] = runEnd - x;
+      x = runEnd;
+    }
+    return count;
+  }
+
+  /**
+   * Like {@link #getRowRuns(int, int[])}, but records the runs in a column, from top to bottom.
+   *
+   * @param x The column to scan
+   * @param runs Array to store the run widths in. The first run is white, and is 0 long if the
+   *  column starts with a black pixel
+   * @return The number of runs stored, which is less than the number in the column if runs fills up
+   */
+  public int getColumnRuns(int x, int[] runs) {
+    BitArray column = getColumn(x, null);
+    int count = 0;
+    boolean black = false;
+    for (int y = 0; y < height && count < runs.length; black = !black) {
+      int runEnd = black ? column.getNextUnset(y) : column.getNextSet(y);
+      runs[count++] = runEnd - y;
+      y = runEnd;
+    }
+    return count;
+  }
+
+  /**
+   * @return the first position at or after from in the row starting at offset that isn't the
+   *  given color, or width if there is none
+   */
+  private int nextChange(int offset, int from, boolean black) {
+    int word = from / 32;
+    int currentBits = black ? ~bits[offset + word] : bits[offset + word];
+    // mask off lesser bits first
+    currentBits &= -(1 << (from & 0x1f));
+    while (currentBits == 0) {
+      if (++word == rowSize) {
+        return width;
+      }
+      currentBits = black ? ~bits[offset + word] : bits[offset + word];
+    }
+    return Math.min(word * 32 + Integer.numberOfTrailingZeros(currentBits), width);
+  }
+
+  /**
+   * A fast method to retrieve one column of data from the matrix, 32 rows to a word.
+   *
+   * @param x The column to retrieve
+   * @param column An optional caller-allocated BitArray, will be allocated if null or too small
+   * @return The resulting BitArray - this reference should always be used even when passing
+   *         your own column
+   */
+  public BitArray getColumn(int x, BitArray column) {
+    if (column == null || column.getSize() < height) {
+      column = new BitArray(height);
+    } else {
+      column.clear();
+    }
+    int word = x / 32;
+    int shift = x & 0x1f;
+    for (int y = 0; y < height; y += 32) {
+      int count = Math.min(32, height - y);
+      int packed = 0;
+      for (int i = 0, offset = y * rowSize + word; i < count; i++, offset += rowSize) {
+        packed |= ((bits[offset] >>> shift) & 1) << i;
+      }
+      column.setBulk(y, packed);
+    }
+    return column;
+  }
+
+  /**
+   * Counts the bits that are set in a region, a word at a time.
+   *
+   * @param left The horizontal position to begin at (inclusive)
+   * @param top The vertical position to begin at (inclusive)
+   * @param width The width of the region
+   * @param height The height of the region
+   * @return The number of set bits in the region
+   */
+  public int countSetBits(int left, int top, int width, int height) {
+    if (top < 0 || left < 0) {
+      throw new IllegalArgumentException("Left and top must be nonnegative");
+    }
+    if (height < 1 || width < 1) {
+      throw new IllegalArgumentException("Height and width must be at least 1");
+    }
+    int right = left + width;
+    int bottom = top + height;
+    if (bottom > this.height || right > this.width) {
+      throw new IllegalArgumentException("The region must fit inside the matrix");
+    }
+    int firstWord = left / 32;
+    int lastWord = (right - 1) / 32;
+    int firstMask = -1 << (left & 0x1f);
+    int lastMask = -1 >>> (31 - ((right - 1) & 0x1f));
+    int count = 0;
+    for (int y = top; y < bottom; y++) {
+      int offset = y * rowSize;
+      if (firstWord == lastWord) {
+        count += Integer.bitCount(bits[offset + firstWord] & firstMask & lastMask);
+      } else {
+        count += Integer.bitCount(bits[offset + firstWord] & firstMask);
+        for (int i = firstWord + 1; i < lastWord; i++) {
+          count += Integer.bitCount(bits[offset + i]);
+        }
+        count += Integer.bitCount(bits[offset + lastWord] & lastMask);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Copies a rectangle out of this matrix, a word at a time rather than bit by bit.
+   *
+   * @param left The horizontal position to begin at (inclusive)
+   * @param top The vertical position to begin at (inclusive)
+   * @param width The width of the region
+   * @param height The height of the region
+   * @return a new matrix holding just the region, so that bit (0, 0) is bit (left, top) of this one
+   */
+  public BitMatrix getRegion(int left, int top, int width, int height) {
+    if (top < 0 || left < 0) {
+      throw new IllegalArgumentException("Left and top must be nonnegative");
+    }
+    if (top + height > this.height || left + width > this.width) {
+      throw new IllegalArgumentException("The region must fit inside the matrix");
+    }
+    BitMatrix region = new BitMatrix(width, height);
+    int newRowSize = region.rowSize;
+    int[] newBits = region.bits;
+    int shift = left & 0x1f;
+    int lastMask = (width & 0x1f) == 0 ? -1 : (1 << (width & 0x1f)) - 1;
+    for (int y = 0; y < height; y++) {
+      int from = (top + y) * rowSize + (left / 32);
+      int rowEnd = (top + y + 1) * rowSize;
+      int to = y * newRowSize;
+      for (int i = 0; i < newRowSize; i++, from++) {
+        int word = bits[from] >>> shift;
+        if (shift != 0 && from + 1 < rowEnd) {
+          word |= bits[from + 1] << (32 - shift);
+        }
+        newBits[to + i] = word;
+      }
+      newBits[to + newRowSize - 1] &= lastMask;
+    }
+    return region;
+  }
+
+  /**
+   * Creates the transpose of this matrix, so that bit (x, y) of the result is bit (y, x) of this
+   * one. Works on 32x32 blocks of bits at a time rather than bit by bit.
+   *
+   * @return The transposed matrix, which is height wide and width high
+   */
+  public BitMatrix transpose() {
+    int newRowSize = (height + 31) / 32;
+    int[] newBits = new int[newRowSize * width];
+    transposeInto(newBits, newRowSize, false);
+    return new BitMatrix(height, width, newRowSize, newBits);
+  }
+
+  /**
+   * Writes the transpose of this matrix into newBits, whose rows are newRowSize words long. If
+   * reverseRows is set the rows of the transpose are written in reverse order.
+   */
+  private void transposeInto(int[] newBits, int newRowSize, boolean reverseRows) {
+    int[] block = new int[32];
+    for (int blockY = 0; blockY < newRowSize; blockY++) {
+      int rows = Math.min(32, height - blockY * 32);
+      for (int blockX = 0; blockX < rowSize; blockX++) {
+        for (int i = 0; i < 32; i++) {
+          block[i] = i < rows ? bits[(blockY * 32 + i) * rowSize + blockX] : 0;
+        }
+        transpose32(block);
+        int columns = Math.min(32, width - blockX * 32);
+        for (int i = 0; i < columns; i++) {
+          int newY = blockX * 32 + i;
+          if (reverseRows) {
+            newY = width - 1 - newY;
+          }
+          newBits[newY * newRowSize + blockY] = block[i];
+        }
+      }
+    }
+  }
+
+  /**
+   * Transposes a 32x32 block of bits in place, where bit x of block[y] is bit (x, y), by swapping
+   * ever smaller quarters of it. See Hacker's Delight, section 7-3.
+   */
+  private static void transpose32(int[] block) {
+    int mask = 0x0000FFFF;
+    for (int j = 16; j != 0; j >>>= 1, mask ^= mask << j) {
+      for (int k = 0; k < 32; k = (k + j + 1) & ~j) {
+        int t = ((block[k] >>> j) ^ block[k + j]) & mask;
+        block[k] ^= t << j;
+        block[k + j] ^= t;
+      }
+    }
+  }
+
+  /**
+   * @return the underlying words, so that binarizers can write 32 bits at a time. Row y starts at
+   *  word y * {@link #getRowSize()}
+   */
+  int[] getBits() {
+    return bits;
+  }
+
+  /**
+   * Makes this matrix a copy of another, reusing this one's storage when it is the same size.
+   *
+   * @param source matrix to copy
+   */
+  public void copyFrom(BitMatrix source) {
+    if (bits.length != source.bits.length) {
+      bits = new int[source.bits.length];
+    }
+    System.arraycopy(source.bits, 0, bits, 0, bits.length);
+    width = source.width;
+    height = source.height;
+    rowSize = source.rowSize;
+  }
+
   /**
    * @param y row to set
    * @param row {@link BitArray} to copy from
@@ -336,15 +576,8 @@ public final class BitMatrix implements Cloneable {
     int newRowSize = (newWidth + 31) / 32;
     int[] newBits = new int[newRowSize * newHeight];
 
-    for (int y = 0; y < height; y++) {
-      for (int x = 0; x < width; x++) {
-        int offset = y * rowSize + (x / 32);
-        if (((bits[offset] >>> (x & 0x1f)) & 1) != 0) {
-          int newOffset = (newHeight - 1 - x) * newRowSize + (y / 32);
-          newBits[newOffset] |= 1 << (y & 0x1f);
-        }
-      }
-    }
+    // Rotating counterclockwise is transposing and then turning upside down
+    transposeInto(newBits, newRowSize, true);
     width = newWidth;
     height = newHeight;
     rowSize = newRowSize;
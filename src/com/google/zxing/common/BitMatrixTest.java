@@ -0,0 +1,257 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests the word at a time methods of {@link BitMatrix} against bit by bit versions, on sizes that
+ * aren't multiples of 32.
+ */
+class BitMatrixTest {
+
+  private static final int[][] SIZES = {{1, 1}, {31, 33}, {32, 32}, {33, 65}, {65, 31}, {97, 40}, {100, 3}};
+
+  /**
+   * Random matrices of each size, sparse, dense and in long runs that span several words.
+   */
+  private static List<BitMatrix> matrices() {
+    Random random = new Random(1);
+    List<BitMatrix> matrices = new ArrayList<>();
+    for (int[] size : SIZES) {
+      for (int percent : new int[] {10, 50, 90}) {
+        BitMatrix matrix = new BitMatrix(size[0], size[1]);
+        for (int y = 0; y < size[1]; y++) {
+          for (int x = 0; x < size[0]; x++) {
+            if (random.nextInt(100) < percent) {
+              matrix.set(x, y);
+            }
+          }
+        }
+        matrices.add(matrix);
+      }
+      BitMatrix runs = new BitMatrix(size[0], size[1]);
+      for (int y = 0; y < size[1]; y++) {
+        boolean black = random.nextBoolean();
+        for (int x = 0; x < size[0]; x++) {
+          if (random.nextInt(40) == 0) {
+            black = !black;
+          }
+          if (black) {
+            runs.set(x, y);
+          }
+        }
+      }
+      matrices.add(runs);
+    }
+    return matrices;
+  }
+
+  private static String describe(BitMatrix matrix) {
+    return matrix.getWidth() + "x" + matrix.getHeight();
+  }
+
+  @Test
+  public void testCountSetBits() {
+    for (BitMatrix matrix : matrices()) {
+      int width = matrix.getWidth();
+      int height = matrix.getHeight();
+      for (int top = 0; top < height; top += Math.max(1, height / 3)) {
+        for (int regionHeight = 1; top + regionHeight <= height; regionHeight += Math.max(1, height / 4)) {
+          // Every left edge and width, so regions start and end at every bit of a word
+          for (int left = 0; left < width; left++) {
+            for (int regionWidth = 1; left + regionWidth <= width; regionWidth++) {
+              int expected = 0;
+              for (int y = top; y < top + regionHeight; y++) {
+                for (int x = left; x < left + regionWidth; x++) {
+                  if (matrix.get(x, y)) {
+                    expected++;
+                  }
+                }
+              }
+              Assertions.assertEquals(expected, matrix.countSetBits(left, top, regionWidth, regionHeight));
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCountSetBitsBounds() {
+    BitMatrix matrix = new BitMatrix(33, 10);
+    Assertions.assertThrows(IllegalArgumentException.class, () -> matrix.countSetBits(-1, 0, 1, 1));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> matrix.countSetBits(0, 0, 0, 1));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> matrix.countSetBits(0, 0, 34, 1));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> matrix.countSetBits(32, 9, 1, 2));
+  }
+
+  private static int[] expectedRuns(boolean[] pixels) {
+    int[] runs = new int[pixels.length + 1];
+    int count = 0;
+    boolean black = false;
+    int runStart = 0;
+    for (int i = 0; i <= pixels.length; i++) {
+      if (i == pixels.length || pixels[i] != black) {
+        runs[count++] = i - runStart;
+        runStart = i;
+        black = !black;
+        if (i == pixels.length) {
+          break;
+        }
+      }
+    }
+    // A row that ends on a change has no empty run after it
+    if (count > 1 && runs[count - 1] == 0) {
+      count--;
+    }
+    int[] result = new int[count];
+    System.arraycopy(runs, 0, result, 0, count);
+    return result;
+  }
+
+  private static void assertRuns(int[] expected, int[] runs, int count, String message) {
+    Assertions.assertEquals(Math.min(expected.length, runs.length), count, message);
+    for (int i = 0; i < count; i++) {
+      Assertions.assertEquals(expected[i], runs[i], message + " run " + i);
+    }
+  }
+
+  @Test
+  public void testRowRuns() {
+    for (BitMatrix matrix : matrices()) {
+      for (int y = 0; y < matrix.getHeight(); y++) {
+        boolean[] pixels = new boolean[matrix.getWidth()];
+        for (int x = 0; x < pixels.length; x++) {
+          pixels[x] = matrix.get(x, y);
+        }
+        int[] expected = expectedRuns(pixels);
+        int[] runs = new int[pixels.length + 1];
+        assertRuns(expected, runs, matrix.getRowRuns(y, runs), describe(matrix) + " row " + y);
+        // Stops once the runs array is full
+        int[] fewRuns = new int[3];
+        assertRuns(expected, fewRuns, matrix.getRowRuns(y, fewRuns), describe(matrix) + " row " + y);
+      }
+    }
+  }
+
+  @Test
+  public void testColumnRuns() {
+    for (BitMatrix matrix : matrices()) {
+      for (int x = 0; x < matrix.getWidth(); x++) {
+        boolean[] pixels = new boolean[matrix.getHeight()];
+        for (int y = 0; y < pixels.length; y++) {
+          pixels[y] = matrix.get(x, y);
+        }
+        int[] expected = expectedRuns(pixels);
+        int[] runs = new int[pixels.length + 1];
+        assertRuns(expected, runs, matrix.getColumnRuns(x, runs), describe(matrix) + " column " + x);
+        int[] fewRuns = new int[3];
+        assertRuns(expected, fewRuns, matrix.getColumnRuns(x, fewRuns), describe(matrix) + " column " + x);
+      }
+    }
+  }
+
+  @Test
+  public void testGetColumn() {
+    for (BitMatrix matrix : matrices()) {
+      int height = matrix.getHeight();
+      // A column that is too big and already has bits set is cleared first
+      BitArray reused = new BitArray(height + 40);
+      reused.setRange(0, height + 40);
+      for (int x = 0; x < matrix.getWidth(); x++) {
+        BitArray column = matrix.getColumn(x, null);
+        Assertions.assertEquals(height, column.getSize());
+        reused = matrix.getColumn(x, reused);
+        for (int y = 0; y < height; y++) {
+          Assertions.assertEquals(matrix.get(x, y), column.get(y), describe(matrix) + " at " + x + ',' + y);
+          Assertions.assertEquals(matrix.get(x, y), reused.get(y), describe(matrix) + " at " + x + ',' + y);
+        }
+        for (int y = height; y < reused.getSize(); y++) {
+          Assertions.assertFalse(reused.get(y));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testTranspose() {
+    for (BitMatrix matrix : matrices()) {
+      BitMatrix transposed = matrix.transpose();
+      Assertions.assertEquals(matrix.getHeight(), transposed.getWidth());
+      Assertions.assertEquals(matrix.getWidth(), transposed.getHeight());
+      for (int y = 0; y < matrix.getHeight(); y++) {
+        for (int x = 0; x < matrix.getWidth(); x++) {
+          Assertions.assertEquals(matrix.get(x, y), transposed.get(y, x), describe(matrix) + " at " + x + ',' + y);
+        }
+      }
+      // Also checks that the bits past the end of each row are left clear
+      Assertions.assertEquals(matrix, transposed.transpose());
+    }
+  }
+
+  @Test
+  public void testRotate() {
+    for (BitMatrix matrix : matrices()) {
+      int width = matrix.getWidth();
+      int height = matrix.getHeight();
+      BitMatrix expected = new BitMatrix(height, width);
+      for (int y = 0; y < height; y++) {
+        for (int x = 0; x < width; x++) {
+          if (matrix.get(x, y)) {
+            expected.set(y, width - 1 - x);
+          }
+        }
+      }
+      BitMatrix rotated = matrix.clone();
+      rotated.rotate90();
+      Assertions.assertEquals(expected, rotated, describe(matrix));
+      rotated.rotate(270);
+      Assertions.assertEquals(matrix, rotated, describe(matrix));
+    }
+  }
+
+  @Test
+  public void testGetRegion() {
+    for (BitMatrix matrix : matrices()) {
+      int width = matrix.getWidth();
+      int height = matrix.getHeight();
+      for (int left = 0; left < width; left += 3) {
+        for (int regionWidth = 1; left + regionWidth <= width; regionWidth += 5) {
+          int top = height / 3;
+          int regionHeight = height - top;
+          BitMatrix expected = new BitMatrix(regionWidth, regionHeight);
+          for (int y = 0; y < regionHeight; y++) {
+            for (int x = 0; x < regionWidth; x++) {
+              if (matrix.get(left + x, top + y)) {
+                expected.set(x, y);
+              }
+            }
+          }
+          Assertions.assertEquals(expected, matrix.getRegion(left, top, regionWidth, regionHeight),
+              describe(matrix) + " region " + left + '+' + regionWidth);
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+/**
+ * Per-thread scratch space that binarizers, readers and detectors borrow working storage from,
+ * instead of allocating it again for every image. A thread decoding a stream of frames of the same
+ * size then reuses the same row, black point buffer and rotation matrix for each of them.
+ *
+ * Each kind of storage is lent to one borrower at a time. Whatever is borrowed must be released
+ * before the call that borrowed it returns, and must not be kept or handed out afterwards. If the
+ * storage is already lent out, for example because a fork-join worker picked up another task while
+ * waiting, the borrower gets freshly allocated storage instead, so nesting is always safe.
+ *
+ * Buffers and matrices larger than {@link #MAX_RETAINED_INTS} ints are allocated for the borrower
+ * and dropped afterwards, so one very large image doesn't leave every thread that decoded it
+ * holding that much memory for good.
+ *
+ * The context is held in a thread local, so a thread that outlives the class loader that loaded
+ * this class, such as a container's pooled thread running a web application that is then
+ * undeployed, keeps that class loader reachable. Such threads should call {@link #remove()} when
+ * they are done decoding.
+ *
+ * @see #current()
+ */
+public final class DecodeContext {
+
+  /**
+   * Most ints kept between borrowers for each of the int buffer and the matrix, 4 MB each. That is
+   * enough for the black points of an image of 64 megapixels, or a matrix of 32 megapixels.
+   */
+  static final int MAX_RETAINED_INTS = 1 << 20;
+
+  private static final ThreadLocal<DecodeContext> CURRENT = ThreadLocal.withInitial(DecodeContext::new);
+
+  private BitArray row;
+  private boolean rowLent;
+  private int[] ints = new int[0];
+  private boolean intsLent;
+  private BitMatrix matrix;
+  private boolean matrixLent;
+
+  private DecodeContext() {
+  }
+
+  /**
+   * @return the calling thread's context
+   */
+  public static DecodeContext current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Drops the calling thread's context, and with it everything it holds. The next call to
+   * {@link #current()} on this thread creates a new one.
+   */
+  public static void remove() {
+    CURRENT.remove();
+  }
+
+  /**
+   * @param size number of bits
+   * @return a cleared row of exactly size bits
+   */
+  public BitArray borrowRow(int size) {
+    if (rowLent) {
+      return new BitArray(size);
+    }
+    rowLent = true;
+    if (row == null || row.getSize() != size) {
+      row = new BitArray(size);
+    } else {
+      row.clear();
+    }
+    return row;
+  }
+
+  /**
+   * @param row row from {@link #borrowRow(int)}, not to be used afterwards
+   */
+  public void release(BitArray row) {
+    if (row == this.row) {
+      rowLent = false;
+    }
+  }
+
+  /**
+   * @param minLength smallest length needed
+   * @return an array of at least minLength ints, holding whatever the last borrower left in it
+   */
+  public int[] borrowInts(int minLength) {
+    if (intsLent || minLength > MAX_RETAINED_INTS) {
+      return new int[minLength];
+    }
+    intsLent = true;
+    if (ints.length < minLength) {
+      ints = new int[minLength];
+    }
+    return ints;
+  }
+
+  /**
+   * @param ints array from {@link #borrowInts(int)}, not to be used afterwards
+   */
+  public void release(int[] ints) {
+    if (ints == this.ints) {
+      intsLent = false;
+    }
+  }
+
+  /**
+   * @param source matrix to copy
+   * @return a copy of source, which may be changed freely, for example by rotating it
+   */
+  public BitMatrix borrowCopy(BitMatrix source) {
+    if (matrixLent || (long) source.getRowSize() * source.getHeight() > MAX_RETAINED_INTS) {
+      return source.clone();
+    }
+    matrixLent = true;
+    if (matrix == null) {
+      matrix = source.clone();
+    } else {
+      matrix.copyFrom(source);
+    }
+    return matrix;
+  }
+
+  /**
+   * @param matrix matrix from {@link #borrowCopy(BitMatrix)}, not to be used afterwards
+   */
+  public void release(BitMatrix matrix) {
+    if (matrix == this.matrix) {
+      matrixLent = false;
+    }
+  }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link DecodeContext}.
+ */
+class DecodeContextTest {
+
+  @Test
+  public void testNestedInts() {
+    DecodeContext context = DecodeContext.current();
+    int[] outer = context.borrowInts(100);
+    int[] inner = context.borrowInts(50);
+    Assertions.assertNotSame(outer, inner);
+    Assertions.assertTrue(outer.length >= 100);
+    Assertions.assertEquals(50, inner.length);
+    // Releasing the nested one doesn't free the outer one
+    context.release(inner);
+    Assertions.assertNotSame(outer, context.borrowInts(10));
+    context.release(outer);
+    // Once released, the same array is lent again, and grown if needed
+    int[] again = context.borrowInts(100);
+    Assertions.assertSame(outer, again);
+    context.release(again);
+    int[] grown = context.borrowInts(outer.length + 1);
+    Assertions.assertEquals(outer.length + 1, grown.length);
+    context.release(grown);
+    Assertions.assertSame(grown, context.borrowInts(1));
+    context.release(grown);
+  }
+
+  @Test
+  public void testLargeIntsNotRetained() {
+    DecodeContext context = DecodeContext.current();
+    int[] small = context.borrowInts(1000);
+    context.release(small);
+    int[] large = context.borrowInts(DecodeContext.MAX_RETAINED_INTS + 1);
+    Assertions.assertEquals(DecodeContext.MAX_RETAINED_INTS + 1, large.length);
+    context.release(large);
+    // Still the small one, and not lent out while the large one was
+    int[] next = context.borrowInts(1000);
+    Assertions.assertSame(small, next);
+    Assertions.assertNotSame(large, context.borrowInts(DecodeContext.MAX_RETAINED_INTS + 1));
+    context.release(next);
+  }
+
+  @Test
+  public void testRows() {
+    DecodeContext context = DecodeContext.current();
+    BitArray outer = context.borrowRow(40);
+    outer.set(3);
+    BitArray inner = context.borrowRow(40);
+    Assertions.assertNotSame(outer, inner);
+    context.release(inner);
+    context.release(outer);
+    // Lent again cleared
+    BitArray again = context.borrowRow(40);
+    Assertions.assertSame(outer, again);
+    Assertions.assertFalse(again.get(3));
+    context.release(again);
+    BitArray resized = context.borrowRow(41);
+    Assertions.assertEquals(41, resized.getSize());
+    context.release(resized);
+  }
+
+  private static BitMatrix pattern(int width, int height) {
+    BitMatrix matrix = new BitMatrix(width, height);
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        if ((x * 7 + y * 3) % 5 == 0) {
+          matrix.set(x, y);
+        }
+      }
+    }
+    return matrix;
+  }
+
+  @Test
+  public void testNestedCopies() {
+    DecodeContext context = DecodeContext.current();
+    BitMatrix source = pattern(70, 45);
+    BitMatrix outer = context.borrowCopy(source);
+    BitMatrix inner = context.borrowCopy(source);
+    Assertions.assertNotSame(outer, inner);
+    Assertions.assertEquals(source, outer);
+    Assertions.assertEquals(source, inner);
+    // Changing a copy leaves the source alone
+    outer.rotate(90);
+    Assertions.assertEquals(pattern(70, 45), source);
+    context.release(inner);
+    context.release(outer);
+    BitMatrix other = pattern(33, 80);
+    BitMatrix again = context.borrowCopy(other);
+    Assertions.assertSame(outer, again);
+    Assertions.assertEquals(other, again);
+    context.release(again);
+  }
+
+  @Test
+  public void testLargeCopiesNotRetained() {
+    DecodeContext context = DecodeContext.current();
+    BitMatrix small = context.borrowCopy(pattern(10, 10));
+    context.release(small);
+    // One int more than is kept
+    BitMatrix source = new BitMatrix(32, DecodeContext.MAX_RETAINED_INTS + 1);
+    source.set(5, DecodeContext.MAX_RETAINED_INTS);
+    BitMatrix large = context.borrowCopy(source);
+    Assertions.assertEquals(source, large);
+    context.release(large);
+    BitMatrix next = context.borrowCopy(pattern(10, 10));
+    Assertions.assertSame(small, next);
+    context.release(next);
+  }
+
+  @Test
+  public void testRemove() {
+    DecodeContext context = DecodeContext.current();
+    Assertions.assertSame(context, DecodeContext.current());
+    DecodeContext.remove();
+    Assertions.assertNotSame(context, DecodeContext.current());
+  }
+
+  @Test
+  public void testIncrementalRotation() {
+    // Turning one copy further each time, as the PDF417 detector does, gives the same matrix as
+    // rotating a fresh copy of the original through each angle
+    DecodeContext context = DecodeContext.current();
+    for (BitMatrix original : new BitMatrix[] {pattern(70, 45), pattern(45, 70), pattern(64, 64)}) {
+      BitMatrix rotated = context.borrowCopy(original);
+      try {
+        int degrees = 0;
+        for (int rotation : new int[] {180, 270, 90}) {
+          rotated.rotate((rotation - degrees + 360) % 360);
+          degrees = rotation;
+          BitMatrix expected = original.clone();
+          expected.rotate(rotation);
+          Assertions.assertEquals(expected, rotated);
+        }
+      } finally {
+        context.release(rotated);
+      }
+    }
+  }
+
+}
@@ -66,21 +66,23 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
     LuminanceSource source = getLuminanceSource();
     int width = source.getWidth();
     int height = source.getHeight();
-    if (width >= MINIMUM_DIMENSION && height >= MINIMUM_DIMENSION) {
+    if (isLargeEnough(width, height)) {
       byte[] luminances = source.getMatrix();
-      int subWidth = width >> BLOCK_SIZE_POWER;
-      if ((width & BLOCK_SIZE_MASK) != 0) {
-        subWidth++;
-      }
-      int subHeight = height >> BLOCK_SIZE_POWER;
-      if ((height & BLOCK_SIZE_MASK) != 0) {
-        subHeight++;
-      }
-      int[][] blackPoints = calculateBlackPoints(luminances, subWidth, subHeight, width, height);
+      int subWidth = subDimension(width);
+      int subHeight = subDimension(height);
+      DecodeContext context = DecodeContext.current();
+      int[] blackPoints = context.borrowInts(subWidth * subHeight);
+      try {
+        calculateBlockStatistics(luminances, subWidth, 0, subHeight, width, height, blackPoints);
+        calculateBlackPoints(subWidth, subHeight, blackPoints);
 
-      BitMatrix newMatrix = new BitMatrix(width, height);
-      calculateThresholdForBlock(luminances, subWidth, subHeight, width, height, blackPoints, newMatrix);
-      matrix = newMatrix;
+        BitMatrix newMatrix = new BitMatrix(width, height);
+        calculateThresholdForBlock(luminances, subWidth, subHeight, 0, subHeight, width, height, blackPoints,
+            newMatrix);
+        matrix = newMatrix;
+      } finally {
+        context.release(blackPoints);
+      }
     } else {
       // If the image is too small, fall back to the global histogram approach.
       matrix = super.getBlackMatrix();
@@ -94,20 +96,44 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
   }
 
   /**
-   * For each block in the image, calculate the average black point using a 5x5 grid
+   * @return true if the image is large enough for local thresholding, rather than falling back to
+   *  the global histogram approach
+   */
+  static boolean isLargeEnough(int width, int height) {
+    return width >= MINIMUM_DIMENSION && height >= MINIMUM_DIMENSION;
+  }
+
+  /**
+   * @return the number of blocks needed to cover the given number of pixels
+   */
+  static int subDimension(int dimension) {
+    int subDimension = dimension >> BLOCK_SIZE_POWER;
+    if ((dimension & BLOCK_SIZE_MASK) != 0) {
+      subDimension++;
+    }
+    return subDimension;
+  }
+
+  /**
+   * For each block in the rows [fromY, toY), calculate the average black point using a 5x5 grid
    * of the blocks around it. Also handles the corner cases (fractional blocks are computed based
    * on the last pixels in the row/column which are also used in the previous block).
+   *
+   * When the image height isn't a multiple of the block size the last row of blocks overlaps the
+   * one before it, so callers splitting the work must keep those two rows together.
    */
-  private static void calculateThresholdForBlock(byte[] luminances,
-                                                 int subWidth,
-                                                 int subHeight,
-                                                 int width,
-                                                 int height,
-                                                 int[][] blackPoints,
-                                                 BitMatrix matrix) {
+  static void calculateThresholdForBlock(byte[] luminances,
+                                         int subWidth,
+                                         int subHeight,
+                                         int fromY,
+                                         int toY,
+                                         int width,
+                                         int height,
+                                         int[] blackPoints,
+                                         BitMatrix matrix) {
     int maxYOffset = height - BLOCK_SIZE;
     int maxXOffset = width - BLOCK_SIZE;
-    for (int y = 0; y < subHeight; y++) {
+    for (int y = fromY; y < toY; y++) {
       int yoffset = y << BLOCK_SIZE_POWER;
       if (yoffset > maxYOffset) {
         yoffset = maxYOffset;
@@ -121,8 +147,9 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
         int left = cap(x, subWidth - 3);
         int sum = 0;
         for (int z = -2; z <= 2; z++) {
-          int[] blackRow = blackPoints[top + z];
-          sum += blackRow[left - 2] + blackRow[left - 1] + blackRow[left] + blackRow[left + 1] + blackRow[left + 2];
+          int blackRow = (top + z) * subWidth + left;
+          sum += blackPoints[blackRow - 2] + blackPoints[blackRow - 1] + blackPoints[blackRow] +
+              blackPoints[blackRow + 1] + blackPoints[blackRow + 2];
         }
         int average = sum / 25;
         thresholdBlock(luminances, xoffset, yoffset, average, width, matrix);
@@ -144,29 +171,28 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
                                      int stride,
                                      BitMatrix matrix) {
     for (int y = 0, offset = yoffset * stride + xoffset; y < BLOCK_SIZE; y++, offset += stride) {
-      for (int x = 0; x < BLOCK_SIZE; x++) {
-        // Comparison needs to be <= so that black == 0 pixels are black even if the threshold is 0.
-        if ((luminances[offset + x] & 0xFF) <= threshold) {
-          matrix.set(xoffset + x, yoffset + y);
-        }
-      }
+      // Comparison needs to be <= so that black == 0 pixels are black even if the threshold is 0.
+      BinarizerKernels.thresholdSpan(
+          luminances, offset, BLOCK_SIZE, threshold + 1, matrix, xoffset, yoffset + y);
     }
   }
 
   /**
-   * Calculates a single black point for each block of pixels and saves it away.
-   * See the following thread for a discussion of this algorithm:
-   *  http://groups.google.com/group/zxing/browse_thread/thread/d06efa2c35a7ddc0
+   * Calculates the average of each block of pixels in the rows [fromY, toY) and saves it away, or
+   * if the block has too little contrast for its average to mean anything, saves -1 - min instead
+   * for {@link #calculateBlackPoints(int, int, int[])} to fill in from its neighbors. Blocks are
+   * independent of each other here, so rows of blocks can be calculated in any order.
    */
-  private static int[][] calculateBlackPoints(byte[] luminances,
-                                              int subWidth,
-                                              int subHeight,
-                                              int width,
-                                              int height) {
+  static void calculateBlockStatistics(byte[] luminances,
+                                       int subWidth,
+                                       int fromY,
+                                       int toY,
+                                       int width,
+                                       int height,
+                                       int[] blackPoints) {
     int maxYOffset = height - BLOCK_SIZE;
     int maxXOffset = width - BLOCK_SIZE;
-    int[][] blackPoints = new int[subHeight][subWidth];
-    for (int y = 0; y < subHeight; y++) {
+    for (int y = fromY; y < toY; y++) {
       int yoffset = y << BLOCK_SIZE_POWER;
       if (yoffset > maxYOffset) {
         yoffset = maxYOffset;
@@ -203,35 +229,54 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
         }
 
         // The default estimate is the average of the values in the block.
-        int average = sum >> (BLOCK_SIZE_POWER * 2);
-        if (max - min <= MIN_DYNAMIC_RANGE) {
-          // If variation within the block is low, assume this is a block with only light or only
-          // dark pixels. In that case we do not want to use the average, as it would divide this
-          // low contrast area into black and white pixels, essentially creating data out of noise.
-          //
-          // The default assumption is that the block is light/background. Since no estimate for
-          // the level of dark pixels exists locally, use half the min for the block.
-          average = min / 2;
-
-          if (y > 0 && x > 0) {
-            // Correct the "white background" assumption for blocks that have neighbors by comparing
-            // the pixels in this block to the previously calculated black points. This is based on
-            // the fact that dark barcode symbology is always surrounded by some amount of light
-            // background for which reasonable black point estimates were made. The bp estimated at
-            // the boundaries is used for the interior.
-
-            // The (min < bp) is arbitrary but works better than other heuristics that were tried.
-            int averageNeighborBlackPoint =
-                (blackPoints[y - 1][x] + (2 * blackPoints[y][x - 1]) + blackPoints[y - 1][x - 1]) / 4;
-            if (min < averageNeighborBlackPoint) {
-              average = averageNeighborBlackPoint;
-            }
+        blackPoints[y * subWidth + x] =
+            max - min > MIN_DYNAMIC_RANGE ? sum >> (BLOCK_SIZE_POWER * 2) : -1 - min;
+      }
+    }
+  }
+
+  /**
+   * Calculates a single black point for each block of pixels, from the statistics saved by
+   * {@link #calculateBlockStatistics(byte[], int, int, int, int, int, int[])}. Low contrast blocks
+   * depend on the black points above and to the left of them, so this must run over the whole
+   * image in order, but it only looks at one value per block.
+   * See the following thread for a discussion of this algorithm:
+   *  http://groups.google.com/group/zxing/browse_thread/thread/d06efa2c35a7ddc0
+   */
+  static void calculateBlackPoints(int subWidth, int subHeight, int[] blackPoints) {
+    for (int y = 0; y < subHeight; y++) {
+      for (int x = 0; x < subWidth; x++) {
+        int index = y * subWidth + x;
+        if (blackPoints[index] >= 0) {
+          continue;
+        }
+        int min = -1 - blackPoints[index];
+        // If variation within the block is low, assume this is a block with only light or only
+        // dark pixels. In that case we do not want to use the average, as it would divide this
+        // low contrast area into black and white pixels, essentially creating data out of noise.
+        //
+        // The default assumption is that the block is light/background. Since no estimate for
+        // the level of dark pixels exists locally, use half the min for the block.
+        int average = min / 2;
+
+        if (y > 0 && x > 0) {
+          // Correct the "white background" assumption for blocks that have neighbors by comparing
+          // the pixels in this block to the previously calculated black points. This is based on
+          // the fact that dark barcode symbology is always surrounded by some amount of light
+          // background for which reasonable black point estimates were made. The bp estimated at
+          // the boundaries is used for the interior.
+
+          // The (min < bp) is arbitrary but works better than other heuristics that were tried.
+          int above = index - subWidth;
+          int averageNeighborBlackPoint =
+              (blackPoints[above] + (2 * blackPoints[index - 1]) + blackPoints[above - 1]) / 4;
+          if (min < averageNeighborBlackPoint) {
+            average = averageNeighborBlackPoint;
           }
         }
-        blackPoints[y][x] = average;
+        blackPoints[index] = average;
       }
     }
-    return blackPoints;
   }
 
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import com.google.zxing.Binarizer;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * A {@link HybridBinarizer} that splits the image into horizontal bands and works on them in
+ * parallel on a {@link ForkJoinPool}. It produces exactly the same BitMatrix as HybridBinarizer,
+ * and is meant for large images such as document scans, where binarizing dominates decoding time.
+ *
+ * The block statistics and the thresholding are done a band at a time in parallel. In between,
+ * the black points of low contrast blocks are filled in from their neighbors on the calling
+ * thread, since each depends on the one before it; that step only looks at one value per 8x8 block.
+ * The black point buffer is borrowed from the calling thread's {@link DecodeContext}, so a thread
+ * decoding a stream of scans doesn't allocate a new one each time.
+ *
+ * Like HybridBinarizer, this uses the global histogram approach for 1D readers.
+ */
+public final class ParallelHybridBinarizer extends GlobalHistogramBinarizer {
+
+  // Bands smaller than this aren't worth the cost of a task
+  private static final int MIN_BAND_BLOCK_ROWS = 8;
+
+  private final ForkJoinPool pool;
+  private BitMatrix matrix;
+
+  public ParallelHybridBinarizer(LuminanceSource source) {
+    this(source, ForkJoinPool.commonPool());
+  }
+
+  public ParallelHybridBinarizer(LuminanceSource source, ForkJoinPool pool) {
+    super(source);
+    this.pool = pool;
+  }
+
+  @Override
+  public BitMatrix getBlackMatrix() throws NotFoundException {
+    if (matrix != null) {
+      return matrix;
+    }
+    LuminanceSource source = getLuminanceSource();
+    int width = source.getWidth();
+    int height = source.getHeight();
+    if (HybridBinarizer.isLargeEnough(width, height)) {
+      byte[] luminances = source.getMatrix();
+      int subWidth = HybridBinarizer.subDimension(width);
+      int subHeight = HybridBinarizer.subDimension(height);
+      DecodeContext context = DecodeContext.current();
+      int[] blackPoints = context.borrowInts(subWidth * subHeight);
+      try {
+        int[] bands = splitIntoBands(subHeight);
+
+        forEachBand(bands, (fromY, toY) -> HybridBinarizer.calculateBlockStatistics(
+            luminances, subWidth, fromY, toY, width, height, blackPoints));
+        HybridBinarizer.calculateBlackPoints(subWidth, subHeight, blackPoints);
+
+        BitMatrix newMatrix = new BitMatrix(width, height);
+        forEachBand(bands, (fromY, toY) -> HybridBinarizer.calculateThresholdForBlock(
+            luminances, subWidth, subHeight, fromY, toY, width, height, blackPoints, newMatrix));
+        matrix = newMatrix;
+      } finally {
+        context.release(blackPoints);
+      }
+    } else {
+      // If the image is too small, fall back to the global histogram approach.
+      matrix = super.getBlackMatrix();
+    }
+    return matrix;
+  }
+
+  @Override
+  public Binarizer createBinarizer(LuminanceSource source) {
+    return new ParallelHybridBinarizer(source, pool);
+  }
+
+  /**
+   * @return the first row of blocks of each band, followed by subHeight. Each band owns whole
+   *  rows of the BitMatrix, so bands can be thresholded at the same time without locking.
+   */
+  private int[] splitIntoBands(int subHeight) {
+    int bandCount = Math.max(1, Math.min(pool.getParallelism() * 2, subHeight / MIN_BAND_BLOCK_ROWS));
+    int bandRows = (subHeight + bandCount - 1) / bandCount;
+    bandCount = (subHeight + bandRows - 1) / bandRows;
+    int[] bands = new int[bandCount + 1];
+    for (int i = 0; i < bandCount; i++) {
+      bands[i] = i * bandRows;
+    }
+    bands[bandCount] = subHeight;
+    // If the height isn't a multiple of the block size, the last row of blocks is moved up to
+    // overlap the one before it, so those two rows must never end up in different bands
+    if (bandCount > 1 && bands[bandCount - 1] == subHeight - 1) {
+      bands[bandCount - 1]--;
+    }
+    return bands;
+  }
+
+  private interface Band {
+    void process(int fromY, int toY);
+  }
+
+  private void forEachBand(int[] bands, Band band) {
+    int bandCount = bands.length - 1;
+    if (bandCount == 1) {
+      band.process(bands[0], bands[1]);
+      return;
+    }
+    List<ForkJoinTask<?>> tasks = new ArrayList<>(bandCount - 1);
+    for (int i = 1; i < bandCount; i++) {
+      int fromY = bands[i];
+      int toY = bands[i + 1];
+      tasks.add(pool.submit(() -> band.process(fromY, toY)));
+    }
+    // Work on the first band here rather than just waiting
+    band.process(bands[0], bands[1]);
+    for (ForkJoinTask<?> task : tasks) {
+      task.join();
+    }
+  }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests that {@link ParallelHybridBinarizer} produces the same matrix as {@link HybridBinarizer}.
+ */
+class ParallelHybridBinarizerTest {
+
+  /**
+   * Random light and dark pixels, with some flat patches of low contrast blocks whose black points
+   * are filled in from their neighbors.
+   */
+  private static LuminanceSource image(int width, int height, long seed) {
+    Random random = new Random(seed);
+    byte[] luminances = new byte[width * height];
+    for (int i = 0; i < luminances.length; i++) {
+      luminances[i] = (byte) (random.nextBoolean() ? 30 + random.nextInt(40) : 180 + random.nextInt(60));
+    }
+    for (int patch = 0; patch < 4; patch++) {
+      int left = random.nextInt(width);
+      int top = random.nextInt(height);
+      int base = 100 + random.nextInt(50);
+      for (int y = top; y < Math.min(height, top + 40); y++) {
+        for (int x = left; x < Math.min(width, left + 40); x++) {
+          luminances[y * width + x] = (byte) (base + random.nextInt(8));
+        }
+      }
+    }
+    return new PlanarYUVLuminanceSource(luminances, width, height, 0, 0, width, height, false);
+  }
+
+  private static void assertSameMatrix(LuminanceSource source, ForkJoinPool pool) throws NotFoundException {
+    BitMatrix expected = new HybridBinarizer(source).getBlackMatrix();
+    BitMatrix actual = new ParallelHybridBinarizer(source, pool).getBlackMatrix();
+    Assertions.assertEquals(expected, actual,
+        source.getWidth() + "x" + source.getHeight() + " on " + pool.getParallelism() + " threads");
+  }
+
+  @Test
+  public void testBandBoundaries() throws NotFoundException {
+    for (int parallelism = 2; parallelism <= 4; parallelism++) {
+      ForkJoinPool pool = new ForkJoinPool(parallelism);
+      try {
+        // Every height up to 75 rows of blocks, so every way of splitting them into bands comes up,
+        // including heights that aren't a multiple of the block size
+        for (int height = 40; height <= 600; height++) {
+          assertSameMatrix(image(45, height, height), pool);
+        }
+        assertSameMatrix(image(1003, 517, 1), pool);
+      } finally {
+        pool.shutdown();
+      }
+    }
+  }
+
+  @Test
+  public void testSmallImages() throws NotFoundException {
+    // Too small for the block approach, so both fall back to the global histogram
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      assertSameMatrix(image(39, 200, 2), pool);
+      assertSameMatrix(image(200, 39, 3), pool);
+      assertSameMatrix(image(20, 20, 4), pool);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testMatrixIsCached() throws NotFoundException {
+    ParallelHybridBinarizer binarizer = new ParallelHybridBinarizer(image(300, 300, 5), ForkJoinPool.commonPool());
+    Assertions.assertSame(binarizer.getBlackMatrix(), binarizer.getBlackMatrix());
+  }
+
+}
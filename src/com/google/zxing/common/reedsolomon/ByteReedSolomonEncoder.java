@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common.reedsolomon;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>Implements Reed-Solomon encoding over GF(256), for symbologies whose codewords are bytes,
+ * such as QR Code and Data Matrix.</p>
+ *
+ * <p>Unlike {@link ReedSolomonEncoder} this works directly on {@code byte[]} and allocates nothing
+ * once the generator polynomial for a number of error correction bytes has been built. The data
+ * is divided by the generator the way a linear feedback shift register would, with the error
+ * correction bytes themselves serving as the register, and the generator is kept as the logs of
+ * its coefficients so that each step is one table lookup rather than a multiplication.</p>
+ *
+ * <p>Instances are safe to use from several threads at once.</p>
+ */
+public final class ByteReedSolomonEncoder {
+
+  // Stands for the log of 0. Large enough that adding any real log to it stays in the zeros at
+  // the end of the exp table
+  private static final int LOG_ZERO = 2 * 255;
+
+  private final GenericGF field;
+  // Powers of the primitive element, repeated so that the sum of two logs needs no modulo,
+  // followed by zeros for sums involving LOG_ZERO
+  private final int[] expTable;
+  private final int[] logTable;
+  // Index d holds the logs of the coefficients of the generator of degree d, highest first,
+  // leaving out the leading 1
+  private final AtomicReferenceArray<int[]> generators;
+
+  /**
+   * @param field field of size 256 to encode over
+   */
+  public ByteReedSolomonEncoder(GenericGF field) {
+    if (field.getSize() != 256) {
+      throw new IllegalArgumentException("Only fields of size 256 are supported: " + field);
+    }
+    this.field = field;
+    expTable = new int[2 * LOG_ZERO];
+    for (int i = 0; i < LOG_ZERO; i++) {
+      expTable[i] = field.exp(i % 255);
+    }
+    logTable = new int[256];
+    logTable[0] = LOG_ZERO;
+    for (int i = 1; i < 256; i++) {
+      logTable[i] = field.log(i);
+    }
+    generators = new AtomicReferenceArray<>(256);
+  }
+
+  private int[] getGenerator(int degree) {
+    int[] generator = generators.get(degree);
+    if (generator == null) {
+      // g(x) = (x + a^b)(x + a^(b+1)) ... (x + a^(b+degree-1)), built up one factor at a time
+      int[] coefficients = new int[degree + 1];
+      coefficients[0] = 1;
+      for (int d = 0; d < degree; d++) {
+        int root = field.exp(d + field.getGeneratorBase());
+        for (int i = d + 1; i > 0; i--) {
+          coefficients[i] ^= field.multiply(coefficients[i - 1], root);
+        }
+      }
+      generator = new int[degree];
+      for (int i = 0; i < degree; i++) {
+        generator[i] = logTable[coefficients[i + 1]];
+      }
+      // Another thread may have built the same generator meanwhile; either copy will do
+      generators.compareAndSet(degree, null, generator);
+    }
+    return generator;
+  }
+
+  /**
+   * Computes the error correction bytes for a block of data bytes.
+   *
+   * @param data array holding the data bytes
+   * @param dataOffset index of the first data byte
+   * @param dataLength number of data bytes
+   * @param ecBytes array to write the error correction bytes to
+   * @param ecOffset index to write the first error correction byte at
+   * @param numEcBytes number of error correction bytes to compute
+   */
+  public void encode(byte[] data, int dataOffset, int dataLength,
+                     byte[] ecBytes, int ecOffset, int numEcBytes) {
+    if (numEcBytes <= 0 || numEcBytes > 255) {
+      throw new IllegalArgumentException("Number of error correction bytes must be in [1,255]: " + numEcBytes);
+    }
+    if (dataLength <= 0) {
+      throw new IllegalArgumentException("No data bytes provided");
+    }
+    int[] generator = getGenerator(numEcBytes);
+    int[] expTable = this.expTable;
+    int[] logTable = this.logTable;
+    int last = ecOffset + numEcBytes - 1;
+    for (int i = ecOffset; i <= last; i++) {
+      ecBytes[i] = 0;
+    }
+    for (int i = dataOffset, end = dataOffset + dataLength; i < end; i++) {
+      int feedback = (data[i] ^ ecBytes[ecOffset]) & 0xFF;
+      if (feedback == 0) {
+        System.arraycopy(ecBytes, ecOffset + 1, ecBytes, ecOffset, numEcBytes - 1);
+        ecBytes[last] = 0;
+      } else {
+        int logFeedback = logTable[feedback];
+        for (int j = ecOffset, k = 0; j < last; j++, k++) {
+          ecBytes[j] = (byte) (ecBytes[j + 1] ^ expTable[logFeedback + generator[k]]);
+        }
+        ecBytes[last] = (byte) expTable[logFeedback + generator[numEcBytes - 1]];
+      }
+    }
+  }
+
+}
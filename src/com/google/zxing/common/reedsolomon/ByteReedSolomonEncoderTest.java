@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common.reedsolomon;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tests {@link ByteReedSolomonEncoder} against {@link ReedSolomonEncoder} on both fields of size
+ * 256, with generator bases 0 (QR Code) and 1 (Data Matrix).
+ */
+class ByteReedSolomonEncoderTest {
+
+  private static final int TRIALS = 300;
+  // Bytes around the data and error correction bytes, which must be left alone
+  private static final byte GUARD = (byte) 0xA5;
+
+  @Test
+  public void testQRCodeField() {
+    checkField(GenericGF.QR_CODE_FIELD_256);
+  }
+
+  @Test
+  public void testDataMatrixField() {
+    checkField(GenericGF.DATA_MATRIX_FIELD_256);
+  }
+
+  /**
+   * @return the error correction bytes {@link ReedSolomonEncoder} computes for the data
+   */
+  private static byte[] expected(GenericGF field, byte[] data, int numEcBytes) {
+    int[] toEncode = new int[data.length + numEcBytes];
+    for (int i = 0; i < data.length; i++) {
+      toEncode[i] = data[i] & 0xFF;
+    }
+    new ReedSolomonEncoder(field).encode(toEncode, numEcBytes);
+    byte[] ecBytes = new byte[numEcBytes];
+    for (int i = 0; i < numEcBytes; i++) {
+      ecBytes[i] = (byte) toEncode[data.length + i];
+    }
+    return ecBytes;
+  }
+
+  private static void checkField(GenericGF field) {
+    ByteReedSolomonEncoder encoder = new ByteReedSolomonEncoder(field);
+    Random random = new Random(0xCAFE);
+    for (int trial = 0; trial < TRIALS; trial++) {
+      int numEcBytes = 1 + random.nextInt(trial % 10 == 0 ? 255 : 68);
+      int dataLength = 1 + random.nextInt(Math.max(1, 255 - numEcBytes));
+      byte[] data = new byte[dataLength];
+      random.nextBytes(data);
+      if (trial % 7 == 0) {
+        // Leading and trailing zeros, and zero runs, take the shortcut for a zero feedback
+        data[0] = 0;
+        data[dataLength - 1] = 0;
+        for (int i = dataLength / 3; i < dataLength / 2; i++) {
+          data[i] = 0;
+        }
+      }
+      byte[] expected = expected(field, data, numEcBytes);
+      String message = "trial " + trial + ": " + dataLength + " data, " + numEcBytes + " error correction bytes";
+
+      // The data and error correction bytes somewhere inside larger arrays
+      int dataOffset = random.nextInt(5);
+      byte[] dataArray = new byte[dataOffset + dataLength + 3];
+      Arrays.fill(dataArray, GUARD);
+      System.arraycopy(data, 0, dataArray, dataOffset, dataLength);
+      byte[] dataCopy = dataArray.clone();
+      int ecOffset = random.nextInt(5);
+      byte[] ecArray = new byte[ecOffset + numEcBytes + 3];
+      Arrays.fill(ecArray, GUARD);
+      encoder.encode(dataArray, dataOffset, dataLength, ecArray, ecOffset, numEcBytes);
+      for (int i = 0; i < ecArray.length; i++) {
+        byte expectedByte = i < ecOffset || i >= ecOffset + numEcBytes ? GUARD : expected[i - ecOffset];
+        Assertions.assertEquals(expectedByte, ecArray[i], message + " at " + i);
+      }
+      Assertions.assertArrayEquals(dataCopy, dataArray);
+
+      // In the same array right after the data, as the QR Code encoder lays out a block, and over
+      // whatever was there
+      byte[] block = new byte[dataLength + numEcBytes];
+      System.arraycopy(data, 0, block, 0, dataLength);
+      for (int i = dataLength; i < block.length; i++) {
+        block[i] = (byte) random.nextInt(256);
+      }
+      encoder.encode(block, 0, dataLength, block, dataLength, numEcBytes);
+      for (int i = 0; i < numEcBytes; i++) {
+        Assertions.assertEquals(expected[i], block[dataLength + i], message + " in block at " + i);
+      }
+    }
+  }
+
+  @Test
+  public void testDecodes() throws ReedSolomonException {
+    // The decoder corrects a block encoded here back to the original data
+    GenericGF field = GenericGF.QR_CODE_FIELD_256;
+    Random random = new Random(5);
+    byte[] data = new byte[60];
+    random.nextBytes(data);
+    byte[] ecBytes = new byte[20];
+    new ByteReedSolomonEncoder(field).encode(data, 0, data.length, ecBytes, 0, ecBytes.length);
+    int[] received = new int[data.length + ecBytes.length];
+    for (int i = 0; i < data.length; i++) {
+      received[i] = data[i] & 0xFF;
+    }
+    for (int i = 0; i < ecBytes.length; i++) {
+      received[data.length + i] = ecBytes[i] & 0xFF;
+    }
+    int[] original = received.clone();
+    for (int i = 0; i < 10; i++) {
+      received[i * 7] ^= 1 + random.nextInt(255);
+    }
+    new ReedSolomonDecoder(field).decode(received, ecBytes.length);
+    Assertions.assertArrayEquals(original, received);
+  }
+
+  @Test
+  public void testInvalid() {
+    ByteReedSolomonEncoder encoder = new ByteReedSolomonEncoder(GenericGF.QR_CODE_FIELD_256);
+    byte[] data = new byte[10];
+    byte[] ecBytes = new byte[300];
+    Assertions.assertThrows(IllegalArgumentException.class, () -> encoder.encode(data, 0, 10, ecBytes, 0, 0));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> encoder.encode(data, 0, 10, ecBytes, 0, 256));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> encoder.encode(data, 0, 10, ecBytes, 0, -1));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> encoder.encode(data, 0, 0, ecBytes, 0, 10));
+    // The largest number is fine
+    encoder.encode(data, 0, 1, ecBytes, 0, 255);
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ByteReedSolomonEncoder(GenericGF.AZTEC_DATA_6));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ByteReedSolomonEncoder(GenericGF.AZTEC_DATA_10));
+  }
+
+}
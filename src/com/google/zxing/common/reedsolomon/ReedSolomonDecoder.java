@@ -16,6 +16,10 @@
 
 package com.google.zxing.common.reedsolomon;
 
+import com.google.zxing.common.DecodeContext;
+
+import java.util.Arrays;
+
 /**
  * <p>Implements Reed-Solomon decoding, as the name implies.</p>
  *
@@ -34,6 +38,12 @@ package com.google.zxing.common.reedsolomon;
  * <p>Much credit is due to William Rucklidge since portions of this code are an indirect
  * port of his C++ Reed-Solomon implementation.</p>
  *
+ * <p>The syndromes are computed first, and a word whose syndromes are all zero is returned at
+ * once, which is by far the most common case. Otherwise the error locator is found with the
+ * Berlekamp-Massey algorithm, its roots by Chien search and the error values by Forney's formula.
+ * Working storage comes from the calling thread's {@link DecodeContext}, so decoding allocates
+ * nothing.</p>
+ *
  * @author Sean Owen
  * @author William Rucklidge
  * @author sanfordsquires
@@ -70,135 +80,160 @@ public final class ReedSolomonDecoder {
    * @throws ReedSolomonException if decoding fails for any reason
    */
   public int decodeWithECCount(int[] received, int twoS) throws ReedSolomonException {
-    GenericGFPoly poly = new GenericGFPoly(field, received);
-    int[] syndromeCoefficients = new int[twoS];
+    DecodeContext context = DecodeContext.current();
+    // Laid out as: the syndromes, the error locator, the previous error locator and a copy of
+    // the error locator, each twoS + 1 long, then the error evaluator and the error positions
+    int[] workspace = context.borrowInts(6 * twoS + 3);
+    try {
+      if (computeSyndromes(received, twoS, workspace)) {
+        return 0;
+      }
+      return correctErrors(received, twoS, workspace);
+    } finally {
+      context.release(workspace);
+    }
+  }
+
+  /**
+   * Evaluates the received word at each root of the generator, by Horner's rule.
+   *
+   * @return true if all of them are zero, meaning there are no errors
+   */
+  private boolean computeSyndromes(int[] received, int twoS, int[] syndromes) {
+    int order = field.getSize() - 1;
     boolean noError = true;
     for (int i = 0; i < twoS; i++) {
-      int eval = poly.evaluateAt(field.exp(i + field.getGeneratorBase()));
-      syndromeCoefficients[syndromeCoefficients.length - 1 - i] = eval;
-      if (eval != 0) {
-        noError = false;
+      int logRoot = (i + field.getGeneratorBase()) % order;
+      int syndrome = 0;
+      for (int coefficient : received) {
+        if (syndrome != 0) {
+          int log = field.log(syndrome) + logRoot;
+          syndrome = field.exp(log >= order ? log - order : log);
+        }
+        syndrome ^= coefficient;
       }
-    }
-    if (noError) {
-      return 0;
-    }
-    GenericGFPoly syndrome = new GenericGFPoly(field, syndromeCoefficients);
-    GenericGFPoly[] sigmaOmega =
-        runEuclideanAlgorithm(field.buildMonomial(twoS, 1), syndrome, twoS);
-    GenericGFPoly sigma = sigmaOmega[0];
-    GenericGFPoly omega = sigmaOmega[1];
-    int[] errorLocations = findErrorLocations(sigma);
-    int[] errorMagnitudes = findErrorMagnitudes(omega, errorLocations);
-    for (int i = 0; i < errorLocations.length; i++) {
-      int position = received.length - 1 - field.log(errorLocations[i]);
-      if (position < 0) {
-        throw new ReedSolomonException("Bad error location");
+      syndromes[i] = syndrome;
+      if (syndrome != 0) {
+        noError = false;
       }
-      received[position] = GenericGF.addOrSubtract(received[position], errorMagnitudes[i]);
     }
-    return errorLocations.length;
+    return noError;
   }
 
-  private GenericGFPoly[] runEuclideanAlgorithm(GenericGFPoly a, GenericGFPoly b, int R)
-      throws ReedSolomonException {
-    // Assume a's degree is >= b's
-    if (a.getDegree() < b.getDegree()) {
-      GenericGFPoly temp = a;
-      a = b;
-      b = temp;
+  private int correctErrors(int[] received, int twoS, int[] workspace) throws ReedSolomonException {
+    int locator = twoS;
+    int previous = locator + twoS + 1;
+    int copy = previous + twoS + 1;
+    int evaluator = copy + twoS + 1;
+    int positions = evaluator + twoS;
+    Arrays.fill(workspace, locator, evaluator, 0);
+    workspace[locator] = 1;
+    workspace[previous] = 1;
+
+    // Berlekamp-Massey: find the shortest error locator whose recurrence generates the syndromes
+    int numErrors = 0;
+    int shift = 1;
+    int previousDiscrepancy = 1;
+    for (int n = 0; n < twoS; n++) {
+      int discrepancy = workspace[n];
+      for (int i = 1; i <= numErrors; i++) {
+        discrepancy ^= field.multiply(workspace[locator + i], workspace[n - i]);
+      }
+      if (discrepancy == 0) {
+        shift++;
+        continue;
+      }
+      int scale = field.multiply(discrepancy, field.inverse(previousDiscrepancy));
+      if (2 * numErrors <= n) {
+        System.arraycopy(workspace, locator, workspace, copy, twoS + 1);
+        addScaled(workspace, locator, previous, scale, shift, twoS);
+        System.arraycopy(workspace, copy, workspace, previous, twoS + 1);
+        numErrors = n + 1 - numErrors;
+        previousDiscrepancy = discrepancy;
+        shift = 1;
+      } else {
+        addScaled(workspace, locator, previous, scale, shift, twoS);
+        shift++;
+      }
+    }
+    if (2 * numErrors > twoS) {
+      throw new ReedSolomonException("Too many errors to correct");
     }
 
-    GenericGFPoly rLast = a;
-    GenericGFPoly r = b;
-    GenericGFPoly tLast = field.getZero();
-    GenericGFPoly t = field.getOne();
-
-    // Run Euclidean algorithm until r's degree is less than R/2
-    while (2 * r.getDegree() >= R) {
-      GenericGFPoly rLastLast = rLast;
-      GenericGFPoly tLastLast = tLast;
-      rLast = r;
-      tLast = t;
-
-      // Divide rLastLast by rLast, with quotient in q and remainder in r
-      if (rLast.isZero()) {
-        // Oops, Euclidean algorithm already terminated?
-        throw new ReedSolomonException("r_{i-1} was zero");
+    // Chien search, only over the powers of x that are in the received word. The locator's roots
+    // are the inverses of x to the power of each error's position
+    int order = field.getSize() - 1;
+    int found = 0;
+    for (int power = 0; power < received.length && found < numErrors; power++) {
+      int logInverse = (order - power % order) % order;
+      int value = 1;
+      for (int i = 1, log = logInverse; i <= numErrors; i++, log = (log + logInverse) % order) {
+        int coefficient = workspace[locator + i];
+        if (coefficient != 0) {
+          value ^= field.exp((field.log(coefficient) + log) % order);
+        }
       }
-      r = rLastLast;
-      GenericGFPoly q = field.getZero();
-      int denominatorLeadingTerm = rLast.getCoefficient(rLast.getDegree());
-      int dltInverse = field.inverse(denominatorLeadingTerm);
-      while (r.getDegree() >= rLast.getDegree() && !r.isZero()) {
-        int degreeDiff = r.getDegree() - rLast.getDegree();
-        int scale = field.multiply(r.getCoefficient(r.getDegree()), dltInverse);
-        q = q.addOrSubtract(field.buildMonomial(degreeDiff, scale));
-        r = r.addOrSubtract(rLast.multiplyByMonomial(degreeDiff, scale));
+      if (value == 0) {
+        workspace[positions + found++] = power;
       }
+    }
+    if (found != numErrors) {
+      throw new ReedSolomonException("Error locator degree does not match number of roots");
+    }
 
-      t = q.multiply(tLast).addOrSubtract(tLastLast);
-
-      if (r.getDegree() >= rLast.getDegree()) {
-        throw new IllegalStateException("Division algorithm failed to reduce polynomial? " +
-          "r: " + r + ", rLast: " + rLast);
+    // The error evaluator is the syndromes times the locator, modulo x^numErrors
+    for (int i = 0; i < numErrors; i++) {
+      int value = 0;
+      for (int j = 0; j <= i; j++) {
+        value ^= field.multiply(workspace[locator + j], workspace[i - j]);
       }
+      workspace[evaluator + i] = value;
     }
 
-    int sigmaTildeAtZero = t.getCoefficient(0);
-    if (sigmaTildeAtZero == 0) {
-      throw new ReedSolomonException("sigmaTilde(0) was zero");
+    // Forney's formula: each error is x^(power * (1 - b)) * evaluator(x^-power) / locator'(x^-power)
+    for (int k = 0; k < numErrors; k++) {
+      int power = workspace[positions + k];
+      int xInverse = field.exp((order - power % order) % order);
+      int numerator = evaluate(workspace, evaluator, numErrors - 1, xInverse, 1);
+      // In characteristic 2 the derivative keeps only the odd terms, each shifted down by one,
+      // so it is a polynomial in x^2
+      int denominator =
+          evaluate(workspace, locator + 1, numErrors - 1, field.multiply(xInverse, xInverse), 2);
+      if (denominator == 0) {
+        throw new ReedSolomonException("Error locator has a repeated root");
+      }
+      int magnitude = field.multiply(numerator, field.inverse(denominator));
+      int logFactor = (power % order) * (1 - field.getGeneratorBase()) % order;
+      if (logFactor < 0) {
+        logFactor += order;
+      }
+      magnitude = field.multiply(magnitude, field.exp(logFactor));
+      int position = received.length - 1 - power;
+      received[position] = GenericGF.addOrSubtract(received[position], magnitude);
     }
-
-    int inverse = field.inverse(sigmaTildeAtZero);
-    GenericGFPoly sigma = t.multiply(inverse);
-    GenericGFPoly omega = r.multiply(inverse);
-    return new GenericGFPoly[]{sigma, omega};
+    return numErrors;
   }
 
-  private int[] findErrorLocations(GenericGFPoly errorLocator) throws ReedSolomonException {
-    // This is a direct application of Chien's search
-    int numErrors = errorLocator.getDegree();
-    if (numErrors == 1) { // shortcut
-      return new int[] { errorLocator.getCoefficient(1) };
-    }
-    int[] result = new int[numErrors];
-    int e = 0;
-    for (int i = 1; i < field.getSize() && e < numErrors; i++) {
-      if (errorLocator.evaluateAt(i) == 0) {
-        result[e] = field.inverse(i);
-        e++;
+  /**
+   * Adds scale * x^shift * the polynomial at from to the one at to, both stored lowest degree first
+   */
+  private void addScaled(int[] workspace, int to, int from, int scale, int shift, int twoS) {
+    for (int i = 0; i + shift <= twoS; i++) {
+      int coefficient = workspace[from + i];
+      if (coefficient != 0) {
+        workspace[to + i + shift] ^= field.multiply(coefficient, scale);
       }
     }
-    if (e != numErrors) {
-      throw new ReedSolomonException("Error locator degree does not match number of roots");
-    }
-    return result;
   }
 
-  private int[] findErrorMagnitudes(GenericGFPoly errorEvaluator, int[] errorLocations) {
-    // This is directly applying Forney's Formula
-    int s = errorLocations.length;
-    int[] result = new int[s];
-    for (int i = 0; i < s; i++) {
-      int xiInverse = field.inverse(errorLocations[i]);
-      int denominator = 1;
-      for (int j = 0; j < s; j++) {
-        if (i != j) {
-          //denominator = field.multiply(denominator,
-          //    GenericGF.addOrSubtract(1, field.multiply(errorLocations[j], xiInverse)));
-          // Above should work but fails on some Apple and Linux JDKs due to a Hotspot bug.
-          // Below is a funny-looking workaround from Steven Parkes
-          int term = field.multiply(errorLocations[j], xiInverse);
-          int termPlus1 = (term & 0x1) == 0 ? term | 1 : term & ~1;
-          denominator = field.multiply(denominator, termPlus1);
-        }
-      }
-      result[i] = field.multiply(errorEvaluator.evaluateAt(xiInverse),
-          field.inverse(denominator));
-      if (field.getGeneratorBase() != 0) {
-        result[i] = field.multiply(result[i], xiInverse);
-      }
+  /**
+   * Evaluates at x the polynomial whose coefficients, lowest degree first, are every step'th
+   * element of workspace from offset up to offset + maxIndex.
+   */
+  private int evaluate(int[] workspace, int offset, int maxIndex, int x, int step) {
+    int result = 0;
+    for (int i = maxIndex - (maxIndex % step); i >= 0; i -= step) {
+      result = field.multiply(result, x) ^ workspace[offset + i];
     }
     return result;
   }
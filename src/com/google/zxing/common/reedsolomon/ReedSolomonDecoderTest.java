@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common.reedsolomon;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Tests {@link ReedSolomonDecoder} on every field, with generator bases 0 (QR Code) and 1 (the
+ * others).
+ */
+class ReedSolomonDecoderTest {
+
+  private static final int TRIALS = 200;
+
+  @Test
+  public void testQRCodeField() {
+    checkField(GenericGF.QR_CODE_FIELD_256);
+  }
+
+  @Test
+  public void testDataMatrixField() {
+    checkField(GenericGF.DATA_MATRIX_FIELD_256);
+  }
+
+  @Test
+  public void testAztecFields() {
+    checkField(GenericGF.AZTEC_DATA_12);
+    checkField(GenericGF.AZTEC_DATA_10);
+    checkField(GenericGF.AZTEC_PARAM);
+  }
+
+  @Test
+  public void testMaxiCodeField() {
+    checkField(GenericGF.MAXICODE_FIELD_64);
+  }
+
+  @Test
+  public void testNoErrors() throws ReedSolomonException {
+    int[] word = encode(GenericGF.QR_CODE_FIELD_256, new Random(1), 40, 10);
+    int[] received = word.clone();
+    Assertions.assertEquals(0, new ReedSolomonDecoder(GenericGF.QR_CODE_FIELD_256).decodeWithECCount(received, 10));
+    Assertions.assertArrayEquals(word, received);
+  }
+
+  /**
+   * Corrects up to t errors in random words, and never turns t + 1 errors into anything but a
+   * rejection or another codeword within t of what was received.
+   */
+  private static void checkField(GenericGF field) {
+    Random random = new Random(field.getSize());
+    int length = Math.min(field.getSize() - 1, 100);
+    int twoS = field.getSize() == 16 ? 6 : 20;
+    int t = twoS / 2;
+    ReedSolomonDecoder decoder = new ReedSolomonDecoder(field);
+    int rejected = 0;
+    for (int trial = 0; trial < TRIALS; trial++) {
+      int[] word = encode(field, random, length, twoS);
+
+      int numErrors = 1 + random.nextInt(t);
+      int[] received = corrupt(word, numErrors, field, random);
+      try {
+        Assertions.assertEquals(numErrors, decoder.decodeWithECCount(received, twoS));
+      } catch (ReedSolomonException rse) {
+        Assertions.fail(field + ": " + numErrors + " errors not corrected");
+      }
+      Assertions.assertArrayEquals(word, received);
+
+      received = corrupt(word, t + 1, field, random);
+      int[] before = received.clone();
+      try {
+        int corrected = decoder.decodeWithECCount(received, twoS);
+        // A miscorrection to a nearby codeword, which no decoder can tell from a real one
+        Assertions.assertTrue(corrected <= t);
+        Assertions.assertEquals(corrected, (long) distance(before, received));
+        Assertions.assertTrue(distance(word, received) > t);
+        Assertions.assertEquals(0, decoder.decodeWithECCount(received.clone(), twoS));
+      } catch (ReedSolomonException rse) {
+        rejected++;
+      }
+    }
+    if (field.getSize() >= 64) {
+      // Miscorrections are rare outside the smallest field
+      Assertions.assertTrue(rejected > TRIALS * 9 / 10, field + ": only " + rejected + " rejected");
+    }
+  }
+
+  private static int[] encode(GenericGF field, Random random, int length, int twoS) {
+    int[] word = new int[length];
+    for (int i = 0; i < length - twoS; i++) {
+      word[i] = random.nextInt(field.getSize());
+    }
+    new ReedSolomonEncoder(field).encode(word, twoS);
+    return word;
+  }
+
+  /**
+   * @return a copy of word with errors in numErrors distinct random positions
+   */
+  private static int[] corrupt(int[] word, int numErrors, GenericGF field, Random random) {
+    int[] received = word.clone();
+    boolean[] corrupted = new boolean[word.length];
+    for (int i = 0; i < numErrors; i++) {
+      int position;
+      do {
+        position = random.nextInt(word.length);
+      } while (corrupted[position]);
+      corrupted[position] = true;
+      received[position] ^= 1 + random.nextInt(field.getSize() - 1);
+    }
+    return received;
+  }
+
+  private static int distance(int[] a, int[] b) {
+    int distance = 0;
+    for (int i = 0; i < a.length; i++) {
+      if (a[i] != b[i]) {
+        distance++;
+      }
+    }
+    return distance;
+  }
+
+}
@@ -22,6 +22,8 @@ import java.util.List;
 /**
  * <p>Implements Reed-Solomon encoding, as the name implies.</p>
  *
+ * <p>For fields of size 256, {@link ByteReedSolomonEncoder} is much faster.</p>
+ *
  * @author Sean Owen
  * @author William Rucklidge
  */
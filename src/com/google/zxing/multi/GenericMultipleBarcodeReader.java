@@ -16,6 +16,7 @@
 
 package com.google.zxing.multi;
 
+import com.google.zxing.BarcodeFormat;
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.DecodeHintType;
 import com.google.zxing.NotFoundException;
@@ -23,16 +24,32 @@ import com.google.zxing.Reader;
 import com.google.zxing.ReaderException;
 import com.google.zxing.Result;
 import com.google.zxing.ResultPoint;
+import com.google.zxing.ResultPointCallback;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
 
 /**
  * <p>Attempts to locate multiple barcodes in an image by repeatedly decoding portion of the image.
  * After one barcode is found, the areas left, above, right and below the barcode's
  * {@link ResultPoint}s are scanned, recursively.</p>
  *
+ * <p>Different paths through the recursion often arrive at the same area, which is only scanned
+ * once. The same barcode is reported once even when it is found from several areas, but two
+ * barcodes with the same contents in different places are both reported. With
+ * {@link DecodeHintType#EXPECTED_BARCODE_COUNT} the search stops as soon as that many have been
+ * found. Given a {@link ForkJoinPool}, the areas around each barcode are scanned in parallel, in
+ * which case results are returned in the order they were found rather than a fixed order.</p>
+ *
  * <p>A caller may want to also employ {@link ByQuadrantReader} when attempting to find multiple
  * 2D barcodes, like QR Codes, in an image, where the presence of multiple barcodes might prevent
  * detecting any one of them.</p>
@@ -50,9 +67,28 @@ public final class GenericMultipleBarcodeReader implements MultipleBarcodeReader
   static final Result[] EMPTY_RESULT_ARRAY = new Result[0];
 
   private final Reader delegate;
+  private final Supplier<? extends Reader> readerFactory;
+  private final ForkJoinPool pool;
 
   public GenericMultipleBarcodeReader(Reader delegate) {
     this.delegate = delegate;
+    this.readerFactory = null;
+    this.pool = null;
+  }
+
+  /**
+   * Creates a reader which scans the areas around each barcode it finds in parallel. Readers keep
+   * state between calls, so each area scanned on another thread is decoded with a new reader. A
+   * {@link DecodeHintType#NEED_RESULT_POINT_CALLBACK} is called from those threads, but never by
+   * two at once.
+   *
+   * @param readerFactory creates the readers to decode areas of the image with
+   * @param pool pool to scan areas on
+   */
+  public GenericMultipleBarcodeReader(Supplier<? extends Reader> readerFactory, ForkJoinPool pool) {
+    this.delegate = readerFactory.get();
+    this.readerFactory = readerFactory;
+    this.pool = pool;
   }
 
   @Override
@@ -63,40 +99,51 @@ public final class GenericMultipleBarcodeReader implements MultipleBarcodeReader
   @Override
   public Result[] decodeMultiple(BinaryBitmap image, Map<DecodeHintType,?> hints)
       throws NotFoundException {
-    List<Result> results = new ArrayList<>();
-    doDecodeMultiple(image, hints, results, 0, 0, 0);
-    if (results.isEmpty()) {
+    Integer expected = hints == null ? null : (Integer) hints.get(DecodeHintType.EXPECTED_BARCODE_COUNT);
+    Scan scan = new Scan(expected == null ? Integer.MAX_VALUE : expected);
+    Map<DecodeHintType,?> scanHints = hints;
+    if (pool != null && hints != null && hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK) != null) {
+      // Areas are scanned on several threads at once, but callers write callbacks for one
+      ResultPointCallback callback = (ResultPointCallback) hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+      Map<DecodeHintType,Object> poolHints = new EnumMap<>(DecodeHintType.class);
+      poolHints.putAll(hints);
+      poolHints.put(DecodeHintType.NEED_RESULT_POINT_CALLBACK, (ResultPointCallback) point -> {
+        synchronized (callback) {
+          callback.foundPossibleResultPoint(point);
+        }
+      });
+      scanHints = poolHints;
+    }
+    doDecodeMultiple(image, scanHints, scan, delegate, 0, 0, 0);
+    Result[] results = scan.getResults();
+    if (results.length == 0) {
       throw NotFoundException.getNotFoundInstance();
     }
-    return results.toArray(EMPTY_RESULT_ARRAY);
+    return results;
   }
 
   private void doDecodeMultiple(BinaryBitmap image,
                                 Map<DecodeHintType,?> hints,
-                                List<Result> results,
+                                Scan scan,
+                                Reader reader,
                                 int xOffset,
                                 int yOffset,
                                 int currentDepth) {
-    if (currentDepth > MAX_DEPTH) {
+    if (currentDepth > MAX_DEPTH || scan.isComplete()) {
+      return;
+    }
+    Area scannedArea = new Area(xOffset, yOffset, image.getWidth(), image.getHeight());
+    if (!scan.markScanned(scannedArea)) {
       return;
     }
 
     Result result;
     try {
-      result = delegate.decode(image, hints);
+      result = reader.decode(image, hints);
     } catch (ReaderException ignored) {
       return;
     }
-    boolean alreadyFound = false;
-    for (Result existingResult : results) {
-      if (existingResult.getText().equals(result.getText())) {
-        alreadyFound = true;
-        break;
-      }
-    }
-    if (!alreadyFound) {
-      results.add(translateResultPoints(result, xOffset, yOffset));
-    }
+    scan.add(translateResultPoints(result, xOffset, yOffset));
     ResultPoint[] resultPoints = result.getResultPoints();
     if (resultPoints == null || resultPoints.length == 0) {
       return;
@@ -127,33 +174,47 @@ public final class GenericMultipleBarcodeReader implements MultipleBarcodeReader
       }
     }
 
-    // Decode left of barcode
+    // Areas left of, above, right of and below the barcode, as left, top, width and height
+    List<int[]> areas = new ArrayList<>(4);
     if (minX > MIN_DIMENSION_TO_RECUR) {
-      doDecodeMultiple(image.crop(0, 0, (int) minX, height),
-                       hints, results,
-                       xOffset, yOffset,
-                       currentDepth + 1);
+      areas.add(new int[] {0, 0, (int) minX, height});
     }
-    // Decode above barcode
     if (minY > MIN_DIMENSION_TO_RECUR) {
-      doDecodeMultiple(image.crop(0, 0, width, (int) minY),
-                       hints, results,
-                       xOffset, yOffset,
-                       currentDepth + 1);
+      areas.add(new int[] {0, 0, width, (int) minY});
     }
-    // Decode right of barcode
     if (maxX < width - MIN_DIMENSION_TO_RECUR) {
-      doDecodeMultiple(image.crop((int) maxX, 0, width - (int) maxX, height),
-                       hints, results,
-                       xOffset + (int) maxX, yOffset,
-                       currentDepth + 1);
+      areas.add(new int[] {(int) maxX, 0, width - (int) maxX, height});
     }
-    // Decode below barcode
     if (maxY < height - MIN_DIMENSION_TO_RECUR) {
-      doDecodeMultiple(image.crop(0, (int) maxY, width, height - (int) maxY),
-                       hints, results,
-                       xOffset, yOffset + (int) maxY,
-                       currentDepth + 1);
+      areas.add(new int[] {0, (int) maxY, width, height - (int) maxY});
+    }
+
+    if (pool == null || areas.size() < 2) {
+      for (int[] area : areas) {
+        doDecodeMultiple(image.crop(area[0], area[1], area[2], area[3]),
+                         hints, scan, reader,
+                         xOffset + area[0], yOffset + area[1],
+                         currentDepth + 1);
+      }
+      return;
+    }
+
+    // Hand all but the first area to other threads, each with its own reader, and scan the first
+    // on this one with this reader
+    List<ForkJoinTask<?>> tasks = new ArrayList<>(areas.size() - 1);
+    for (int[] area : areas.subList(1, areas.size())) {
+      BinaryBitmap areaImage = image.crop(area[0], area[1], area[2], area[3]);
+      tasks.add(pool.submit(() -> doDecodeMultiple(areaImage, hints, scan, readerFactory.get(),
+                                                   xOffset + area[0], yOffset + area[1],
+                                                   currentDepth + 1)));
+    }
+    int[] first = areas.get(0);
+    doDecodeMultiple(image.crop(first[0], first[1], first[2], first[3]),
+                     hints, scan, reader,
+                     xOffset + first[0], yOffset + first[1],
+                     currentDepth + 1);
+    for (ForkJoinTask<?> task : tasks) {
+      task.join();
     }
   }
 
@@ -179,4 +240,181 @@ public final class GenericMultipleBarcodeReader implements MultipleBarcodeReader
     return newResult;
   }
 
+  /**
+   * What one call to decodeMultiple() has found and scanned so far, shared by every thread
+   * scanning for it.
+   */
+  private static final class Scan {
+
+    private final int expected;
+    private final List<Result> results = new ArrayList<>();
+    // Results by format and contents, then told apart by location
+    private final Map<ContentKey,List<Result>> resultsByContent = new HashMap<>();
+    private final Set<Area> scanned = new HashSet<>();
+
+    /**
+     * @param expected number of barcodes after which to stop
+     */
+    Scan(int expected) {
+      this.expected = expected;
+    }
+
+    synchronized boolean isComplete() {
+      return results.size() >= expected;
+    }
+
+    /**
+     * @param area area about to be scanned, in whole image coordinates
+     * @return false if the area was already scanned. An area inside one where nothing was found
+     *  is still scanned, since readers sample rows and threshold pixels relative to the area
+     */
+    synchronized boolean markScanned(Area area) {
+      return scanned.add(area);
+    }
+
+    /**
+     * Adds a result, in whole image coordinates, unless the same barcode was already found.
+     */
+    synchronized void add(Result result) {
+      List<Result> sameContent = resultsByContent.computeIfAbsent(
+          new ContentKey(result.getBarcodeFormat(), result.getText()), key -> new ArrayList<>(1));
+      for (Result existing : sameContent) {
+        if (isSameLocation(existing.getResultPoints(), result.getResultPoints())) {
+          return;
+        }
+      }
+      sameContent.add(result);
+      results.add(result);
+    }
+
+    synchronized Result[] getResults() {
+      return results.toArray(EMPTY_RESULT_ARRAY);
+    }
+
+    /**
+     * Points found from different areas of the image differ a little, since each area is binarized
+     * separately and 1D barcodes may be read on different rows. Two results are taken to be the same
+     * barcode when their bounds overlap, or are apart by no more than the tolerance of either. Results
+     * without points have no location, so are the same as any other with the same contents.
+     */
+    private static boolean isSameLocation(ResultPoint[] a, ResultPoint[] b) {
+      float[] boundsA = bounds(a);
+      float[] boundsB = bounds(b);
+      if (boundsA == null || boundsB == null) {
+        return true;
+      }
+      float[] toleranceA = tolerance(boundsA);
+      float[] toleranceB = tolerance(boundsB);
+      return gap(boundsA[0], boundsA[2], boundsB[0], boundsB[2]) <= Math.max(toleranceA[0], toleranceB[0]) &&
+          gap(boundsA[1], boundsA[3], boundsB[1], boundsB[3]) <= Math.max(toleranceA[1], toleranceB[1]);
+    }
+
+    /**
+     * @return how far apart in x and y another result may be and still be the same barcode: half
+     *  its size, or for a 1D barcode, whose points are a line across it on whichever row it was read
+     *  on, its length across the line, since its bars are rarely taller than it is long
+     */
+    private static float[] tolerance(float[] bounds) {
+      float width = bounds[2] - bounds[0];
+      float height = bounds[3] - bounds[1];
+      float size = Math.max(width, height);
+      if (height < 1.0f) {
+        return new float[] {size / 2, size};
+      }
+      if (width < 1.0f) {
+        return new float[] {size, size / 2};
+      }
+      return new float[] {size / 2, size / 2};
+    }
+
+    /**
+     * @return distance between the ranges min1..max1 and min2..max2, or 0 if they overlap
+     */
+    private static float gap(float min1, float max1, float min2, float max2) {
+      return Math.max(0.0f, Math.max(min1, min2) - Math.min(max1, max2));
+    }
+
+    /**
+     * @return minimum x, minimum y, maximum x and maximum y of the points, or null if there are none
+     */
+    private static float[] bounds(ResultPoint[] points) {
+      float[] bounds = null;
+      if (points != null) {
+        for (ResultPoint point : points) {
+          if (point == null) {
+            continue;
+          }
+          float x = point.getX();
+          float y = point.getY();
+          if (bounds == null) {
+            bounds = new float[] {x, y, x, y};
+          } else {
+            bounds[0] = Math.min(bounds[0], x);
+            bounds[1] = Math.min(bounds[1], y);
+            bounds[2] = Math.max(bounds[2], x);
+            bounds[3] = Math.max(bounds[3], y);
+          }
+        }
+      }
+      return bounds;
+    }
+
+  }
+
+  private static final class ContentKey {
+
+    private final BarcodeFormat format;
+    private final String text;
+
+    ContentKey(BarcodeFormat format, String text) {
+      this.format = format;
+      this.text = text;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof ContentKey)) {
+        return false;
+      }
+      ContentKey other = (ContentKey) o;
+      return format == other.format && Objects.equals(text, other.text);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * Objects.hashCode(format) + Objects.hashCode(text);
+    }
+
+  }
+
+  private static final class Area {
+
+    private final int left;
+    private final int top;
+    private final int width;
+    private final int height;
+
+    Area(int left, int top, int width, int height) {
+      this.left = left;
+      this.top = top;
+      this.width = width;
+      this.height = height;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Area)) {
+        return false;
+      }
+      Area other = (Area) o;
+      return left == other.left && top == other.top && width == other.width && height == other.height;
+    }
+
+    @Override
+    public int hashCode() {
+      return ((left * 31 + top) * 31 + width) * 31 + height;
+    }
+
+  }
+
 }
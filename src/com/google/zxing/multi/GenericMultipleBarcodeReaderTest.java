@@ -0,0 +1,367 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.multi;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.Binarizer;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.RGBLuminanceSource;
+import com.google.zxing.Reader;
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.ResultPointCallback;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests {@link GenericMultipleBarcodeReader}, on real barcodes and on a layout of made up ones that
+ * shows which areas were scanned.
+ */
+class GenericMultipleBarcodeReaderTest {
+
+  private static final int WIDTH = 1600;
+  private static final int HEIGHT = 1200;
+  // Left and top of each of the CODE_128 barcodes
+  private static final int[][] POSITIONS = {
+      {60, 80}, {700, 60}, {1250, 120}, {100, 500}, {800, 550}, {300, 950}, {1100, 900},
+  };
+
+  private static BinaryBitmap code128Image() throws WriterException {
+    int[] pixels = new int[WIDTH * HEIGHT];
+    Arrays.fill(pixels, 0xFFFFFFFF);
+    MultiFormatWriter writer = new MultiFormatWriter();
+    for (int i = 0; i < POSITIONS.length; i++) {
+      BitMatrix code = writer.encode("ITEM-" + i + "-0042", BarcodeFormat.CODE_128, 280, 1);
+      // Taller than the distance between the rows they are read on from different areas
+      for (int y = 0; y < 90; y++) {
+        for (int x = 0; x < 280; x++) {
+          if (code.get(x, 0)) {
+            pixels[(POSITIONS[i][1] + y) * WIDTH + POSITIONS[i][0] + x] = 0xFF000000;
+          }
+        }
+      }
+    }
+    return new BinaryBitmap(new HybridBinarizer(new RGBLuminanceSource(WIDTH, HEIGHT, pixels)));
+  }
+
+  private static void assertEachItemOnce(Result[] results) {
+    String[] texts = new String[results.length];
+    for (int i = 0; i < results.length; i++) {
+      texts[i] = results[i].getText();
+    }
+    Arrays.sort(texts);
+    String[] expected = new String[POSITIONS.length];
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = "ITEM-" + i + "-0042";
+    }
+    Assertions.assertArrayEquals(expected, texts);
+  }
+
+  @Test
+  public void testEachCode128Once() throws NotFoundException, WriterException {
+    // Each is read on a different row from the areas around the others, but still reported once
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+    GenericMultipleBarcodeReader reader = new GenericMultipleBarcodeReader(new MultiFormatReader());
+    assertEachItemOnce(reader.decodeMultiple(code128Image(), hints));
+    assertEachItemOnce(reader.decodeMultiple(code128Image()));
+  }
+
+  @Test
+  public void testPool() throws NotFoundException, WriterException {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      AtomicInteger readers = new AtomicInteger();
+      AtomicInteger calling = new AtomicInteger();
+      AtomicBoolean overlapped = new AtomicBoolean();
+      Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+      hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+      hints.put(DecodeHintType.NEED_RESULT_POINT_CALLBACK, (ResultPointCallback) point -> {
+        if (calling.incrementAndGet() > 1) {
+          overlapped.set(true);
+        }
+        Thread.yield();
+        calling.decrementAndGet();
+      });
+      GenericMultipleBarcodeReader reader = new GenericMultipleBarcodeReader(() -> {
+        readers.incrementAndGet();
+        return new MultiFormatReader();
+      }, pool);
+      for (int i = 0; i < 3; i++) {
+        assertEachItemOnce(reader.decodeMultiple(code128Image(), hints));
+      }
+      // Areas on other threads get their own readers
+      Assertions.assertTrue(readers.get() > 1);
+      // The callback is never called from two threads at once
+      Assertions.assertFalse(overlapped.get());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testSameContentsTwice() throws NotFoundException, WriterException {
+    BitMatrix code = new MultiFormatWriter().encode("TWICE", BarcodeFormat.QR_CODE, 200, 200);
+    int[] pixels = new int[WIDTH * HEIGHT];
+    Arrays.fill(pixels, 0xFFFFFFFF);
+    for (int[] position : new int[][] {{100, 100}, {1200, 800}}) {
+      for (int y = 0; y < 200; y++) {
+        for (int x = 0; x < 200; x++) {
+          if (code.get(x, y)) {
+            pixels[(position[1] + y) * WIDTH + position[0] + x] = 0xFF000000;
+          }
+        }
+      }
+    }
+    BinaryBitmap image = new BinaryBitmap(new HybridBinarizer(new RGBLuminanceSource(WIDTH, HEIGHT, pixels)));
+    Result[] results = new GenericMultipleBarcodeReader(new MultiFormatReader()).decodeMultiple(image);
+    Assertions.assertEquals(2, results.length);
+    Assertions.assertEquals("TWICE", results[0].getText());
+    Assertions.assertEquals("TWICE", results[1].getText());
+  }
+
+  /**
+   * An image that only knows where it is in the whole image, as left, top, width and height.
+   */
+  private static final class AreaSource extends LuminanceSource {
+
+    private final int left;
+    private final int top;
+
+    AreaSource(int left, int top, int width, int height) {
+      super(width, height);
+      this.left = left;
+      this.top = top;
+    }
+
+    @Override
+    public byte[] getRow(int y, byte[] row) {
+      return new byte[getWidth()];
+    }
+
+    @Override
+    public byte[] getMatrix() {
+      return new byte[getWidth() * getHeight()];
+    }
+
+    @Override
+    public boolean isCropSupported() {
+      return true;
+    }
+
+    @Override
+    public LuminanceSource crop(int left, int top, int width, int height) {
+      return new AreaSource(this.left + left, this.top + top, width, height);
+    }
+
+  }
+
+  /**
+   * Tells {@link LayoutReader} which area it was asked to decode.
+   */
+  private static final class AreaBinarizer extends Binarizer {
+
+    private final List<int[]> areas;
+
+    AreaBinarizer(LuminanceSource source, List<int[]> areas) {
+      super(source);
+      this.areas = areas;
+    }
+
+    @Override
+    public BitArray getBlackRow(int y, BitArray row) {
+      AreaSource source = (AreaSource) getLuminanceSource();
+      areas.add(new int[] {source.left, source.top, source.getWidth(), source.getHeight()});
+      return new BitArray(getWidth());
+    }
+
+    @Override
+    public BitMatrix getBlackMatrix() {
+      return new BitMatrix(getWidth(), getHeight());
+    }
+
+    @Override
+    public Binarizer createBinarizer(LuminanceSource source) {
+      return new AreaBinarizer(source, areas);
+    }
+
+  }
+
+  /**
+   * Finds the first of its barcodes that is in the area, as left, top, right and bottom. Those
+   * with the same top and bottom are lines, like 1D barcodes, read on the middle row of the area
+   * if it crosses them, and otherwise have corner points, like 2D barcodes.
+   */
+  private static final class LayoutReader implements Reader {
+
+    private final Map<String,int[]> barcodes;
+    private final List<int[]> areas = new ArrayList<>();
+
+    LayoutReader(Map<String,int[]> barcodes) {
+      this.barcodes = barcodes;
+    }
+
+    BinaryBitmap image() {
+      return new BinaryBitmap(new AreaBinarizer(new AreaSource(0, 0, WIDTH, HEIGHT), areas));
+    }
+
+    @Override
+    public Result decode(BinaryBitmap image) throws NotFoundException {
+      return decode(image, null);
+    }
+
+    @Override
+    public Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints) throws NotFoundException {
+      image.getBlackRow(0, null);
+      int[] area = areas.get(areas.size() - 1);
+      int middle = area[1] + area[3] / 2;
+      for (Map.Entry<String,int[]> entry : barcodes.entrySet()) {
+        String text = entry.getKey().substring(0, entry.getKey().indexOf('@'));
+        int[] bounds = entry.getValue();
+        if (bounds[0] < area[0] || bounds[2] > area[0] + area[2]) {
+          continue;
+        }
+        ResultPoint[] points;
+        if (bounds[1] == bounds[3]) {
+          if (middle < bounds[1] - 100 || middle > bounds[1] + 100) {
+            continue;
+          }
+          points = new ResultPoint[] {new ResultPoint(bounds[0] - area[0], middle - area[1]),
+                                      new ResultPoint(bounds[2] - area[0], middle - area[1])};
+        } else {
+          if (bounds[1] < area[1] || bounds[3] > area[1] + area[3]) {
+            continue;
+          }
+          points = new ResultPoint[] {new ResultPoint(bounds[0] - area[0], bounds[1] - area[1]),
+                                      new ResultPoint(bounds[2] - area[0], bounds[3] - area[1])};
+        }
+        BarcodeFormat format = bounds[1] == bounds[3] ? BarcodeFormat.CODE_128 : BarcodeFormat.QR_CODE;
+        return new Result(text, null, points, format);
+      }
+      throw NotFoundException.getNotFoundInstance();
+    }
+
+    @Override
+    public void reset() {
+      // nothing to reset
+    }
+
+  }
+
+  private static Map<String,int[]> layout() {
+    // Keyed by text, then where it is, so the same text can be in more than one place
+    Map<String,int[]> barcodes = new LinkedHashMap<>();
+    // A line as high as it is long, read on rows further apart than half its length
+    barcodes.put("LINE@1", new int[] {1150, 300, 1350, 300});
+    barcodes.put("CENTER@1", new int[] {700, 500, 900, 700});
+    barcodes.put("CORNER@1", new int[] {150, 150, 300, 300});
+    barcodes.put("CORNER@2", new int[] {1300, 900, 1450, 1050});
+    return barcodes;
+  }
+
+  /**
+   * The barcodes in {@link #code128Image()}, as lines across their middle.
+   */
+  private static Map<String,int[]> code128Layout() {
+    Map<String,int[]> barcodes = new LinkedHashMap<>();
+    for (int i = 0; i < POSITIONS.length; i++) {
+      int[] position = POSITIONS[i];
+      barcodes.put("ITEM-" + i + "-0042@1",
+          new int[] {position[0] + 70, position[1] + 45, position[0] + 200, position[1] + 45});
+    }
+    return barcodes;
+  }
+
+  private static Set<String> texts(Result[] results) {
+    Set<String> texts = new HashSet<>();
+    for (Result result : results) {
+      texts.add(result.getText() + '@' + result.getBarcodeFormat());
+    }
+    return texts;
+  }
+
+  @Test
+  public void testAreasScannedOnce() throws NotFoundException {
+    // Several paths through the recursion arrive at the same areas here
+    LayoutReader reader = new LayoutReader(code128Layout());
+    new GenericMultipleBarcodeReader(reader).decodeMultiple(reader.image());
+    Assertions.assertArrayEquals(new int[] {0, 0, WIDTH, HEIGHT}, reader.areas.get(0));
+    Set<String> areas = new HashSet<>();
+    for (int[] area : reader.areas) {
+      Assertions.assertTrue(areas.add(Arrays.toString(area)), "scanned twice: " + Arrays.toString(area));
+    }
+  }
+
+  @Test
+  public void testDuplicates() throws NotFoundException {
+    LayoutReader reader = new LayoutReader(layout());
+    Result[] results = new GenericMultipleBarcodeReader(reader).decodeMultiple(reader.image());
+    // The corners are both reported, being in different places, but each only once though found
+    // from several areas, and the line once though read on several rows
+    Assertions.assertEquals(4, results.length);
+    Assertions.assertEquals(new HashSet<>(Arrays.asList("CENTER@QR_CODE", "CORNER@QR_CODE", "LINE@CODE_128")),
+        texts(results));
+  }
+
+  @Test
+  public void testExpectedCount() throws NotFoundException {
+    LayoutReader all = new LayoutReader(layout());
+    new GenericMultipleBarcodeReader(all).decodeMultiple(all.image());
+
+    LayoutReader reader = new LayoutReader(layout());
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.EXPECTED_BARCODE_COUNT, 2);
+    Result[] results = new GenericMultipleBarcodeReader(reader).decodeMultiple(reader.image(), hints);
+    Assertions.assertEquals(2, results.length);
+    // Stops as soon as the second is found
+    Assertions.assertTrue(reader.areas.size() < all.areas.size());
+    Assertions.assertEquals("CENTER", results[0].getText());
+    Assertions.assertEquals("CORNER", results[1].getText());
+    Result[] second = new GenericMultipleBarcodeReader(reader).decodeMultiple(reader.image(), hints);
+    Assertions.assertEquals(2, second.length);
+  }
+
+  @Test
+  public void testNothingFound() {
+    LayoutReader reader = new LayoutReader(new LinkedHashMap<>());
+    Assertions.assertThrows(NotFoundException.class,
+        () -> new GenericMultipleBarcodeReader(reader).decodeMultiple(reader.image()));
+    Assertions.assertEquals(1, reader.areas.size());
+  }
+
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.multi;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.ChecksumException;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.FormatException;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.Reader;
+import com.google.zxing.ReaderException;
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.ResultPointCallback;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * This class attempts to decode a barcode from an image by first scanning smaller, downsampled
+ * copies of it. Binarizing and searching a full resolution camera frame is most of the cost of
+ * decoding, yet a barcode that fills a good part of the frame decodes just as well at half or a
+ * quarter of the size. Levels are tried from the coarsest. If none decodes but some of them
+ * located parts of a barcode, such as QR Code finder patterns, just the region around those
+ * points is decoded at full resolution. Only then is the whole frame scanned.
+ *
+ * The time spent on each level by the last decode is available from {@link #getLevelNanos()}.
+ * Like the readers it wraps, instances are not safe to use from several threads at once.
+ *
+ * @see ByQuadrantReader
+ */
+public final class PyramidReader implements Reader {
+
+  private static final int[] DEFAULT_FACTORS = {4, 2};
+  // Smaller than this, the 2D binarizers fall back to a global threshold and little decodes
+  private static final int MIN_DIMENSION = 64;
+
+  private final Reader delegate;
+  private final int[] factors;
+  private final long[] levelNanos;
+
+  public PyramidReader(Reader delegate) {
+    this(delegate, DEFAULT_FACTORS);
+  }
+
+  /**
+   * @param delegate reader to decode each level with
+   * @param factors how many times smaller each downsampled level is, tried in the given order,
+   *  so normally from largest to smallest
+   */
+  public PyramidReader(Reader delegate, int... factors) {
+    for (int factor : factors) {
+      if (factor < 2) {
+        throw new IllegalArgumentException("Factor must be at least 2: " + factor);
+      }
+    }
+    this.delegate = delegate;
+    this.factors = factors.clone();
+    levelNanos = new long[factors.length + 2];
+    Arrays.fill(levelNanos, -1L);
+  }
+
+  @Override
+  public Result decode(BinaryBitmap image)
+      throws NotFoundException, ChecksumException, FormatException {
+    return decode(image, null);
+  }
+
+  @Override
+  public Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
+    Arrays.fill(levelNanos, -1L);
+    int width = image.getWidth();
+    int height = image.getHeight();
+    ResultPointCallback callback =
+        hints == null ? null : (ResultPointCallback) hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+    PointCollector collector = new PointCollector(callback);
+
+    for (int level = 0; level < factors.length; level++) {
+      int factor = factors[level];
+      if (width / factor < MIN_DIMENSION || height / factor < MIN_DIMENSION) {
+        continue;
+      }
+      long start = System.nanoTime();
+      try {
+        collector.factor = factor;
+        Map<DecodeHintType,Object> levelHints = new EnumMap<>(DecodeHintType.class);
+        if (hints != null) {
+          levelHints.putAll(hints);
+        }
+        // The coarse levels are only a quick first look; TRY_HARDER is saved for full resolution
+        levelHints.remove(DecodeHintType.TRY_HARDER);
+        levelHints.put(DecodeHintType.NEED_RESULT_POINT_CALLBACK, collector);
+        Result result = delegate.decode(image.downsample(factor), levelHints);
+        scale(result.getResultPoints(), factor);
+        return result;
+      } catch (ReaderException re) {
+        // continue
+      } finally {
+        levelNanos[level] = System.nanoTime() - start;
+      }
+    }
+
+    if (collector.found && image.isCropSupported()) {
+      // Pad by half the size of what was found, since the points are often centers of features
+      // well inside the barcode, like QR Code finder patterns
+      int margin = (int) Math.max(collector.maxX - collector.minX, collector.maxY - collector.minY) / 2 + 1;
+      int left = Math.max(0, (int) collector.minX - margin);
+      int top = Math.max(0, (int) collector.minY - margin);
+      int right = Math.min(width, (int) collector.maxX + margin + 1);
+      int bottom = Math.min(height, (int) collector.maxY + margin + 1);
+      // A scattered region saves little over the whole frame
+      if ((long) (right - left) * (bottom - top) <= (long) width * height / 2) {
+        long start = System.nanoTime();
+        try {
+          Map<DecodeHintType,?> regionHints = hints;
+          if (callback != null) {
+            // Points found in the region are passed on in full image coordinates too
+            Map<DecodeHintType,Object> translatedHints = new EnumMap<>(DecodeHintType.class);
+            translatedHints.putAll(hints);
+            int regionLeft = left;
+            int regionTop = top;
+            ResultPointCallback regionCallback = point -> callback.foundPossibleResultPoint(
+                new ResultPoint(point.getX() + regionLeft, point.getY() + regionTop));
+            translatedHints.put(DecodeHintType.NEED_RESULT_POINT_CALLBACK, regionCallback);
+            regionHints = translatedHints;
+          }
+          Result result = delegate.decode(image.crop(left, top, right - left, bottom - top), regionHints);
+          makeAbsolute(result.getResultPoints(), left, top);
+          return result;
+        } catch (ReaderException re) {
+          // continue
+        } finally {
+          levelNanos[factors.length] = System.nanoTime() - start;
+        }
+      }
+    }
+
+    long start = System.nanoTime();
+    try {
+      return delegate.decode(image, hints);
+    } finally {
+      levelNanos[factors.length + 1] = System.nanoTime() - start;
+    }
+  }
+
+  @Override
+  public void reset() {
+    delegate.reset();
+  }
+
+  /**
+   * @return nanoseconds the last decode spent on each level, or -1 for levels it did not try:
+   *  first the downsampled levels in the order their factors were given, then the full resolution
+   *  region around points found on those levels, then the whole full resolution image
+   */
+  public long[] getLevelNanos() {
+    return levelNanos.clone();
+  }
+
+  private static void scale(ResultPoint[] points, int factor) {
+    if (points != null) {
+      for (int i = 0; i < points.length; i++) {
+        ResultPoint point = points[i];
+        if (point != null) {
+          points[i] = scale(point, factor);
+        }
+      }
+    }
+  }
+
+  /**
+   * Maps a point to full resolution, keeping it at the center of the block of pixels it averaged.
+   */
+  private static ResultPoint scale(ResultPoint point, int factor) {
+    float offset = (factor - 1) / 2.0f;
+    return new ResultPoint(point.getX() * factor + offset, point.getY() * factor + offset);
+  }
+
+  private static void makeAbsolute(ResultPoint[] points, int leftOffset, int topOffset) {
+    if (points != null) {
+      for (int i = 0; i < points.length; i++) {
+        ResultPoint relative = points[i];
+        if (relative != null) {
+          points[i] = new ResultPoint(relative.getX() + leftOffset, relative.getY() + topOffset);
+        }
+      }
+    }
+  }
+
+  /**
+   * Records the bounds of points found on the downsampled levels, in full resolution coordinates,
+   * passing each point on to the caller's own callback.
+   */
+  private static final class PointCollector implements ResultPointCallback {
+
+    private final ResultPointCallback callback;
+    private int factor;
+    private boolean found;
+    private float minX;
+    private float minY;
+    private float maxX;
+    private float maxY;
+
+    PointCollector(ResultPointCallback callback) {
+      this.callback = callback;
+    }
+
+    @Override
+    public void foundPossibleResultPoint(ResultPoint point) {
+      ResultPoint scaled = scale(point, factor);
+      float x = scaled.getX();
+      float y = scaled.getY();
+      if (found) {
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        maxX = Math.max(maxX, x);
+        maxY = Math.max(maxY, y);
+      } else {
+        found = true;
+        minX = maxX = x;
+        minY = maxY = y;
+      }
+      if (callback != null) {
+        callback.foundPossibleResultPoint(scaled);
+      }
+    }
+
+  }
+
+}
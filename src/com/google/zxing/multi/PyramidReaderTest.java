@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.multi;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.RGBLuminanceSource;
+import com.google.zxing.Reader;
+import com.google.zxing.ReaderException;
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.ResultPointCallback;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests {@link PyramidReader}.
+ */
+class PyramidReaderTest {
+
+  private static BinaryBitmap frame(int size, int codeLeft, int codeSize) throws WriterException {
+    BitMatrix code = new MultiFormatWriter().encode("PYRAMID", BarcodeFormat.QR_CODE, codeSize, codeSize);
+    int[] pixels = new int[size * size];
+    Arrays.fill(pixels, 0xFFFFFFFF);
+    for (int y = 0; y < codeSize; y++) {
+      for (int x = 0; x < codeSize; x++) {
+        if (code.get(x, y)) {
+          pixels[(codeLeft + y) * size + codeLeft + x] = 0xFF000000;
+        }
+      }
+    }
+    return new BinaryBitmap(new HybridBinarizer(new RGBLuminanceSource(size, size, pixels)));
+  }
+
+  @Test
+  public void testCoarseLevel() throws ReaderException, WriterException {
+    Result expected = new QRCodeReader().decode(frame(800, 100, 600));
+    PyramidReader reader = new PyramidReader(new QRCodeReader());
+    Result result = reader.decode(frame(800, 100, 600));
+    Assertions.assertEquals(expected.getText(), result.getText());
+    // Decoded a quarter of the size, so nothing else was tried
+    long[] levelNanos = reader.getLevelNanos();
+    Assertions.assertTrue(levelNanos[0] >= 0);
+    Assertions.assertEquals(-1L, levelNanos[1]);
+    Assertions.assertEquals(-1L, levelNanos[2]);
+    Assertions.assertEquals(-1L, levelNanos[3]);
+    // Points are scaled back up to full resolution, to within a downsampled pixel
+    ResultPoint[] expectedPoints = expected.getResultPoints();
+    ResultPoint[] points = result.getResultPoints();
+    Assertions.assertEquals(expectedPoints.length, points.length);
+    for (int i = 0; i < points.length; i++) {
+      Assertions.assertTrue(ResultPoint.distance(expectedPoints[i], points[i]) <= 4, String.valueOf(points[i]));
+    }
+  }
+
+  @Test
+  public void testSkippedLevel() throws ReaderException, WriterException {
+    // A quarter of 200 is below the smallest size worth binarizing, so that level is skipped
+    PyramidReader reader = new PyramidReader(new QRCodeReader());
+    Assertions.assertEquals("PYRAMID", reader.decode(frame(200, 20, 160)).getText());
+    long[] levelNanos = reader.getLevelNanos();
+    Assertions.assertEquals(-1L, levelNanos[0]);
+    Assertions.assertTrue(levelNanos[1] >= 0);
+  }
+
+  /**
+   * Finds a point on each downsampled level without decoding anything, then decodes the region
+   * around those points. Tells the levels apart by their width.
+   */
+  private static class RegionReader implements Reader {
+
+    private final List<Integer> widths = new ArrayList<>();
+
+    @Override
+    public Result decode(BinaryBitmap image) throws NotFoundException {
+      return decode(image, null);
+    }
+
+    @Override
+    public Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints) throws NotFoundException {
+      int width = image.getWidth();
+      widths.add(width);
+      ResultPointCallback callback = (ResultPointCallback) hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+      if (width == 100 || width == 200) {
+        callback.foundPossibleResultPoint(new ResultPoint(10, 10));
+      } else if (width != 400) {
+        callback.foundPossibleResultPoint(new ResultPoint(5, 6));
+        return new Result("REGION", null, new ResultPoint[] {new ResultPoint(5, 6)}, BarcodeFormat.QR_CODE);
+      }
+      throw NotFoundException.getNotFoundInstance();
+    }
+
+    @Override
+    public void reset() {
+      // nothing to reset
+    }
+
+  }
+
+  @Test
+  public void testRegion() throws ReaderException, WriterException {
+    RegionReader delegate = new RegionReader();
+    PyramidReader reader = new PyramidReader(delegate);
+    List<ResultPoint> callbackPoints = new ArrayList<>();
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.NEED_RESULT_POINT_CALLBACK, (ResultPointCallback) callbackPoints::add);
+    Result result = reader.decode(frame(400, 20, 100), hints);
+    Assertions.assertEquals("REGION", result.getText());
+
+    // (10, 10) at a quarter and at half size is the center of (40..43, 40..43) and (20..21, 20..21)
+    // at full size. Padded by half the size of their bounds, the region is (9, 9) to (53, 53).
+    Assertions.assertEquals(Arrays.asList(100, 200, 44), delegate.widths);
+    Assertions.assertEquals(3, callbackPoints.size());
+    Assertions.assertEquals(41.5f, callbackPoints.get(0).getX());
+    Assertions.assertEquals(20.5f, callbackPoints.get(1).getY());
+    // Points found in the region are in full image coordinates, both passed to the callback and
+    // in the result
+    Assertions.assertEquals(14.0f, callbackPoints.get(2).getX());
+    Assertions.assertEquals(15.0f, callbackPoints.get(2).getY());
+    Assertions.assertEquals(14.0f, result.getResultPoints()[0].getX());
+    Assertions.assertEquals(15.0f, result.getResultPoints()[0].getY());
+
+    long[] levelNanos = reader.getLevelNanos();
+    Assertions.assertTrue(levelNanos[0] >= 0);
+    Assertions.assertTrue(levelNanos[1] >= 0);
+    Assertions.assertTrue(levelNanos[2] >= 0);
+    Assertions.assertEquals(-1L, levelNanos[3]);
+  }
+
+  @Test
+  public void testFullResolution() throws WriterException {
+    // Nothing found anywhere, so every level is tried, but not the region, since there is none
+    RegionReader delegate = new RegionReader() {
+      @Override
+      public Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints) throws NotFoundException {
+        throw NotFoundException.getNotFoundInstance();
+      }
+    };
+    PyramidReader reader = new PyramidReader(delegate);
+    Assertions.assertThrows(NotFoundException.class, () -> reader.decode(frame(400, 20, 100)));
+    long[] levelNanos = reader.getLevelNanos();
+    Assertions.assertTrue(levelNanos[0] >= 0);
+    Assertions.assertTrue(levelNanos[1] >= 0);
+    Assertions.assertEquals(-1L, levelNanos[2]);
+    Assertions.assertTrue(levelNanos[3] >= 0);
+  }
+
+  @Test
+  public void testFactors() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new PyramidReader(new QRCodeReader(), 4, 1));
+    Assertions.assertEquals(5, new PyramidReader(new QRCodeReader(), 8, 4, 2).getLevelNanos().length);
+  }
+
+}
@@ -239,6 +239,10 @@ public final class MultiFinderPatternFinder extends FinderPatternFinder {
 
     int[] stateCount = new int[5];
     for (int i = iSkip - 1; i < maxI; i += iSkip) {
+      if (Thread.currentThread().isInterrupted()) {
+        // Cancelled, see DecodeHintType.CONCURRENT_READERS
+        throw NotFoundException.getNotFoundInstance();
+      }
       // Get a row of black/white values
       doClearCounts(stateCount);
       int currentState = 0;
@@ -340,4 +340,14 @@ public final class CodaBarReader extends OneDReader {
     return -1;
   }
 
+  @Override
+  protected boolean supportsParallelRowScan() {
+    return true;
+  }
+
+  @Override
+  protected OneDReader newInstance() {
+    return new CodaBarReader();
+  }
+
 }
@@ -559,4 +559,14 @@ public final class Code128Reader extends OneDReader {
 
   }
 
+  @Override
+  protected boolean supportsParallelRowScan() {
+    return true;
+  }
+
+  @Override
+  protected OneDReader newInstance() {
+    return new Code128Reader();
+  }
+
 }
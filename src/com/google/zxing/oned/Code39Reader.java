@@ -337,4 +337,14 @@ public final class Code39Reader extends OneDReader {
     return decoded.toString();
   }
 
+  @Override
+  protected boolean supportsParallelRowScan() {
+    return true;
+  }
+
+  @Override
+  protected OneDReader newInstance() {
+    return new Code39Reader(usingCheckDigit, extendedMode);
+  }
+
 }
@@ -296,4 +296,14 @@ public final class Code93Reader extends OneDReader {
     }
   }
 
+  @Override
+  protected boolean supportsParallelRowScan() {
+    return true;
+  }
+
+  @Override
+  protected OneDReader newInstance() {
+    return new Code93Reader();
+  }
+
 }
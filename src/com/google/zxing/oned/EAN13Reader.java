@@ -135,4 +135,14 @@ public final class EAN13Reader extends UPCEANReader {
     throw NotFoundException.getNotFoundInstance();
   }
 
+  @Override
+  protected boolean supportsParallelRowScan() {
+    return true;
+  }
+
+  @Override
+  protected OneDReader newInstance() {
+    return new EAN13Reader();
+  }
+
 }
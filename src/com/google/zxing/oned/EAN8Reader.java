@@ -72,4 +72,14 @@ public final class EAN8Reader extends UPCEANReader {
     return BarcodeFormat.EAN_8;
   }
 
+  @Override
+  protected boolean supportsParallelRowScan() {
+    return true;
+  }
+
+  @Override
+  protected OneDReader newInstance() {
+    return new EAN8Reader();
+  }
+
 }
@@ -376,4 +376,14 @@ public final class ITFReader extends OneDReader {
     }
   }
 
+  @Override
+  protected boolean supportsParallelRowScan() {
+    return true;
+  }
+
+  @Override
+  protected OneDReader newInstance() {
+    return new ITFReader();
+  }
+
 }
@@ -39,8 +39,11 @@ public final class MultiFormatOneDReader extends OneDReader {
   private static final OneDReader[] EMPTY_ONED_ARRAY = new OneDReader[0];
 
   private final OneDReader[] readers;
+  private final Map<DecodeHintType,?> hints;
+  private final boolean parallelRowScan;
 
   public MultiFormatOneDReader(Map<DecodeHintType,?> hints) {
+    this.hints = hints;
     @SuppressWarnings("unchecked")
     Collection<BarcodeFormat> possibleFormats = hints == null ? null :
         (Collection<BarcodeFormat>) hints.get(DecodeHintType.POSSIBLE_FORMATS);
@@ -87,6 +90,14 @@ public final class MultiFormatOneDReader extends OneDReader {
       readers.add(new RSSExpandedReader());
     }
     this.readers = readers.toArray(EMPTY_ONED_ARRAY);
+    // The RSS readers piece together pairs found on different rows, so they need to see every row.
+    // They are among the default readers, so rows are only scanned in parallel once
+    // POSSIBLE_FORMATS leaves them out.
+    boolean parallelRowScan = true;
+    for (OneDReader reader : this.readers) {
+      parallelRowScan &= reader.supportsParallelRowScan();
+    }
+    this.parallelRowScan = parallelRowScan;
   }
 
   @Override
@@ -111,4 +122,14 @@ public final class MultiFormatOneDReader extends OneDReader {
     }
   }
 
+  @Override
+  protected boolean supportsParallelRowScan() {
+    return parallelRowScan;
+  }
+
+  @Override
+  protected OneDReader newInstance() {
+    return new MultiFormatOneDReader(hints);
+  }
+
 }
@@ -40,8 +40,10 @@ public final class MultiFormatUPCEANReader extends OneDReader {
   private static final UPCEANReader[] EMPTY_READER_ARRAY = new UPCEANReader[0];
 
   private final UPCEANReader[] readers;
+  private final Map<DecodeHintType,?> hints;
 
   public MultiFormatUPCEANReader(Map<DecodeHintType,?> hints) {
+    this.hints = hints;
     @SuppressWarnings("unchecked")
     Collection<BarcodeFormat> possibleFormats = hints == null ? null :
         (Collection<BarcodeFormat>) hints.get(DecodeHintType.POSSIBLE_FORMATS);
@@ -122,4 +124,14 @@ public final class MultiFormatUPCEANReader extends OneDReader {
     }
   }
 
+  @Override
+  protected boolean supportsParallelRowScan() {
+    return true;
+  }
+
+  @Override
+  protected OneDReader newInstance() {
+    return new MultiFormatUPCEANReader(hints);
+  }
+
 }
@@ -27,10 +27,16 @@ import com.google.zxing.Result;
 import com.google.zxing.ResultMetadataType;
 import com.google.zxing.ResultPoint;
 import com.google.zxing.common.BitArray;
+import com.google.zxing.common.DecodeContext;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Encapsulates functionality and implementation that is common to all families
@@ -54,7 +60,8 @@ public abstract class OneDReader implements Reader {
       return doDecode(image, hints);
     } catch (NotFoundException nfe) {
       boolean tryHarder = hints != null && hints.containsKey(DecodeHintType.TRY_HARDER);
-      if (tryHarder && image.isRotateSupported()) {
+      // Not worth rotating the image if the scan was cancelled, see DecodeHintType.CONCURRENT_READERS
+      if (tryHarder && image.isRotateSupported() && !Thread.currentThread().isInterrupted()) {
         BinaryBitmap rotatedImage = image.rotateCounterClockwise();
         Result result = doDecode(rotatedImage, hints);
         // Record that we found it rotated 90 degrees CCW / 270 degrees CW
@@ -86,6 +93,28 @@ public abstract class OneDReader implements Reader {
     // do nothing
   }
 
+  /**
+   * @return true if {@link #newInstance()} can make copies of this reader for
+   *  {@link DecodeHintType#PARALLEL_ROW_SCAN}. Readers that combine what they find on different
+   *  rows must see every row themselves, so they return false and their rows are always scanned
+   *  sequentially.
+   */
+  protected boolean supportsParallelRowScan() {
+    return false;
+  }
+
+  /**
+   * Creates a new reader configured like this one, used by {@link DecodeHintType#PARALLEL_ROW_SCAN}
+   * to give each worker its own reader. Readers keep scratch state between calls to
+   * {@link #decodeRow(int, BitArray, Map)}, so one instance can't decode rows on several threads
+   * at once. Only called if {@link #supportsParallelRowScan()} returns true.
+   *
+   * @return a new reader
+   */
+  protected OneDReader newInstance() {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * We're going to examine rows from the middle outward, searching alternately above and below the
    * middle, and farther out each time. rowStep is the number of rows between each successive
@@ -104,7 +133,6 @@ public abstract class OneDReader implements Reader {
                           Map<DecodeHintType,?> hints) throws NotFoundException {
     int width = image.getWidth();
     int height = image.getHeight();
-    BitArray row = new BitArray(width);
 
     boolean tryHarder = hints != null && hints.containsKey(DecodeHintType.TRY_HARDER);
     int rowStep = Math.max(1, height >> (tryHarder ? 8 : 5));
@@ -115,63 +143,213 @@ public abstract class OneDReader implements Reader {
       maxLines = 15; // 15 rows spaced 1/32 apart is roughly the middle half of the image
     }
 
-    int middle = height / 2;
-    for (int x = 0; x < maxLines; x++) {
-
-      // Scanning from the middle out. Determine which row we're looking at next:
-      int rowStepsAboveOrBelow = (x + 1) / 2;
-      boolean isAbove = (x & 0x01) == 0; // i.e. is x even?
-      int rowNumber = middle + rowStep * (isAbove ? rowStepsAboveOrBelow : -rowStepsAboveOrBelow);
-      if (rowNumber < 0 || rowNumber >= height) {
-        // Oops, if we run off the top or bottom, stop
-        break;
+    ForkJoinPool pool = hints == null ? null : (ForkJoinPool) hints.get(DecodeHintType.PARALLEL_ROW_SCAN);
+    if (pool != null && pool.getParallelism() > 1 && supportsParallelRowScan()) {
+      return doDecodeParallel(image, hints, pool, rowStep, maxLines);
+    }
+
+    DecodeContext context = DecodeContext.current();
+    BitArray borrowedRow = context.borrowRow(width);
+    BitArray row = borrowedRow;
+    try {
+      int middle = height / 2;
+      for (int x = 0; x < maxLines; x++) {
+        if (Thread.currentThread().isInterrupted()) {
+          // Cancelled, see DecodeHintType.CONCURRENT_READERS
+          throw NotFoundException.getNotFoundInstance();
+        }
+
+        // Scanning from the middle out. Determine which row we're looking at next:
+        int rowNumber = rowNumber(middle, rowStep, x);
+        if (rowNumber < 0 || rowNumber >= height) {
+          // Oops, if we run off the top or bottom, stop
+          break;
+        }
+
+        // Estimate black point for this row and load it:
+        try {
+          row = image.getBlackRow(rowNumber, row);
+        } catch (NotFoundException ignored) {
+          continue;
+        }
+
+        // While we have the image data in a BitArray, it's fairly cheap to reverse it in place to
+        // handle decoding upside down barcodes.
+        for (int attempt = 0; attempt < 2; attempt++) {
+          if (attempt == 1) { // trying again?
+            row.reverse(); // reverse the row and continue
+            // This means we will only ever draw result points *once* in the life of this method
+            // since we want to avoid drawing the wrong points after flipping the row, and,
+            // don't want to clutter with noise from every single row scan -- just the scans
+            // that start on the center line.
+            hints = withoutResultPointCallback(hints);
+          }
+          try {
+            return decodeOrientedRow(rowNumber, row, hints, attempt == 1);
+          } catch (ReaderException re) {
+            // continue -- just couldn't decode this row
+          }
+        }
       }
 
-      // Estimate black point for this row and load it:
-      try {
-        row = image.getBlackRow(rowNumber, row);
-      } catch (NotFoundException ignored) {
-        continue;
+      throw NotFoundException.getNotFoundInstance();
+    } finally {
+      context.release(borrowedRow);
+    }
+  }
+
+  /**
+   * Parallel version of {@link #doDecode(BinaryBitmap, Map)}. The same candidate rows are visited,
+   * but they are dealt out round-robin to one worker per unit of parallelism, so every worker still
+   * moves from the middle outward. Each worker has its own reader, bitmap and row, and the first
+   * runs on the calling thread. Once a worker decodes a row, the others stop as soon as they reach
+   * a row further from the middle, and the result from the row closest to the middle wins, which is
+   * the row the sequential scan would have returned. Interrupting the calling thread stops every
+   * worker, as it stops the sequential scan.
+   */
+  private Result doDecodeParallel(BinaryBitmap image,
+                                  Map<DecodeHintType,?> hints,
+                                  ForkJoinPool pool,
+                                  int rowStep,
+                                  int maxLines) throws NotFoundException {
+    int height = image.getHeight();
+    int middle = height / 2;
+    // Count the candidate rows the sequential scan would visit before running off the image
+    int candidates = 0;
+    while (candidates < maxLines && isRowInImage(middle, rowStep, candidates, height)) {
+      candidates++;
+    }
+    int workers = Math.min(pool.getParallelism(), candidates);
+    if (workers == 0) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+
+    // Result points are only drawn for the first candidate row, as in the sequential scan
+    Map<DecodeHintType,?> laterHints = withoutResultPointCallback(hints);
+    Thread caller = Thread.currentThread();
+    AtomicInteger bestCandidate = new AtomicInteger(Integer.MAX_VALUE);
+    Result[] results = new Result[candidates];
+    List<ForkJoinTask<?>> tasks = new ArrayList<>(workers - 1);
+    try {
+      for (int w = 1; w < workers; w++) {
+        int firstCandidate = w;
+        OneDReader reader = newInstance();
+        BinaryBitmap workerImage = image.copy();
+        int numWorkers = workers;
+        int numCandidates = candidates;
+        tasks.add(pool.submit(() -> scanCandidates(reader, workerImage, hints, laterHints, middle, rowStep,
+            firstCandidate, numWorkers, numCandidates, bestCandidate, results, caller)));
       }
+      scanCandidates(this, image, hints, laterHints, middle, rowStep, 0, workers, candidates, bestCandidate,
+          results, caller);
+    } finally {
+      // The workers check the caller's interrupt flag, so joining them can't take long once it is set
+      for (ForkJoinTask<?> task : tasks) {
+        task.quietlyJoin();
+      }
+    }
 
-      // While we have the image data in a BitArray, it's fairly cheap to reverse it in place to
-      // handle decoding upside down barcodes.
-      for (int attempt = 0; attempt < 2; attempt++) {
-        if (attempt == 1) { // trying again?
-          row.reverse(); // reverse the row and continue
-          // This means we will only ever draw result points *once* in the life of this method
-          // since we want to avoid drawing the wrong points after flipping the row, and,
-          // don't want to clutter with noise from every single row scan -- just the scans
-          // that start on the center line.
-          if (hints != null && hints.containsKey(DecodeHintType.NEED_RESULT_POINT_CALLBACK)) {
-            Map<DecodeHintType,Object> newHints = new EnumMap<>(DecodeHintType.class);
-            newHints.putAll(hints);
-            newHints.remove(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
-            hints = newHints;
-          }
+    int best = bestCandidate.get();
+    if (best == Integer.MAX_VALUE || caller.isInterrupted()) {
+      // Not found, or cancelled, see DecodeHintType.CONCURRENT_READERS
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return results[best];
+  }
+
+  /**
+   * Scans every numWorkers-th candidate row from firstCandidate on, until one decodes, another
+   * worker decodes a row nearer the middle, or caller is interrupted.
+   */
+  private static void scanCandidates(OneDReader reader,
+                                     BinaryBitmap image,
+                                     Map<DecodeHintType,?> hints,
+                                     Map<DecodeHintType,?> laterHints,
+                                     int middle,
+                                     int rowStep,
+                                     int firstCandidate,
+                                     int numWorkers,
+                                     int numCandidates,
+                                     AtomicInteger bestCandidate,
+                                     Result[] results,
+                                     Thread caller) {
+    DecodeContext context = DecodeContext.current();
+    BitArray borrowedRow = context.borrowRow(image.getWidth());
+    BitArray row = borrowedRow;
+    try {
+      for (int x = firstCandidate; x < numCandidates && x < bestCandidate.get(); x += numWorkers) {
+        if (caller.isInterrupted()) {
+          return;
         }
+        int rowNumber = rowNumber(middle, rowStep, x);
         try {
-          // Look for a barcode
-          Result result = decodeRow(rowNumber, row, hints);
-          // We found our barcode
+          row = image.getBlackRow(rowNumber, row);
+        } catch (NotFoundException ignored) {
+          continue;
+        }
+        for (int attempt = 0; attempt < 2; attempt++) {
           if (attempt == 1) {
-            // But it was upside down, so note that
-            result.putMetadata(ResultMetadataType.ORIENTATION, 180);
-            // And remember to flip the result points horizontally.
-            ResultPoint[] points = result.getResultPoints();
-            if (points != null) {
-              points[0] = new ResultPoint(width - points[0].getX() - 1, points[0].getY());
-              points[1] = new ResultPoint(width - points[1].getX() - 1, points[1].getY());
-            }
+            row.reverse();
+          }
+          try {
+            results[x] = reader.decodeOrientedRow(rowNumber, row,
+                x == 0 && attempt == 0 ? hints : laterHints, attempt == 1);
+            bestCandidate.accumulateAndGet(x, Math::min);
+            return;
+          } catch (ReaderException re) {
+            // continue -- just couldn't decode this row
           }
-          return result;
-        } catch (ReaderException re) {
-          // continue -- just couldn't decode this row
         }
       }
+    } finally {
+      context.release(borrowedRow);
     }
+  }
+
+  private static int rowNumber(int middle, int rowStep, int x) {
+    int rowStepsAboveOrBelow = (x + 1) / 2;
+    boolean isAbove = (x & 0x01) == 0; // i.e. is x even?
+    return middle + rowStep * (isAbove ? rowStepsAboveOrBelow : -rowStepsAboveOrBelow);
+  }
+
+  private static boolean isRowInImage(int middle, int rowStep, int x, int height) {
+    int rowNumber = rowNumber(middle, rowStep, x);
+    return rowNumber >= 0 && rowNumber < height;
+  }
+
+  private static Map<DecodeHintType,?> withoutResultPointCallback(Map<DecodeHintType,?> hints) {
+    if (hints != null && hints.containsKey(DecodeHintType.NEED_RESULT_POINT_CALLBACK)) {
+      Map<DecodeHintType,Object> newHints = new EnumMap<>(DecodeHintType.class);
+      newHints.putAll(hints);
+      newHints.remove(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+      return newHints;
+    }
+    return hints;
+  }
 
-    throw NotFoundException.getNotFoundInstance();
+  /**
+   * Decodes a row that may have been reversed to look for an upside down barcode, and if so fixes
+   * up the orientation and result points of the result.
+   */
+  private Result decodeOrientedRow(int rowNumber,
+                                   BitArray row,
+                                   Map<DecodeHintType,?> hints,
+                                   boolean reversed) throws ReaderException {
+    // Look for a barcode
+    Result result = decodeRow(rowNumber, row, hints);
+    // We found our barcode
+    if (reversed) {
+      // But it was upside down, so note that
+      result.putMetadata(ResultMetadataType.ORIENTATION, 180);
+      // And remember to flip the result points horizontally.
+      ResultPoint[] points = result.getResultPoints();
+      if (points != null) {
+        int width = row.getSize();
+        points[0] = new ResultPoint(width - points[0].getX() - 1, points[0].getY());
+        points[1] = new ResultPoint(width - points[1].getX() - 1, points[1].getY());
+      }
+    }
+    return result;
   }
 
   /**
@@ -196,21 +374,18 @@ public abstract class OneDReader implements Reader {
     if (start >= end) {
       throw NotFoundException.getNotFoundInstance();
     }
-    boolean isWhite = !row.get(start);
+    boolean isBlack = row.get(start);
     int counterPosition = 0;
     int i = start;
-    while (i < end) {
-      if (row.get(i) != isWhite) {
-        counters[counterPosition]++;
-      } else {
-        if (++counterPosition == numCounters) {
-          break;
-        } else {
-          counters[counterPosition] = 1;
-          isWhite = !isWhite;
-        }
+    while (true) {
+      // Skip the whole run at once rather than counting it a pixel at a time
+      int runEnd = isBlack ? row.getNextUnset(i) : row.getNextSet(i);
+      counters[counterPosition] = runEnd - i;
+      i = runEnd;
+      if (i == end || ++counterPosition == numCounters) {
+        break;
       }
-      i++;
+      isBlack = !isBlack;
     }
     // If we read fully the last section of pixels and filled up our counters -- or filled
     // the last counter but ran off the side of the image, OK. Otherwise, a problem.
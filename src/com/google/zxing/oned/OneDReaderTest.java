@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.oned;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.RGBLuminanceSource;
+import com.google.zxing.ReaderException;
+import com.google.zxing.Result;
+import com.google.zxing.ResultMetadataType;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests {@link DecodeHintType#PARALLEL_ROW_SCAN} in {@link OneDReader}.
+ */
+class OneDReaderTest {
+
+  private static final int WIDTH = 400;
+  private static final int HEIGHT = 600;
+
+  /**
+   * Three Code 128 barcodes in bands, none of them across the middle row. The one starting at
+   * row 340 is the nearest to the middle, so it is the one a scan from the middle out finds.
+   */
+  private static BinaryBitmap stackedImage() {
+    int[] pixels = new int[WIDTH * HEIGHT];
+    Arrays.fill(pixels, 0xFFFFFFFF);
+    draw(pixels, "TOP-0001", 20, 120);
+    draw(pixels, "MIDDLE-0002", 340, 440);
+    draw(pixels, "BOTTOM-0003", 480, 580);
+    return new BinaryBitmap(new HybridBinarizer(new RGBLuminanceSource(WIDTH, HEIGHT, pixels)));
+  }
+
+  private static void draw(int[] pixels, String contents, int top, int bottom) {
+    BitMatrix code = new Code128Writer().encode(contents, BarcodeFormat.CODE_128, WIDTH, 1);
+    for (int y = top; y < bottom; y++) {
+      for (int x = 0; x < WIDTH; x++) {
+        if (code.get(x, 0)) {
+          pixels[y * WIDTH + x] = 0xFF000000;
+        }
+      }
+    }
+  }
+
+  private static Map<DecodeHintType,Object> hints(ForkJoinPool pool, BarcodeFormat... formats) {
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+    if (formats.length > 0) {
+      hints.put(DecodeHintType.POSSIBLE_FORMATS, Arrays.asList(formats));
+    }
+    if (pool != null) {
+      hints.put(DecodeHintType.PARALLEL_ROW_SCAN, pool);
+    }
+    return hints;
+  }
+
+  private static void assertSameResult(Result expected, Result actual) {
+    Assertions.assertEquals(expected.getText(), actual.getText());
+    Assertions.assertEquals(expected.getBarcodeFormat(), actual.getBarcodeFormat());
+    Assertions.assertEquals(expected.getResultMetadata().get(ResultMetadataType.ORIENTATION),
+        actual.getResultMetadata().get(ResultMetadataType.ORIENTATION));
+    ResultPoint[] expectedPoints = expected.getResultPoints();
+    ResultPoint[] actualPoints = actual.getResultPoints();
+    Assertions.assertEquals(expectedPoints.length, actualPoints.length);
+    for (int i = 0; i < expectedPoints.length; i++) {
+      Assertions.assertEquals(expectedPoints[i].getX(), actualPoints[i].getX());
+      Assertions.assertEquals(expectedPoints[i].getY(), actualPoints[i].getY());
+    }
+  }
+
+  @Test
+  public void testParallelFindsSameRow() throws ReaderException {
+    Result sequential = new Code128Reader().decode(stackedImage(), hints(null));
+    Assertions.assertEquals("MIDDLE-0002", sequential.getText());
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      // Repeated, since which worker finishes first varies from run to run
+      for (int i = 0; i < 20; i++) {
+        assertSameResult(sequential, new Code128Reader().decode(stackedImage(), hints(pool)));
+        assertSameResult(sequential, new MultiFormatOneDReader(hints(null, BarcodeFormat.CODE_128,
+            BarcodeFormat.EAN_13)).decode(stackedImage(), hints(pool, BarcodeFormat.CODE_128, BarcodeFormat.EAN_13)));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testSupportsParallelRowScan() {
+    Assertions.assertTrue(new Code128Reader().supportsParallelRowScan());
+    Assertions.assertTrue(new MultiFormatUPCEANReader(null).supportsParallelRowScan());
+    Assertions.assertTrue(new MultiFormatOneDReader(hints(null, BarcodeFormat.CODE_128, BarcodeFormat.UPC_A))
+        .supportsParallelRowScan());
+    // The RSS readers combine rows, and are among the default readers
+    Assertions.assertFalse(new MultiFormatOneDReader(null).supportsParallelRowScan());
+    Assertions.assertFalse(new MultiFormatOneDReader(hints(null, BarcodeFormat.CODE_128, BarcodeFormat.RSS_14))
+        .supportsParallelRowScan());
+  }
+
+  @Test
+  public void testSequentialFallback() throws ReaderException {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      Result result = new MultiFormatOneDReader(null).decode(stackedImage(), hints(pool));
+      Assertions.assertEquals("MIDDLE-0002", result.getText());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testInterruptedCaller() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    Thread.currentThread().interrupt();
+    try {
+      new Code128Reader().decode(stackedImage(), hints(pool));
+      Assertions.fail("Interrupted scan should not find anything");
+    } catch (NotFoundException nfe) {
+      // expected
+    } catch (ReaderException re) {
+      Assertions.fail(re.toString());
+    } finally {
+      Thread.interrupted();
+      pool.shutdown();
+    }
+  }
+
+}
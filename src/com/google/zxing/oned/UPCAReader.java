@@ -87,4 +87,14 @@ public final class UPCAReader extends UPCEANReader {
     }
   }
 
+  @Override
+  protected boolean supportsParallelRowScan() {
+    return true;
+  }
+
+  @Override
+  protected OneDReader newInstance() {
+    return new UPCAReader();
+  }
+
 }
@@ -179,4 +179,14 @@ public final class UPCEReader extends UPCEANReader {
     return result.toString();
   }
 
+  @Override
+  protected boolean supportsParallelRowScan() {
+    return true;
+  }
+
+  @Override
+  protected OneDReader newInstance() {
+    return new UPCEReader();
+  }
+
 }
@@ -21,6 +21,7 @@ import com.google.zxing.DecodeHintType;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.ResultPoint;
 import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.DecodeContext;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -80,32 +81,37 @@ public final class Detector {
     //boolean tryHarder = hints != null && hints.containsKey(DecodeHintType.TRY_HARDER);
 
     BitMatrix originalMatrix = image.getBlackMatrix();
-    for (int rotation : ROTATIONS) {
-      BitMatrix bitMatrix = applyRotation(originalMatrix, rotation);
-      List<ResultPoint[]> barcodeCoordinates = detect(multiple, bitMatrix);
-      if (!barcodeCoordinates.isEmpty()) {
-        return new PDF417DetectorResult(bitMatrix, barcodeCoordinates, rotation);
+    List<ResultPoint[]> barcodeCoordinates = detect(multiple, originalMatrix);
+    if (!barcodeCoordinates.isEmpty()) {
+      return new PDF417DetectorResult(originalMatrix, barcodeCoordinates, 0);
+    }
+    // Rather than a fresh copy for each rotation, keep turning one borrowed copy further. It is
+    // only copied out if a barcode is found in it, which most images won't have.
+    DecodeContext context = DecodeContext.current();
+    BitMatrix rotated = context.borrowCopy(originalMatrix);
+    try {
+      int degrees = 0;
+      for (int rotation : ROTATIONS) {
+        if (rotation == 0) {
+          continue;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+          // Cancelled, see DecodeHintType.CONCURRENT_READERS
+          throw NotFoundException.getNotFoundInstance();
+        }
+        rotated.rotate((rotation - degrees + 360) % 360);
+        degrees = rotation;
+        barcodeCoordinates = detect(multiple, rotated);
+        if (!barcodeCoordinates.isEmpty()) {
+          return new PDF417DetectorResult(rotated.clone(), barcodeCoordinates, rotation);
+        }
       }
+    } finally {
+      context.release(rotated);
     }
     return new PDF417DetectorResult(originalMatrix, new ArrayList<>(), 0);
   }
 
-  /**
-   * Applies a rotation to the supplied BitMatrix.
-   * @param matrix bit matrix to apply rotation to
-   * @param rotation the degrees of rotation to apply
-   * @return BitMatrix with applied rotation
-   */
-  private static BitMatrix applyRotation(BitMatrix matrix, int rotation) {
-    if (rotation % 360 == 0) {
-      return matrix;
-    }
-
-    BitMatrix newMatrix = matrix.clone();
-    newMatrix.rotate(rotation);
-    return newMatrix;
-  }
-
   /**
    * Detects PDF417 codes in an image. Only checks 0 degree rotation
    * @param multiple if true, then the image is searched for multiple codes. If false, then at most one code will
@@ -214,6 +220,10 @@ public final class Detector {
     boolean found = false;
     int[] counters = new int[pattern.length];
     for (; startRow < height; startRow += ROW_STEP) {
+      if (Thread.currentThread().isInterrupted()) {
+        // Cancelled, see DecodeHintType.CONCURRENT_READERS. Reported as no pattern found.
+        break;
+      }
       int[] loc = findGuardPattern(matrix, startColumn, startRow, width, pattern, counters);
       if (loc != null) {
         while (startRow > 0) {
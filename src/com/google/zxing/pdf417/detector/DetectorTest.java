@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.pdf417.detector;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.RGBLuminanceSource;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.DecodeContext;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.pdf417.PDF417Writer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Tests that {@link Detector} finds rotated codes in the one copy it keeps rotating further the
+ * same as it did when it rotated a fresh copy of the image for each angle.
+ */
+class DetectorTest {
+
+  private static BinaryBitmap bitmap(BitMatrix matrix) {
+    int width = matrix.getWidth();
+    int height = matrix.getHeight();
+    int[] pixels = new int[width * height];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        pixels[y * width + x] = matrix.get(x, y) ? 0xFF000000 : 0xFFFFFFFF;
+      }
+    }
+    return new BinaryBitmap(new HybridBinarizer(new RGBLuminanceSource(width, height, pixels)));
+  }
+
+  private static BitMatrix code() throws WriterException {
+    return new PDF417Writer().encode("DETECTOR ROTATIONS", BarcodeFormat.PDF_417, 360, 140);
+  }
+
+  private static void assertSamePoints(List<ResultPoint[]> expected, List<ResultPoint[]> actual) {
+    Assertions.assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      ResultPoint[] expectedPoints = expected.get(i);
+      ResultPoint[] points = actual.get(i);
+      Assertions.assertEquals(expectedPoints.length, points.length);
+      for (int j = 0; j < points.length; j++) {
+        Assertions.assertEquals(expectedPoints[j], points[j]);
+      }
+    }
+  }
+
+  private static void assertRotations() throws NotFoundException, WriterException {
+    BitMatrix code = code();
+    for (int imageRotation : new int[] {0, 90, 180, 270}) {
+      BitMatrix turned = code.clone();
+      turned.rotate(imageRotation);
+      BinaryBitmap image = bitmap(turned);
+      BitMatrix original = image.getBlackMatrix();
+      PDF417DetectorResult result = Detector.detect(image, null, false);
+      Assertions.assertTrue(!result.getPoints().isEmpty(), "image rotated " + imageRotation);
+      int rotation = result.getRotation();
+      Assertions.assertEquals((360 - imageRotation) % 360, rotation);
+
+      // What the detector used to do: a fresh copy of the original, rotated straight to the angle
+      BitMatrix expectedBits = original.clone();
+      expectedBits.rotate(rotation);
+      Assertions.assertEquals(expectedBits, result.getBits());
+      BinaryBitmap upright = bitmap(expectedBits);
+      Assertions.assertEquals(expectedBits, upright.getBlackMatrix());
+      PDF417DetectorResult expected = Detector.detect(upright, null, false);
+      Assertions.assertEquals(0, expected.getRotation());
+      assertSamePoints(expected.getPoints(), result.getPoints());
+
+      // The result is the detector's own copy, not the one it borrowed and gave back
+      DecodeContext context = DecodeContext.current();
+      BitMatrix borrowed = context.borrowCopy(original);
+      try {
+        Assertions.assertNotSame(borrowed, result.getBits());
+        Assertions.assertEquals(expectedBits, result.getBits());
+      } finally {
+        context.release(borrowed);
+      }
+    }
+  }
+
+  @Test
+  public void testRotations() throws NotFoundException, WriterException {
+    assertRotations();
+  }
+
+  @Test
+  public void testRotationsWhileBorrowed() throws NotFoundException, WriterException {
+    // The detector gets its own copy when this thread's is already lent out
+    DecodeContext context = DecodeContext.current();
+    BitMatrix outer = context.borrowCopy(new BitMatrix(10));
+    try {
+      assertRotations();
+    } finally {
+      context.release(outer);
+    }
+  }
+
+}
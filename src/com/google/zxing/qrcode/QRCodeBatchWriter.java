@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.qrcode;
+
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.Encoder;
+import com.google.zxing.qrcode.encoder.QRCode;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Renders many QR Codes of the same size and error correction level, such as a run of tickets or
+ * labels, as {@link QRCodeWriter} would render each of them. The hints are read once for the whole
+ * batch rather than for every code, and the contents are split into chunks encoded in parallel on
+ * a {@link ForkJoinPool}. Each chunk renders all of its codes into the same {@link BitMatrix}, so
+ * codes are handed to a {@link Sink} as they are made instead of being collected first. The
+ * function patterns of each version are laid out once by the encoder and shared by every code.
+ *
+ * Instances hold no state between calls, so they are safe to use from several threads at once.
+ */
+public final class QRCodeBatchWriter {
+
+  /**
+   * Receives the codes of a batch.
+   */
+  public interface Sink {
+
+    /**
+     * Called once for each code, on whichever thread encoded it, so possibly for several codes at
+     * the same time.
+     *
+     * @param index position of the code's contents in the batch
+     * @param matrix the rendered code. It is reused for a later code once this method returns, so
+     *  it must be written out or copied before then.
+     */
+    void accept(int index, BitMatrix matrix);
+
+    /**
+     * Called instead of {@link #accept(int, BitMatrix)} for contents that could not be encoded, on
+     * whichever thread tried to. The rest of the batch is still encoded. Does nothing by default.
+     *
+     * @param index position of the contents in the batch
+     * @param cause why they could not be encoded
+     */
+    default void failed(int index, WriterException cause) {
+      // the first failure is thrown by encode() anyway
+    }
+
+  }
+
+  private static final int QUIET_ZONE_SIZE = 4;
+  // More chunks than threads, so that a thread that finishes early can take over another's work
+  private static final int CHUNKS_PER_THREAD = 4;
+
+  private final int width;
+  private final int height;
+  private final Map<EncodeHintType,Object> hints;
+  private final ErrorCorrectionLevel errorCorrectionLevel;
+  private final int quietZone;
+  private final ForkJoinPool pool;
+
+  /**
+   * Creates a writer that encodes on the common pool, or on the calling thread if there is only
+   * one processor, where other threads would only add hand-offs and contention for it.
+   *
+   * @param width width to render each code at, as for {@link QRCodeWriter}
+   * @param height height to render each code at
+   * @param hints hints for every code, as for {@link QRCodeWriter}
+   */
+  public QRCodeBatchWriter(int width, int height, Map<EncodeHintType,?> hints) {
+    this(width, height, hints,
+         Runtime.getRuntime().availableProcessors() > 1 ? ForkJoinPool.commonPool() : null);
+  }
+
+  /**
+   * @param width width to render each code at, as for {@link QRCodeWriter}
+   * @param height height to render each code at
+   * @param hints hints for every code, as for {@link QRCodeWriter}. They are copied, so later
+   *  changes to the map have no effect. {@link EncodeHintType#PARALLEL_MASK_SEARCH} is ignored,
+   *  since the codes themselves are encoded in parallel.
+   * @param pool pool to encode chunks of the batch on, or null to encode on the calling thread
+   */
+  public QRCodeBatchWriter(int width, int height, Map<EncodeHintType,?> hints, ForkJoinPool pool) {
+    if (width < 0 || height < 0) {
+      throw new IllegalArgumentException("Requested dimensions are too small: " + width + 'x' +
+          height);
+    }
+    this.width = width;
+    this.height = height;
+    this.pool = pool;
+    this.hints = new EnumMap<>(EncodeHintType.class);
+    if (hints != null) {
+      this.hints.putAll(hints);
+    }
+    this.hints.remove(EncodeHintType.PARALLEL_MASK_SEARCH);
+
+    ErrorCorrectionLevel errorCorrectionLevel = ErrorCorrectionLevel.L;
+    int quietZone = QUIET_ZONE_SIZE;
+    if (this.hints.containsKey(EncodeHintType.ERROR_CORRECTION)) {
+      errorCorrectionLevel = ErrorCorrectionLevel.valueOf(this.hints.get(EncodeHintType.ERROR_CORRECTION).toString());
+    }
+    if (this.hints.containsKey(EncodeHintType.MARGIN)) {
+      quietZone = Integer.parseInt(this.hints.get(EncodeHintType.MARGIN).toString());
+    }
+    this.errorCorrectionLevel = errorCorrectionLevel;
+    this.quietZone = quietZone;
+  }
+
+  /**
+   * Encodes and renders each of contents, passing the codes to sink. Returns once every code has
+   * been passed to it. Contents that cannot be encoded are passed to
+   * {@link Sink#failed(int, WriterException)} and skipped, and every other code is still made. Any
+   * other exception, such as one thrown by the sink, stops every chunk and is rethrown once none
+   * of them is running any more.
+   *
+   * @param contents the contents of each code. A stream larger than memory can be passed a batch
+   *  at a time.
+   * @param sink receives each code
+   * @throws WriterException for the first contents in the batch that could not be encoded, once
+   *  all the others have been
+   */
+  public void encode(List<String> contents, Sink sink) throws WriterException {
+    // Copied, so that chunks index into an array whatever kind of list they are given
+    String[] array = contents.toArray(new String[0]);
+    int size = array.length;
+    AtomicBoolean stop = new AtomicBoolean();
+    int chunkCount = pool == null ? 1 : Math.min(size, pool.getParallelism() * CHUNKS_PER_THREAD);
+    List<ForkJoinTask<WriterException>> tasks = new ArrayList<>(Math.max(0, chunkCount - 1));
+    WriterException failure = null;
+    boolean completed = false;
+    try {
+      for (int chunk = 1; chunk < chunkCount; chunk++) {
+        int from = (int) ((long) size * chunk / chunkCount);
+        int to = (int) ((long) size * (chunk + 1) / chunkCount);
+        tasks.add(pool.submit(() -> encodeChunk(array, from, to, sink, stop)));
+      }
+      // Chunks are in order, so the first failure among them is the first in the batch
+      failure = encodeChunk(array, 0, chunkCount <= 1 ? size : size / chunkCount, sink, stop);
+      for (ForkJoinTask<WriterException> task : tasks) {
+        WriterException chunkFailure = task.join();
+        if (failure == null) {
+          failure = chunkFailure;
+        }
+      }
+      completed = true;
+    } finally {
+      if (!completed) {
+        // Something other than a WriterException was thrown. Stop the other chunks and wait for
+        // them, so that none passes a code to the sink after this returns
+        stop.set(true);
+        for (ForkJoinTask<WriterException> task : tasks) {
+          task.quietlyJoin();
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * @return the failure for the first contents in the chunk that could not be encoded, or null if
+   *  every code in it was made
+   */
+  private WriterException encodeChunk(String[] contents, int from, int to, Sink sink, AtomicBoolean stop) {
+    BitMatrix output = null;
+    WriterException failure = null;
+    for (int i = from; i < to && !stop.get(); i++) {
+      String content = contents[i];
+      if (content.isEmpty()) {
+        throw new IllegalArgumentException("Found empty contents at " + i);
+      }
+      try {
+        QRCode code = Encoder.encode(content, errorCorrectionLevel, hints);
+        output = QRCodeWriter.renderResult(code, width, height, quietZone, output);
+      } catch (WriterException we) {
+        if (failure == null) {
+          failure = we;
+        }
+        sink.failed(i, we);
+        continue;
+      }
+      sink.accept(i, output);
+    }
+    return failure;
+  }
+
+}
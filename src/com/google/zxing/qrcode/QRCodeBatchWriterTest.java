@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.qrcode;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Tests {@link QRCodeBatchWriter}.
+ */
+class QRCodeBatchWriterTest {
+
+  private static List<String> tickets(int count) {
+    List<String> tickets = new LinkedList<>();
+    for (int i = 0; i < count; i++) {
+      tickets.add("TICKET-" + i);
+    }
+    return tickets;
+  }
+
+  @Test
+  public void testSameAsQRCodeWriter() throws WriterException {
+    List<String> tickets = tickets(40);
+    String[] rendered = new String[tickets.size()];
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      new QRCodeBatchWriter(100, 100, null, pool).encode(tickets, (index, matrix) -> rendered[index] = matrix.toString());
+    } finally {
+      pool.shutdown();
+    }
+    QRCodeWriter writer = new QRCodeWriter();
+    for (int i = 0; i < rendered.length; i++) {
+      Assertions.assertEquals(writer.encode(tickets.get(i), BarcodeFormat.QR_CODE, 100, 100).toString(), rendered[i]);
+    }
+  }
+
+  @Test
+  public void testContentsFailureSkipsOnlyThoseCodes() {
+    // Too long for any version, so these cannot be encoded
+    String tooLong = new String(new char[8000]).replace('\0', 'X');
+    List<String> tickets = tickets(40);
+    int[] failing = {5, 17, 33};
+    for (int index : failing) {
+      tickets.set(index, tooLong);
+    }
+    AtomicIntegerArray accepted = new AtomicIntegerArray(tickets.size());
+    WriterException[] failures = new WriterException[tickets.size()];
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      WriterException thrown = Assertions.assertThrows(WriterException.class,
+          () -> new QRCodeBatchWriter(100, 100, null, pool).encode(tickets, new QRCodeBatchWriter.Sink() {
+            @Override
+            public void accept(int index, BitMatrix matrix) {
+              accepted.incrementAndGet(index);
+            }
+
+            @Override
+            public void failed(int index, WriterException cause) {
+              failures[index] = cause;
+            }
+          }));
+      // The first in the batch, after every other code was made
+      Assertions.assertSame(failures[5], thrown);
+    } finally {
+      pool.shutdown();
+    }
+    for (int i = 0; i < tickets.size(); i++) {
+      boolean fails = Arrays.binarySearch(failing, i) >= 0;
+      Assertions.assertEquals(fails ? 0 : 1, accepted.get(i));
+      Assertions.assertEquals(fails, failures[i] != null);
+    }
+  }
+
+  @Test
+  public void testContentsFailureWithoutPool() {
+    // Every chunk on the calling thread, and a sink that leaves failures to the exception
+    List<String> tickets = tickets(10);
+    tickets.set(2, new String(new char[8000]).replace('\0', 'X'));
+    AtomicInteger calls = new AtomicInteger();
+    Assertions.assertThrows(WriterException.class,
+        () -> new QRCodeBatchWriter(60, 60, null, null).encode(tickets, (index, matrix) -> calls.incrementAndGet()));
+    Assertions.assertEquals(9, calls.get());
+  }
+
+  @Test
+  public void testSinkFailureStopsBatch() throws InterruptedException {
+    ForkJoinPool pool = new ForkJoinPool(3);
+    AtomicInteger calls = new AtomicInteger();
+    try {
+      QRCodeBatchWriter writer = new QRCodeBatchWriter(50, 50, null, pool);
+      Assertions.assertThrows(IllegalStateException.class, () -> writer.encode(tickets(400), (index, matrix) -> {
+        calls.incrementAndGet();
+        if (index == 0) {
+          throw new IllegalStateException();
+        }
+      }));
+      int callsOnReturn = calls.get();
+      Thread.sleep(200);
+      Assertions.assertEquals(callsOnReturn, calls.get());
+      Assertions.assertTrue(callsOnReturn < 400);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+}
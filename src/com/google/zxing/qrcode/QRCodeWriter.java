@@ -82,6 +82,12 @@ public final class QRCodeWriter implements Writer {
   // Note that the input matrix uses 0 == white, 1 == black, while the output matrix uses
   // 0 == black, 255 == white (i.e. an 8 bit greyscale bitmap).
   private static BitMatrix renderResult(QRCode code, int width, int height, int quietZone) {
+    return renderResult(code, width, height, quietZone, null);
+  }
+
+  // As above, but rendering into "reuse" if it is not null and already has the output dimensions,
+  // saving a new matrix for every code of a batch.
+  static BitMatrix renderResult(QRCode code, int width, int height, int quietZone, BitMatrix reuse) {
     ByteMatrix input = code.getMatrix();
     if (input == null) {
       throw new IllegalStateException();
@@ -101,14 +107,21 @@ public final class QRCodeWriter implements Writer {
     int leftPadding = (outputWidth - (inputWidth * multiple)) / 2;
     int topPadding = (outputHeight - (inputHeight * multiple)) / 2;
 
-    BitMatrix output = new BitMatrix(outputWidth, outputHeight);
+    BitMatrix output;
+    if (reuse != null && reuse.getWidth() == outputWidth && reuse.getHeight() == outputHeight) {
+      output = reuse;
+      output.clear();
+    } else {
+      output = new BitMatrix(outputWidth, outputHeight);
+    }
 
     for (int inputY = 0, outputY = topPadding; inputY < inputHeight; inputY++, outputY += multiple) {
-      // Write the contents of this row of the barcode
-      for (int inputX = 0, outputX = leftPadding; inputX < inputWidth; inputX++, outputX += multiple) {
-        if (input.get(inputX, inputY) == 1) {
-          output.setRegion(outputX, outputY, multiple, multiple);
-        }
+      // Write the contents of this row of the barcode, one run of black modules at a time
+      int inputX = input.findNext(0, inputY, true);
+      while (inputX < inputWidth) {
+        int end = input.findNext(inputX, inputY, false);
+        output.setRegion(leftPadding + inputX * multiple, outputY, (end - inputX) * multiple, multiple);
+        inputX = input.findNext(end, inputY, true);
       }
     }
 
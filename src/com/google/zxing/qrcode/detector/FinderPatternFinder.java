@@ -95,6 +95,10 @@ public class FinderPatternFinder {
     boolean done = false;
     int[] stateCount = new int[5];
     for (int i = iSkip - 1; i < maxI && !done; i += iSkip) {
+      if (Thread.currentThread().isInterrupted()) {
+        // Cancelled, see DecodeHintType.CONCURRENT_READERS
+        throw NotFoundException.getNotFoundInstance();
+      }
       // Get a row of black/white values
       doClearCounts(stateCount);
       int currentState = 0;
@@ -22,18 +22,27 @@ import java.util.Arrays;
  * JAVAPORT: The original code was a 2D array of ints, but since it only ever gets assigned
  * -1, 0, and 1, I'm going to use less memory and go with bytes.
  *
+ * Each cell is now stored as two bits instead: whether it has been set, and if so whether it is
+ * 1. Each plane holds a row in whole {@code long}s, bit x of a row being cell x, so a version 40
+ * QR code takes about a quarter of the memory, and the mask penalty rules in {@link MaskUtil} can
+ * look at 64 cells at a time.
+ *
  * @author dswitkin@google.com (Daniel Switkin)
  */
 public final class ByteMatrix {
 
-  private final byte[][] bytes;
+  private final long[] ones;
+  private final long[] set;
   private final int width;
   private final int height;
+  private final int rowSize;
 
   public ByteMatrix(int width, int height) {
-    bytes = new byte[height][width];
     this.width = width;
     this.height = height;
+    rowSize = (width + 63) / 64;
+    ones = new long[rowSize * height];
+    set = new long[rowSize * height];
   }
 
   public int getHeight() {
@@ -45,41 +54,154 @@ public final class ByteMatrix {
   }
 
   public byte get(int x, int y) {
-    return bytes[y][x];
+    checkColumn(x);
+    int offset = y * rowSize + (x >>> 6);
+    long bit = 1L << x;
+    if ((set[offset] & bit) == 0) {
+      return -1;
+    }
+    return (byte) ((ones[offset] & bit) == 0 ? 0 : 1);
   }
 
   /**
-   * @return an internal representation as bytes, in row-major order. array[y][x] represents point (x,y)
+   * @return a copy of the contents as bytes, in row-major order. array[y][x] represents point (x,y).
+   *  Changing it does not change this matrix.
+   * @deprecated cells are no longer stored as bytes, so this has to copy them all; use {@link #get}
    */
+  @Deprecated
   public byte[][] getArray() {
+    byte[][] bytes = new byte[height][width];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        bytes[y][x] = get(x, y);
+      }
+    }
     return bytes;
   }
 
   public void set(int x, int y, byte value) {
-    bytes[y][x] = value;
+    checkColumn(x);
+    int offset = y * rowSize + (x >>> 6);
+    long bit = 1L << x;
+    if (value == -1) {
+      set[offset] &= ~bit;
+      ones[offset] &= ~bit;
+    } else {
+      set[offset] |= bit;
+      if (value == 0) {
+        ones[offset] &= ~bit;
+      } else {
+        ones[offset] |= bit;
+      }
+    }
   }
 
   public void set(int x, int y, int value) {
-    bytes[y][x] = (byte) value;
+    set(x, y, (byte) value);
   }
 
   public void set(int x, int y, boolean value) {
-    bytes[y][x] = (byte) (value ? 1 : 0);
+    set(x, y, (byte) (value ? 1 : 0));
   }
 
   public void clear(byte value) {
-    for (byte[] aByte : bytes) {
-      Arrays.fill(aByte, value);
+    if (value == -1) {
+      Arrays.fill(set, 0L);
+      Arrays.fill(ones, 0L);
+    } else {
+      fillRows(set);
+      if (value == 0) {
+        Arrays.fill(ones, 0L);
+      } else {
+        fillRows(ones);
+      }
     }
   }
 
+  // Rows are padded to whole longs, so a column past the width would otherwise silently reach the
+  // padding bits rather than fail the way the byte array this replaced did
+  private void checkColumn(int x) {
+    if (x < 0 || x >= width) {
+      throw new ArrayIndexOutOfBoundsException("Column " + x + " outside width " + width);
+    }
+  }
+
+  // Sets every cell of every row in the plane, leaving the bits past the width clear
+  private void fillRows(long[] plane) {
+    for (int offset = 0; offset < plane.length; offset += rowSize) {
+      for (int i = 0; i < rowSize; i++) {
+        plane[offset + i] = wordMask(i);
+      }
+    }
+  }
+
+  /**
+   * @return the bits of word i of a row that are cells rather than padding
+   */
+  long wordMask(int i) {
+    int cells = width - i * 64;
+    return cells >= 64 ? -1L : (1L << cells) - 1;
+  }
+
+  /**
+   * @param x column to start from
+   * @param y row to search
+   * @param one whether to look for a cell that is 1, rather than one that is 0 or unset
+   * @return the first column at or after x in row y whose cell is as wanted, or the width if
+   *  there is none. Checks 64 cells at a time.
+   */
+  public int findNext(int x, int y, boolean one) {
+    if (x >= width) {
+      return width;
+    }
+    int offset = y * rowSize;
+    int i = x >>> 6;
+    long word = (one ? ones[offset + i] : ~ones[offset + i] & wordMask(i)) & (-1L << x);
+    while (word == 0) {
+      if (++i == rowSize) {
+        return width;
+      }
+      word = one ? ones[offset + i] : ~ones[offset + i] & wordMask(i);
+    }
+    return i * 64 + Long.numberOfTrailingZeros(word);
+  }
+
+  /**
+   * @return the number of longs each row takes in the planes
+   */
+  int getRowSize() {
+    return rowSize;
+  }
+
+  /**
+   * @return the plane of cells that are 1, row y starting at word y * {@link #getRowSize()}.
+   *  Padding bits past the width are always clear.
+   */
+  long[] getOnes() {
+    return ones;
+  }
+
+  /**
+   * @return the plane of cells that have been set, laid out like {@link #getOnes()}
+   */
+  long[] getSet() {
+    return set;
+  }
+
+  /**
+   * Makes this matrix a copy of another of the same size.
+   */
+  void copyFrom(ByteMatrix other) {
+    System.arraycopy(other.ones, 0, ones, 0, ones.length);
+    System.arraycopy(other.set, 0, set, 0, set.length);
+  }
+
   @Override
   public String toString() {
     StringBuilder result = new StringBuilder(2 * width * height + 2);
     for (int y = 0; y < height; ++y) {
-      byte[] bytesY = bytes[y];
       for (int x = 0; x < width; ++x) {
-        switch (bytesY[x]) {
+        switch (get(x, y)) {
           case 0:
             result.append(" 0");
             break;
@@ -22,7 +22,7 @@ import com.google.zxing.common.BitArray;
 import com.google.zxing.common.StringUtils;
 import com.google.zxing.common.CharacterSetECI;
 import com.google.zxing.common.reedsolomon.GenericGF;
-import com.google.zxing.common.reedsolomon.ReedSolomonEncoder;
+import com.google.zxing.common.reedsolomon.ByteReedSolomonEncoder;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
 import com.google.zxing.qrcode.decoder.Mode;
 import com.google.zxing.qrcode.decoder.Version;
@@ -31,7 +31,10 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * @author satorux@google.com (Satoru Takabayashi) - creator
@@ -51,6 +54,9 @@ public final class Encoder {
 
   static final Charset DEFAULT_BYTE_MODE_ENCODING = StandardCharsets.ISO_8859_1;
 
+  private static final ByteReedSolomonEncoder EC_ENCODER =
+      new ByteReedSolomonEncoder(GenericGF.QR_CODE_FIELD_256);
+
   private Encoder() {
   }
 
@@ -185,13 +191,16 @@ public final class Encoder {
       maskPattern = QRCode.isValidMaskPattern(hintMaskPattern) ? hintMaskPattern : -1;
     }
 
+    // Lay out everything but the mask once, then try each mask on a copy unless one was given
+    ByteMatrix unmasked = new ByteMatrix(dimension, dimension);
+    long[] dataCells = MatrixUtil.buildUnmaskedMatrix(finalBits, version, unmasked);
     if (maskPattern == -1) {
-      maskPattern = chooseMaskPattern(finalBits, ecLevel, version, matrix);
+      ForkJoinPool pool =
+          hints == null ? null : (ForkJoinPool) hints.get(EncodeHintType.PARALLEL_MASK_SEARCH);
+      maskPattern = chooseMaskPattern(unmasked, dataCells, ecLevel, pool, matrix);
     }
+    MatrixUtil.applyMaskPattern(unmasked, dataCells, ecLevel, maskPattern, matrix);
     qrCode.setMaskPattern(maskPattern);
-
-    // Build the matrix and set it to "qrCode".
-    MatrixUtil.buildMatrix(finalBits, ecLevel, version, maskPattern, matrix);
     qrCode.setMatrix(matrix);
 
     return qrCode;
@@ -284,19 +293,42 @@ public final class Encoder {
     return true;
   }
 
-  private static int chooseMaskPattern(BitArray bits,
+  /**
+   * @param pool if not null, the pool to evaluate the mask patterns on in parallel
+   * @param scratch matrix to apply each mask pattern to, when evaluating them one at a time
+   */
+  private static int chooseMaskPattern(ByteMatrix unmasked,
+                                       long[] dataCells,
                                        ErrorCorrectionLevel ecLevel,
-                                       Version version,
-                                       ByteMatrix matrix) throws WriterException {
-
-    int minPenalty = Integer.MAX_VALUE;  // Lower penalty is better.
-    int bestMaskPattern = -1;
-    // We try all mask patterns to choose the best one.
-    for (int maskPattern = 0; maskPattern < QRCode.NUM_MASK_PATTERNS; maskPattern++) {
-      MatrixUtil.buildMatrix(bits, ecLevel, version, maskPattern, matrix);
-      int penalty = calculateMaskPenalty(matrix);
-      if (penalty < minPenalty) {
-        minPenalty = penalty;
+                                       ForkJoinPool pool,
+                                       ByteMatrix scratch) throws WriterException {
+    int[] penalties = new int[QRCode.NUM_MASK_PATTERNS];
+    if (pool == null) {
+      for (int maskPattern = 0; maskPattern < penalties.length; maskPattern++) {
+        MatrixUtil.applyMaskPattern(unmasked, dataCells, ecLevel, maskPattern, scratch);
+        penalties[maskPattern] = calculateMaskPenalty(scratch);
+      }
+    } else {
+      List<ForkJoinTask<Integer>> tasks = new ArrayList<>(penalties.length - 1);
+      for (int maskPattern = 1; maskPattern < penalties.length; maskPattern++) {
+        int pattern = maskPattern;
+        tasks.add(pool.submit(() -> {
+          ByteMatrix matrix = new ByteMatrix(unmasked.getWidth(), unmasked.getHeight());
+          MatrixUtil.applyMaskPattern(unmasked, dataCells, ecLevel, pattern, matrix);
+          return calculateMaskPenalty(matrix);
+        }));
+      }
+      // Evaluate the first mask pattern here rather than just waiting
+      MatrixUtil.applyMaskPattern(unmasked, dataCells, ecLevel, 0, scratch);
+      penalties[0] = calculateMaskPenalty(scratch);
+      for (int maskPattern = 1; maskPattern < penalties.length; maskPattern++) {
+        penalties[maskPattern] = tasks.get(maskPattern - 1).join();
+      }
+    }
+    // Lower penalty is better; ties go to the lowest mask pattern
+    int bestMaskPattern = 0;
+    for (int maskPattern = 1; maskPattern < penalties.length; maskPattern++) {
+      if (penalties[maskPattern] < penalties[bestMaskPattern]) {
         bestMaskPattern = maskPattern;
       }
     }
@@ -491,17 +523,8 @@ public final class Encoder {
   }
 
   static byte[] generateECBytes(byte[] dataBytes, int numEcBytesInBlock) {
-    int numDataBytes = dataBytes.length;
-    int[] toEncode = new int[numDataBytes + numEcBytesInBlock];
-    for (int i = 0; i < numDataBytes; i++) {
-      toEncode[i] = dataBytes[i] & 0xFF;
-    }
-    new ReedSolomonEncoder(GenericGF.QR_CODE_FIELD_256).encode(toEncode, numEcBytesInBlock);
-
     byte[] ecBytes = new byte[numEcBytesInBlock];
-    for (int i = 0; i < numEcBytesInBlock; i++) {
-      ecBytes[i] = (byte) toEncode[numDataBytes + i];
-    }
+    EC_ENCODER.encode(dataBytes, 0, dataBytes.length, ecBytes, 0, numEcBytesInBlock);
     return ecBytes;
   }
 
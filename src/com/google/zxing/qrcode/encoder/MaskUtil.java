@@ -29,6 +29,26 @@ final class MaskUtil {
   private static final int N3 = 40;
   private static final int N4 = 10;
 
+  // Every mask pattern repeats every 6 columns and every 12 rows. Since 64 leaves 4 when divided
+  // by 6, the words of a row repeat every 3, so each mask pattern only has 12 * 3 distinct words.
+  private static final long[][] DATA_MASK_WORDS = new long[QRCode.NUM_MASK_PATTERNS][12 * 3];
+
+  static {
+    for (int maskPattern = 0; maskPattern < QRCode.NUM_MASK_PATTERNS; maskPattern++) {
+      for (int y = 0; y < 12; y++) {
+        for (int i = 0; i < 3; i++) {
+          long word = 0;
+          for (int j = 0; j < 64; j++) {
+            if (getDataMaskBit(maskPattern, i * 64 + j, y)) {
+              word |= 1L << j;
+            }
+          }
+          DATA_MASK_WORDS[maskPattern][y * 3 + i] = word;
+        }
+      }
+    }
+  }
+
   private MaskUtil() {
     // do nothing
   }
@@ -38,7 +58,10 @@ final class MaskUtil {
    * give penalty to them. Example: 00000 or 11111.
    */
   static int applyMaskPenaltyRule1(ByteMatrix matrix) {
-    return applyMaskPenaltyRule1Internal(matrix, true) + applyMaskPenaltyRule1Internal(matrix, false);
+    int width = matrix.getWidth();
+    int height = matrix.getHeight();
+    return applyMaskPenaltyRule1Internal(matrix.getOnes(), matrix.getRowSize(), width, height) +
+        applyMaskPenaltyRule1Internal(transpose(matrix), (height + 63) / 64, height, width);
   }
 
   /**
@@ -48,16 +71,18 @@ final class MaskUtil {
    */
   static int applyMaskPenaltyRule2(ByteMatrix matrix) {
     int penalty = 0;
-    byte[][] array = matrix.getArray();
+    long[] ones = matrix.getOnes();
+    int rowSize = matrix.getRowSize();
     int width = matrix.getWidth();
     int height = matrix.getHeight();
-    for (int y = 0; y < height - 1; y++) {
-      byte[] arrayY = array[y];
-      for (int x = 0; x < width - 1; x++) {
-        int value = arrayY[x];
-        if (value == arrayY[x + 1] && value == array[y + 1][x] && value == array[y + 1][x + 1]) {
-          penalty++;
-        }
+    for (int y = 0, offset = 0; y < height - 1; y++, offset += rowSize) {
+      int nextOffset = offset + rowSize;
+      for (int x = 0; x < width - 1; x += 64) {
+        long cells = cellsAt(ones, offset, rowSize, x);
+        long same = ~(cells ^ cellsAt(ones, offset, rowSize, x + 1)) &
+            ~(cells ^ cellsAt(ones, nextOffset, rowSize, x)) &
+            ~(cells ^ cellsAt(ones, nextOffset, rowSize, x + 1));
+        penalty += Long.bitCount(same & lowBits(width - 1 - x));
       }
     }
     return N2 * penalty;
@@ -69,80 +94,22 @@ final class MaskUtil {
    * find patterns like 000010111010000, we give penalty once.
    */
   static int applyMaskPenaltyRule3(ByteMatrix matrix) {
-    int numPenalties = 0;
-    byte[][] array = matrix.getArray();
     int width = matrix.getWidth();
     int height = matrix.getHeight();
-    for (int y = 0; y < height; y++) {
-      for (int x = 0; x < width; x++) {
-        byte[] arrayY = array[y];  // We can at least optimize this access
-        if (x + 6 < width &&
-            arrayY[x] == 1 &&
-            arrayY[x + 1] == 0 &&
-            arrayY[x + 2] == 1 &&
-            arrayY[x + 3] == 1 &&
-            arrayY[x + 4] == 1 &&
-            arrayY[x + 5] == 0 &&
-            arrayY[x + 6] == 1 &&
-            (isWhiteHorizontal(arrayY, x - 4, x) || isWhiteHorizontal(arrayY, x + 7, x + 11))) {
-          numPenalties++;
-        }
-        if (y + 6 < height &&
-            array[y][x] == 1 &&
-            array[y + 1][x] == 0 &&
-            array[y + 2][x] == 1 &&
-            array[y + 3][x] == 1 &&
-            array[y + 4][x] == 1 &&
-            array[y + 5][x] == 0 &&
-            array[y + 6][x] == 1 &&
-            (isWhiteVertical(array, x, y - 4, y) || isWhiteVertical(array, x, y + 7, y + 11))) {
-          numPenalties++;
-        }
-      }
-    }
+    int numPenalties =
+        applyMaskPenaltyRule3Internal(matrix.getOnes(), matrix.getRowSize(), width, height) +
+        applyMaskPenaltyRule3Internal(transpose(matrix), (height + 63) / 64, height, width);
     return numPenalties * N3;
   }
 
-  private static boolean isWhiteHorizontal(byte[] rowArray, int from, int to) {
-    if (from < 0 || rowArray.length < to) {
-      return false;
-    }
-    for (int i = from; i < to; i++) {
-      if (rowArray[i] == 1) {
-        return false;
-      }
-    }
-    return true;
-  }
-
-  private static boolean isWhiteVertical(byte[][] array, int col, int from, int to) {
-    if (from < 0 || array.length < to) {
-      return false;
-    }
-    for (int i = from; i < to; i++) {
-      if (array[i][col] == 1) {
-        return false;
-      }
-    }
-    return true;
-  }
-
   /**
    * Apply mask penalty rule 4 and return the penalty. Calculate the ratio of dark cells and give
    * penalty if the ratio is far from 50%. It gives 10 penalty for 5% distance.
    */
   static int applyMaskPenaltyRule4(ByteMatrix matrix) {
     int numDarkCells = 0;
-    byte[][] array = matrix.getArray();
-    int width = matrix.getWidth();
-    int height = matrix.getHeight();
-    for (int y = 0; y < height; y++) {
-      byte[] arrayY = array[y];
-      for (int x = 0; x < width; x++) {
-        if (arrayY[x] == 1) {
-          numDarkCells++;
-        }
-      }
+    for (long word : matrix.getOnes()) {
+      numDarkCells += Long.bitCount(word);
     }
     int numTotalCells = matrix.getHeight() * matrix.getWidth();
     int fivePercentVariances = Math.abs(numDarkCells * 2 - numTotalCells) * 10 / numTotalCells;
@@ -191,34 +158,146 @@ final class MaskUtil {
   }
 
   /**
-   * Helper function for applyMaskPenaltyRule1. We need this for doing this calculation in both
-   * vertical and horizontal orders respectively.
+   * Return the mask bits for "getMaskPattern" for the 64 cells of word "i" of row "y", as laid out
+   * by {@link ByteMatrix}, including bits past the end of the row.
    */
-  private static int applyMaskPenaltyRule1Internal(ByteMatrix matrix, boolean isHorizontal) {
+  static long getDataMaskWord(int maskPattern, int i, int y) {
+    return DATA_MASK_WORDS[maskPattern][(y % 12) * 3 + i % 3];
+  }
+
+  /**
+   * Helper function for applyMaskPenaltyRule1, working on rows of a plane, which are the columns
+   * of the matrix for the vertical direction. A run of n >= 5 cells contains n - 4 runs of five,
+   * so each run of five is counted once and each one that starts a run N1 - 1 more.
+   */
+  private static int applyMaskPenaltyRule1Internal(long[] plane, int rowSize, int width, int height) {
     int penalty = 0;
-    int iLimit = isHorizontal ? matrix.getHeight() : matrix.getWidth();
-    int jLimit = isHorizontal ? matrix.getWidth() : matrix.getHeight();
-    byte[][] array = matrix.getArray();
-    for (int i = 0; i < iLimit; i++) {
-      int numSameBitCells = 0;
-      int prevBit = -1;
-      for (int j = 0; j < jLimit; j++) {
-        int bit = isHorizontal ? array[i][j] : array[j][i];
-        if (bit == prevBit) {
-          numSameBitCells++;
-        } else {
-          if (numSameBitCells >= 5) {
-            penalty += N1 + (numSameBitCells - 5);
-          }
-          numSameBitCells = 1;  // Include the cell itself.
-          prevBit = bit;
+    for (int y = 0, offset = 0; y < height; y++, offset += rowSize) {
+      for (int x = 0; x < width; x += 64) {
+        long cells = cellsAt(plane, offset, rowSize, x);
+        long runsOfFive = ~(cells ^ cellsAt(plane, offset, rowSize, x + 1)) &
+            ~(cells ^ cellsAt(plane, offset, rowSize, x + 2)) &
+            ~(cells ^ cellsAt(plane, offset, rowSize, x + 3)) &
+            ~(cells ^ cellsAt(plane, offset, rowSize, x + 4)) &
+            lowBits(width - 4 - x);
+        long starts = runsOfFive & (cells ^ cellsAt(plane, offset, rowSize, x - 1));
+        if (x == 0) {
+          starts |= runsOfFive & 1L;
         }
-      }
-      if (numSameBitCells >= 5) {
-        penalty += N1 + (numSameBitCells - 5);
+        penalty += Long.bitCount(runsOfFive) + (N1 - 1) * Long.bitCount(starts);
       }
     }
     return penalty;
   }
 
+  /**
+   * Helper function for applyMaskPenaltyRule3, working on rows of a plane like
+   * applyMaskPenaltyRule1Internal. Returns the number of finder-like patterns found.
+   */
+  private static int applyMaskPenaltyRule3Internal(long[] plane, int rowSize, int width, int height) {
+    int numPenalties = 0;
+    for (int y = 0, offset = 0; y < height; y++, offset += rowSize) {
+      for (int x = 0; x + 6 < width; x += 64) {
+        long pattern = cellsAt(plane, offset, rowSize, x) &
+            ~cellsAt(plane, offset, rowSize, x + 1) &
+            cellsAt(plane, offset, rowSize, x + 2) &
+            cellsAt(plane, offset, rowSize, x + 3) &
+            cellsAt(plane, offset, rowSize, x + 4) &
+            ~cellsAt(plane, offset, rowSize, x + 5) &
+            cellsAt(plane, offset, rowSize, x + 6) &
+            lowBits(width - 6 - x);
+        if (pattern == 0) {
+          continue;
+        }
+        // Four white cells before the pattern, all inside the row
+        long whiteBefore = ~(cellsAt(plane, offset, rowSize, x - 1) |
+            cellsAt(plane, offset, rowSize, x - 2) |
+            cellsAt(plane, offset, rowSize, x - 3) |
+            cellsAt(plane, offset, rowSize, x - 4)) &
+            ~lowBits(4 - x);
+        // Or four white cells after it, all inside the row
+        long whiteAfter = ~(cellsAt(plane, offset, rowSize, x + 7) |
+            cellsAt(plane, offset, rowSize, x + 8) |
+            cellsAt(plane, offset, rowSize, x + 9) |
+            cellsAt(plane, offset, rowSize, x + 10)) &
+            lowBits(width - 10 - x);
+        numPenalties += Long.bitCount(pattern & (whiteBefore | whiteAfter));
+      }
+    }
+    return numPenalties;
+  }
+
+  /**
+   * Returns 64 cells of the row of a plane at "offset", starting at column "x", so bit j is column
+   * x + j. Cells before the start or past the end of the row read as 0.
+   */
+  private static long cellsAt(long[] plane, int offset, int rowSize, int x) {
+    if (x < 0) {
+      return cellsAt(plane, offset, rowSize, 0) << -x;
+    }
+    int i = x >>> 6;
+    if (i >= rowSize) {
+      return 0L;
+    }
+    int shift = x & 63;
+    long cells = plane[offset + i] >>> shift;
+    if (shift != 0 && i + 1 < rowSize) {
+      cells |= plane[offset + i + 1] << (64 - shift);
+    }
+    return cells;
+  }
+
+  /**
+   * @return a word with the lowest n bits set, or none if n is not positive
+   */
+  private static long lowBits(int n) {
+    if (n <= 0) {
+      return 0L;
+    }
+    return n >= 64 ? -1L : (1L << n) - 1;
+  }
+
+  /**
+   * Returns the plane of 1 cells of the matrix with rows and columns swapped, so that its rows
+   * are the columns of the matrix. Works on 64x64 blocks of cells at a time.
+   */
+  private static long[] transpose(ByteMatrix matrix) {
+    long[] ones = matrix.getOnes();
+    int rowSize = matrix.getRowSize();
+    int width = matrix.getWidth();
+    int height = matrix.getHeight();
+    int newRowSize = (height + 63) / 64;
+    long[] transposed = new long[newRowSize * width];
+    long[] block = new long[64];
+    for (int blockY = 0; blockY < newRowSize; blockY++) {
+      int rows = Math.min(64, height - blockY * 64);
+      for (int blockX = 0; blockX < rowSize; blockX++) {
+        for (int i = 0; i < 64; i++) {
+          block[i] = i < rows ? ones[(blockY * 64 + i) * rowSize + blockX] : 0L;
+        }
+        transpose64(block);
+        int columns = Math.min(64, width - blockX * 64);
+        for (int i = 0; i < columns; i++) {
+          transposed[(blockX * 64 + i) * newRowSize + blockY] = block[i];
+        }
+      }
+    }
+    return transposed;
+  }
+
+  /**
+   * Transposes a 64x64 block of bits in place, where bit x of block[y] is bit (x, y), by swapping
+   * ever smaller quarters of it. See Hacker's Delight, section 7-3.
+   */
+  private static void transpose64(long[] block) {
+    long mask = 0x00000000FFFFFFFFL;
+    for (int j = 32; j != 0; j >>>= 1, mask ^= mask << j) {
+      for (int k = 0; k < 64; k = (k + j + 1) & ~j) {
+        long t = ((block[k] >>> j) ^ block[k + j]) & mask;
+        block[k] ^= t << j;
+        block[k + j] ^= t;
+      }
+    }
+  }
+
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.qrcode.encoder;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Checks the word at a time mask penalty rules of {@link MaskUtil} against straightforward per-cell
+ * counts, on random matrices of widths on both sides of multiples of 64, up to version 40.
+ */
+class MaskUtilTest {
+
+  private static final int[][] SIZES = {
+      {21, 21}, {63, 63}, {64, 64}, {65, 65}, {127, 127}, {128, 128}, {129, 129}, {177, 177},
+      {70, 90}, {130, 25},
+  };
+
+  @Test
+  public void testPenaltyRules() {
+    Random random = new Random(24);
+    for (int[] size : SIZES) {
+      for (int trial = 0; trial < 20; trial++) {
+        // Mostly dark, mostly light or even, so long runs and finder-like patterns both turn up
+        ByteMatrix matrix = randomMatrix(size[0], size[1], random, 0.2 + 0.3 * (trial % 3), random.nextBoolean());
+        String what = size[0] + "x" + size[1] + " trial " + trial;
+        Assertions.assertEquals(rule1(matrix), MaskUtil.applyMaskPenaltyRule1(matrix), "rule 1, " + what);
+        Assertions.assertEquals(rule2(matrix), MaskUtil.applyMaskPenaltyRule2(matrix), "rule 2, " + what);
+        Assertions.assertEquals(rule3(matrix), MaskUtil.applyMaskPenaltyRule3(matrix), "rule 3, " + what);
+        Assertions.assertEquals(rule4(matrix), MaskUtil.applyMaskPenaltyRule4(matrix), "rule 4, " + what);
+      }
+    }
+  }
+
+  @Test
+  public void testDataMaskWords() {
+    for (int maskPattern = 0; maskPattern < QRCode.NUM_MASK_PATTERNS; maskPattern++) {
+      for (int y = 0; y < 177; y++) {
+        for (int x = 0; x < 192; x++) {
+          long word = MaskUtil.getDataMaskWord(maskPattern, x >>> 6, y);
+          Assertions.assertEquals(MaskUtil.getDataMaskBit(maskPattern, x, y), (word & (1L << x)) != 0,
+              "mask " + maskPattern + " at " + x + "," + y);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testColumnPastWidth() {
+    ByteMatrix matrix = new ByteMatrix(21, 21);
+    Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> matrix.get(21, 0));
+    Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> matrix.set(63, 0, 1));
+    Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> matrix.set(-1, 0, true));
+  }
+
+  /**
+   * @param runs whether to build rows from short runs rather than independent cells
+   */
+  private static ByteMatrix randomMatrix(int width, int height, Random random, double dark, boolean runs) {
+    ByteMatrix matrix = new ByteMatrix(width, height);
+    for (int y = 0; y < height; y++) {
+      boolean value = false;
+      for (int x = 0; x < width; x++) {
+        if (!runs || random.nextInt(3) == 0) {
+          value = random.nextDouble() < dark;
+        }
+        matrix.set(x, y, value);
+      }
+    }
+    return matrix;
+  }
+
+  private static int cell(ByteMatrix matrix, int x, int y, boolean horizontal) {
+    return horizontal ? matrix.get(x, y) : matrix.get(y, x);
+  }
+
+  private static int rule1(ByteMatrix matrix) {
+    return rule1(matrix, true) + rule1(matrix, false);
+  }
+
+  private static int rule1(ByteMatrix matrix, boolean horizontal) {
+    int lines = horizontal ? matrix.getHeight() : matrix.getWidth();
+    int length = horizontal ? matrix.getWidth() : matrix.getHeight();
+    int penalty = 0;
+    for (int i = 0; i < lines; i++) {
+      int run = 0;
+      int previous = -1;
+      for (int j = 0; j <= length; j++) {
+        int bit = j < length ? cell(matrix, j, i, horizontal) : -1;
+        if (bit == previous) {
+          run++;
+        } else {
+          if (run >= 5) {
+            penalty += 3 + run - 5;
+          }
+          run = 1;
+          previous = bit;
+        }
+      }
+    }
+    return penalty;
+  }
+
+  private static int rule2(ByteMatrix matrix) {
+    int blocks = 0;
+    for (int y = 0; y < matrix.getHeight() - 1; y++) {
+      for (int x = 0; x < matrix.getWidth() - 1; x++) {
+        int value = matrix.get(x, y);
+        if (value == matrix.get(x + 1, y) && value == matrix.get(x, y + 1) && value == matrix.get(x + 1, y + 1)) {
+          blocks++;
+        }
+      }
+    }
+    return 3 * blocks;
+  }
+
+  private static int rule3(ByteMatrix matrix) {
+    int patterns = 0;
+    for (boolean horizontal : new boolean[] {true, false}) {
+      int lines = horizontal ? matrix.getHeight() : matrix.getWidth();
+      int length = horizontal ? matrix.getWidth() : matrix.getHeight();
+      for (int i = 0; i < lines; i++) {
+        for (int j = 0; j + 6 < length; j++) {
+          boolean finder = true;
+          for (int k = 0; k < 7; k++) {
+            if (cell(matrix, j + k, i, horizontal) != (k == 1 || k == 5 ? 0 : 1)) {
+              finder = false;
+            }
+          }
+          if (finder && (isWhite(matrix, i, j - 4, j, length, horizontal) ||
+              isWhite(matrix, i, j + 7, j + 11, length, horizontal))) {
+            patterns++;
+          }
+        }
+      }
+    }
+    return 40 * patterns;
+  }
+
+  private static boolean isWhite(ByteMatrix matrix, int line, int from, int to, int length, boolean horizontal) {
+    if (from < 0 || to > length) {
+      return false;
+    }
+    for (int j = from; j < to; j++) {
+      if (cell(matrix, j, line, horizontal) == 1) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int rule4(ByteMatrix matrix) {
+    int dark = 0;
+    int total = matrix.getWidth() * matrix.getHeight();
+    for (int y = 0; y < matrix.getHeight(); y++) {
+      for (int x = 0; x < matrix.getWidth(); x++) {
+        dark += matrix.get(x, y);
+      }
+    }
+    return Math.abs(dark * 2 - total) * 10 / total * 10;
+  }
+
+}
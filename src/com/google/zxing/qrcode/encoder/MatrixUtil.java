@@ -144,6 +144,37 @@ final class MatrixUtil {
     embedDataBits(dataBits, maskPattern, matrix);
   }
 
+  // Build the parts of the matrix that are the same for every mask pattern: everything but the
+  // type information, with "dataBits" embedded unmasked. Return which cells hold data bits, since
+  // those are the only ones a mask pattern changes, as a plane laid out like ByteMatrix.getOnes().
+  // The function patterns come from the template of "version", which is built once and shared.
+  static long[] buildUnmaskedMatrix(BitArray dataBits,
+                                    Version version,
+                                    ByteMatrix matrix) throws WriterException {
+    VersionTemplate template = VersionTemplate.forVersion(version);
+    template.layOut(dataBits, matrix);
+    return template.getDataCells();
+  }
+
+  // Copy "unmasked" from buildUnmaskedMatrix() to "matrix", flipping the data cells selected by
+  // "maskPattern" and embedding the type information for it. The result is the same as that of
+  // buildMatrix() with "maskPattern". Works on 64 cells at a time.
+  static void applyMaskPattern(ByteMatrix unmasked,
+                               long[] dataCells,
+                               ErrorCorrectionLevel ecLevel,
+                               int maskPattern,
+                               ByteMatrix matrix) throws WriterException {
+    matrix.copyFrom(unmasked);
+    long[] ones = matrix.getOnes();
+    int rowSize = matrix.getRowSize();
+    for (int y = 0, offset = 0; y < matrix.getHeight(); y++, offset += rowSize) {
+      for (int i = 0; i < rowSize; i++) {
+        ones[offset + i] ^= dataCells[offset + i] & MaskUtil.getDataMaskWord(maskPattern, i, y);
+      }
+    }
+    embedTypeInfo(ecLevel, maskPattern, matrix);
+  }
+
   // Embed basic patterns. On success, modify the matrix and return true.
   // The basic patterns are:
   // - Position detection patterns
@@ -222,7 +253,38 @@ final class MatrixUtil {
   // See 8.7 of JISX0510:2004 (p.38) for how to embed data bits.
   static void embedDataBits(BitArray dataBits, int maskPattern, ByteMatrix matrix)
       throws WriterException {
-    int bitIndex = 0;
+    int[] positions = findDataBitPositions(matrix);
+    int size = dataBits.getSize();
+    // All bits should be consumed.
+    if (size > positions.length) {
+      throw new WriterException("Not all bits consumed: " + positions.length + '/' + size);
+    }
+    int rowBits = matrix.getRowSize() * 64;
+    for (int i = 0; i < positions.length; i++) {
+      int x = positions[i] % rowBits;
+      int y = positions[i] / rowBits;
+      // Padding bit. If there is no bit left, we'll fill the left cells with 0, as described
+      // in 8.4.9 of JISX0510:2004 (p. 24).
+      boolean bit = i < size && dataBits.get(i);
+      // Skip masking if mask_pattern is -1.
+      if (maskPattern != -1 && MaskUtil.getDataMaskBit(maskPattern, x, y)) {
+        bit = !bit;
+      }
+      matrix.set(x, y, bit);
+    }
+  }
+
+  // Return the empty cells of "matrix" in the order data bits are embedded in them, each as
+  // y * 64 * matrix.getRowSize() + x, which is its bit index in the planes of "matrix".
+  static int[] findDataBitPositions(ByteMatrix matrix) {
+    long[] set = matrix.getSet();
+    int rowSize = matrix.getRowSize();
+    int numEmpty = 0;
+    for (int i = 0; i < set.length; i++) {
+      numEmpty += Long.bitCount(~set[i] & matrix.wordMask(i % rowSize));
+    }
+    int[] positions = new int[numEmpty];
+    int count = 0;
     int direction = -1;
     // Start from the right bottom cell.
     int x = matrix.getWidth() - 1;
@@ -235,25 +297,10 @@ final class MatrixUtil {
       while (y >= 0 && y < matrix.getHeight()) {
         for (int i = 0; i < 2; ++i) {
           int xx = x - i;
-          // Skip the cell if it's not empty.
-          if (!isEmpty(matrix.get(xx, y))) {
-            continue;
-          }
-          boolean bit;
-          if (bitIndex < dataBits.getSize()) {
-            bit = dataBits.get(bitIndex);
-            ++bitIndex;
-          } else {
-            // Padding bit. If there is no bit left, we'll fill the left cells with 0, as described
-            // in 8.4.9 of JISX0510:2004 (p. 24).
-            bit = false;
+          // Skip the cell unless it's empty.
+          if (isEmpty(matrix.get(xx, y))) {
+            positions[count++] = y * rowSize * 64 + xx;
           }
-
-          // Skip masking if mask_pattern is -1.
-          if (maskPattern != -1 && MaskUtil.getDataMaskBit(maskPattern, xx, y)) {
-            bit = !bit;
-          }
-          matrix.set(xx, y, bit);
         }
         y += direction;
       }
@@ -261,10 +308,7 @@ final class MatrixUtil {
       y += direction;
       x -= 2;  // Move to the left.
     }
-    // All bits should be consumed.
-    if (bitIndex != dataBits.getSize()) {
-      throw new WriterException("Not all bits consumed: " + bitIndex + '/' + dataBits.getSize());
-    }
+    return positions;
   }
 
   // Return the position of the most significant bit set (to one) in the "value". The most
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.qrcode.encoder;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.decoder.Version;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The parts of a QR code that only depend on its version, laid out once per version and shared
+ * by every code of that version: the position detection, separator, timing and position
+ * adjustment patterns, the dark module and the version information, together with which cells
+ * hold data and the order data bits are placed in them.
+ *
+ * Instances never change once built, so they are safe to use from several threads at once.
+ */
+final class VersionTemplate {
+
+  private static final AtomicReferenceArray<VersionTemplate> TEMPLATES = new AtomicReferenceArray<>(41);
+
+  // Every cell set, data and type information cells to 0
+  private final ByteMatrix matrix;
+  private final long[] dataCells;
+  // Index into the planes of the matrix of the cell each data bit goes in, in placement order
+  private final int[] dataPositions;
+
+  private VersionTemplate(Version version) throws WriterException {
+    int dimension = version.getDimensionForVersion();
+    matrix = new ByteMatrix(dimension, dimension);
+    MatrixUtil.clearMatrix(matrix);
+    MatrixUtil.embedBasicPatterns(version, matrix);
+    // Reserve the type information cells. Their contents are replaced for each mask pattern by
+    // MatrixUtil.applyMaskPattern().
+    MatrixUtil.embedTypeInfo(ErrorCorrectionLevel.L, 0, matrix);
+    MatrixUtil.maybeEmbedVersionInfo(version, matrix);
+
+    dataPositions = MatrixUtil.findDataBitPositions(matrix);
+
+    long[] set = matrix.getSet();
+    int rowSize = matrix.getRowSize();
+    dataCells = new long[set.length];
+    for (int i = 0; i < set.length; i++) {
+      dataCells[i] = ~set[i] & matrix.wordMask(i % rowSize);
+      set[i] |= dataCells[i];
+    }
+  }
+
+  /**
+   * @return the template for version, built on first use
+   */
+  static VersionTemplate forVersion(Version version) throws WriterException {
+    int versionNumber = version.getVersionNumber();
+    VersionTemplate template = TEMPLATES.get(versionNumber);
+    if (template == null) {
+      template = new VersionTemplate(version);
+      // Another thread may have built the same template meanwhile; either copy will do
+      TEMPLATES.compareAndSet(versionNumber, null, template);
+    }
+    return template;
+  }
+
+  /**
+   * @return which cells hold data bits, as a plane laid out like {@link ByteMatrix#getOnes()}.
+   *  Shared, so it must not be modified.
+   */
+  long[] getDataCells() {
+    return dataCells;
+  }
+
+  /**
+   * Copies the template to matrix and places dataBits in it unmasked, padding the remaining data
+   * cells with 0. The type information cells are left 0.
+   *
+   * @param dataBits data and error correction codewords, interleaved
+   * @param matrix matrix of this template's version to lay the code out in
+   * @throws WriterException if there are more data bits than data cells
+   */
+  void layOut(BitArray dataBits, ByteMatrix matrix) throws WriterException {
+    int size = dataBits.getSize();
+    if (size > dataPositions.length) {
+      throw new WriterException("Not all bits consumed: " + dataPositions.length + '/' + size);
+    }
+    matrix.copyFrom(this.matrix);
+    long[] ones = matrix.getOnes();
+    int[] bits = dataBits.getBitArray();
+    // Only the 1 bits need placing, found a word at a time
+    for (int i = 0, base = 0; base < size; i++, base += 32) {
+      int word = bits[i];
+      while (word != 0) {
+        int index = base + Integer.numberOfTrailingZeros(word);
+        if (index >= size) {
+          break;
+        }
+        int position = dataPositions[index];
+        ones[position >>> 6] |= 1L << position;
+        word &= word - 1;
+      }
+    }
+  }
+
+}
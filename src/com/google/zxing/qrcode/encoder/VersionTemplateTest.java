@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.qrcode.encoder;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.decoder.Version;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Checks that laying codes out from a {@link VersionTemplate} gives the same matrix as
+ * {@link MatrixUtil#buildMatrix}, for every version.
+ */
+class VersionTemplateTest {
+
+  @Test
+  public void testMatchesBuildMatrix() throws WriterException {
+    Random random = new Random(25);
+    for (int versionNumber = 1; versionNumber <= 40; versionNumber++) {
+      Version version = Version.getVersionForNumber(versionNumber);
+      int dimension = version.getDimensionForVersion();
+      for (ErrorCorrectionLevel ecLevel : ErrorCorrectionLevel.values()) {
+        // Full codes, and short ones whose remaining data cells are padded
+        int maxBits = version.getTotalCodewords() * 8;
+        int numBits = random.nextBoolean() ? maxBits : random.nextInt(maxBits);
+        BitArray bits = new BitArray();
+        for (int i = 0; i < numBits; i++) {
+          bits.appendBit(random.nextBoolean());
+        }
+        int maskPattern = random.nextInt(QRCode.NUM_MASK_PATTERNS);
+
+        ByteMatrix expected = new ByteMatrix(dimension, dimension);
+        MatrixUtil.buildMatrix(bits, ecLevel, version, maskPattern, expected);
+        ByteMatrix unmasked = new ByteMatrix(dimension, dimension);
+        long[] dataCells = MatrixUtil.buildUnmaskedMatrix(bits, version, unmasked);
+        ByteMatrix actual = new ByteMatrix(dimension, dimension);
+        MatrixUtil.applyMaskPattern(unmasked, dataCells, ecLevel, maskPattern, actual);
+
+        Assertions.assertEquals(expected.toString(), actual.toString(),
+            "version " + versionNumber + ' ' + ecLevel + " mask " + maskPattern);
+      }
+    }
+  }
+
+  @Test
+  public void testTooManyBits() {
+    Version version = Version.getVersionForNumber(1);
+    BitArray bits = new BitArray(version.getTotalCodewords() * 8 + 1);
+    Assertions.assertThrows(WriterException.class,
+        () -> MatrixUtil.buildUnmaskedMatrix(bits, version, new ByteMatrix(21, 21)));
+  }
+
+}